@@ -0,0 +1,74 @@
+package io.vigier.cursorpaging.benchmark;
+
+import io.vigier.cursorpaging.benchmark.model.DataRecord;
+import io.vigier.cursorpaging.benchmark.model.SecurityClass;
+import io.vigier.cursorpaging.benchmark.model.Tag;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.hibernate.jpa.HibernatePersistenceConfiguration;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Bootstraps a plain (no Spring context) Hibernate {@link EntityManagerFactory} for the benchmark model. The default is
+ * an in-memory H2 database, other databases can be used by passing their JDBC url and credentials.
+ */
+@Getter
+@Accessors( fluent = true )
+public class BenchmarkDatabase implements AutoCloseable {
+
+    public static final String H2_URL = "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+
+    /**
+     * The SQL of the last statement prepared by Hibernate
+     */
+    private final AtomicReference<String> lastSql = new AtomicReference<>();
+
+    private final String url;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * @param url          JDBC url, defaults to {@value H2_URL}
+     * @param user         database user, defaults to {@code sa}
+     * @param password     database password, defaults to an empty password
+     * @param schemaAction schema action as understood by {@code jakarta.persistence.schema-generation.database.action},
+     *                     defaults to {@code drop-and-create}
+     * @param properties   additional persistence properties
+     */
+    @Builder
+    private BenchmarkDatabase( final String url, final String user, final String password, final String schemaAction,
+            final Map<String, Object> properties ) {
+        this.url = url != null ? url : H2_URL;
+        final StatementInspector inspector = sql -> {
+            lastSql.setPlain( sql );
+            return sql;
+        };
+        this.entityManagerFactory = new HibernatePersistenceConfiguration( "benchmark" ) //
+                .managedClasses( DataRecord.class, Tag.class, SecurityClass.class )
+                .jdbcUrl( this.url )
+                .jdbcCredentials( user != null ? user : "sa", password != null ? password : "" )
+                .property( PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION,
+                        schemaAction != null ? schemaAction : "drop-and-create" )
+                .statementInspector( inspector )
+                .property( "hibernate.jdbc.batch_size", 1000 )
+                .properties( properties != null ? properties : Map.of() )
+                .createEntityManagerFactory();
+    }
+
+    public static BenchmarkDatabase create( final Consumer<BenchmarkDatabaseBuilder> c ) {
+        final var builder = BenchmarkDatabase.builder();
+        c.accept( builder );
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+    }
+}
@@ -0,0 +1,111 @@
+package io.vigier.cursorpaging.benchmark;
+
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.Order;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.Position;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Builds page requests of a configurable shape, used as input for the benchmarks. All values are derived from a fixed
+ * seed, so that two runs with the same parameters measure the same data.
+ */
+public final class CursorFixtures {
+
+    /**
+     * The value type used for the positions and filters of a generated request.
+     */
+    public enum ValueType {
+        UUID( java.util.UUID.class, r -> new UUID( r.nextLong(), r.nextLong() ) ),
+        INSTANT( Instant.class, r -> Instant.ofEpochSecond( 1_700_000_000L + r.nextInt( 100_000_000 ), r.nextInt( 1_000_000_000 ) ) ),
+        STRING( String.class, r -> "value-" + Long.toString( r.nextLong() & Long.MAX_VALUE, 36 ) );
+
+        private final Class<? extends Comparable<?>> type;
+        private final Function<Random, Comparable<?>> generator;
+
+        ValueType( final Class<? extends Comparable<?>> type, final Function<Random, Comparable<?>> generator ) {
+            this.type = type;
+            this.generator = generator;
+        }
+
+        public Class<? extends Comparable<?>> type() {
+            return type;
+        }
+
+        public Comparable<?> next( final Random random ) {
+            return generator.apply( random );
+        }
+    }
+
+    private static final int FILTERS_PER_GROUP = 3;
+    private static final int VALUES_PER_FILTER = 3;
+
+    private CursorFixtures() {
+    }
+
+    /**
+     * Create a request as it would be rendered into a "next" link: every position has a value and a next-value.
+     *
+     * @param positions number of order positions
+     * @param filters   number of filters in the filter tree, organized as an AND of OR-groups
+     * @param valueType type of all attribute values
+     * @param <E>       the entity type
+     * @return the request
+     */
+    public static <E> PageRequest<E> pageRequest( final int positions, final int filters, final ValueType valueType ) {
+        final var random = new Random( 4711 );
+        final List<Attribute> attributes = attributes( positions + filters, valueType );
+        return PageRequest.create( b -> {
+            b.pageSize( 25 );
+            for ( int i = 0; i < positions; i++ ) {
+                final var attribute = attributes.get( i );
+                final var order = i % 2 == 0 ? Order.ASC : Order.DESC;
+                b.position( Position.create( p -> p.attribute( attribute )
+                        .order( order )
+                        .value( valueType.next( random ) )
+                        .nextValue( valueType.next( random ) ) ) );
+            }
+            filterTree( attributes.subList( positions, positions + filters ), valueType, random ).forEach( b::filter );
+        } );
+    }
+
+    /**
+     * @param count     number of attributes
+     * @param valueType type of the attributes
+     * @return attributes named {@code attr0} ... {@code attrN}, alternating between plain and nested paths
+     */
+    public static List<Attribute> attributes( final int count, final ValueType valueType ) {
+        final List<Attribute> attributes = new ArrayList<>( count );
+        for ( int i = 0; i < count; i++ ) {
+            attributes.add( i % 2 == 0 //
+                    ? Attribute.of( "attr" + i, valueType.type() ) //
+                    : Attribute.of( "nested" + i, Object.class, "attr" + i, valueType.type() ) );
+        }
+        return attributes;
+    }
+
+    private static List<QueryElement> filterTree( final List<Attribute> attributes, final ValueType valueType,
+            final Random random ) {
+        final List<QueryElement> groups = new ArrayList<>();
+        for ( int i = 0; i < attributes.size(); i += FILTERS_PER_GROUP ) {
+            final List<QueryElement> group = new ArrayList<>( FILTERS_PER_GROUP );
+            for ( final Attribute attribute : attributes.subList( i, Math.min( i + FILTERS_PER_GROUP,
+                    attributes.size() ) ) ) {
+                final List<Comparable<?>> values = new ArrayList<>( VALUES_PER_FILTER );
+                for ( int v = 0; v < VALUES_PER_FILTER; v++ ) {
+                    values.add( valueType.next( random ) );
+                }
+                group.add( Filters.attribute( attribute ).in( values ) );
+            }
+            groups.add( group.size() == 1 ? group.getFirst() : Filters.or( group ) );
+        }
+        return groups;
+    }
+}
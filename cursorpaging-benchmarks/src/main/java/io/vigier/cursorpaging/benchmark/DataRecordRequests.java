@@ -0,0 +1,141 @@
+package io.vigier.cursorpaging.benchmark;
+
+import io.vigier.cursorpaging.benchmark.model.AuditInfo;
+import io.vigier.cursorpaging.benchmark.model.DataRecord;
+import io.vigier.cursorpaging.benchmark.model.SecurityClass;
+import io.vigier.cursorpaging.benchmark.model.Status;
+import io.vigier.cursorpaging.benchmark.model.Tag;
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Filter;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.Order;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.Position;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import io.vigier.cursorpaging.jpa.SingleAttribute;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Synthetic page requests for the {@link DataRecord} benchmark model.
+ */
+public final class DataRecordRequests {
+
+    public static final Attribute ID = Attribute.of( "id", UUID.class );
+    public static final Attribute NAME = Attribute.of( "name", String.class );
+    public static final Attribute CATEGORY = Attribute.of( "category", String.class );
+    public static final Attribute PRIORITY = Attribute.of( "priority", Integer.class );
+    public static final Attribute STATUS = Attribute.of( "status", Status.class );
+    public static final Attribute CREATED_AT = Attribute.of( "auditInfo", AuditInfo.class, "createdAt",
+            Instant.class );
+    public static final Attribute MODIFIED_AT = Attribute.of( "auditInfo", AuditInfo.class, "modifiedAt",
+            Instant.class );
+    public static final Attribute CREATED_BY = Attribute.of( "auditInfo", AuditInfo.class, "createdBy",
+            String.class );
+    public static final Attribute MODIFIED_BY = Attribute.of( "auditInfo", AuditInfo.class, "modifiedBy",
+            String.class );
+    public static final Attribute SECURITY_CLASS_NAME = Attribute.of( "securityClass", SecurityClass.class, "name",
+            String.class );
+    public static final Attribute TAG_NAME = Attribute.of( new SingleAttribute( "tags", Tag.class ),
+            new SingleAttribute( "name", String.class ) );
+
+    /**
+     * Sort attributes on columns of the root table. The unique {@link #ID} is always the last position.
+     */
+    public static final List<Attribute> FLAT_SORT = List.of( NAME, CATEGORY, PRIORITY, STATUS );
+
+    /**
+     * Sort attributes on embedded paths. The unique {@link #ID} is always the last position. Joined attributes are not
+     * used, to keep the numbers comparable with the recorded baseline (which had an unconditional {@code DISTINCT},
+     * where ordering by a joined attribute is rejected by H2 and PostgreSQL).
+     */
+    public static final List<Attribute> NESTED_SORT = List.of( CREATED_AT, MODIFIED_AT, CREATED_BY, MODIFIED_BY );
+
+    private static final List<Function<Integer, Filter>> FLAT_FILTERS = List.of( //
+            i -> Filters.attribute( NAME ).like( "name-" + i + "%" ), //
+            i -> Filters.attribute( CATEGORY ).in( "cat-" + i, "cat-" + (i + 1), "cat-" + (i + 2) ), //
+            i -> Filters.attribute( PRIORITY ).greaterThan( i ), //
+            i -> Filters.attribute( STATUS ).in( Status.ACTIVE, Status.DRAFT ) );
+
+    private static final List<Function<Integer, Filter>> NESTED_FILTERS = List.of( //
+            i -> Filters.attribute( SECURITY_CLASS_NAME ).in( "level-" + i, "level-" + (i + 1) ), //
+            i -> Filters.attribute( CREATED_AT ).lessThan( Instant.parse( "2025-01-01T00:00:00Z" ).plusSeconds( i ) ),
+            i -> Filters.attribute( CREATED_BY ).equalTo( "user-" + i ), //
+            i -> Filters.attribute( TAG_NAME ).in( "tag-" + i, "tag-" + (i + 1) ) );
+
+    private DataRecordRequests() {
+    }
+
+    /**
+     * Create a request for a page after the first one (all positions have a value).
+     *
+     * @param positions number of positions including the final {@link #ID} position (1-5)
+     * @param nested    use embedded attribute paths for positions and embedded/joined paths for filters
+     * @param filters   number of filters, organized as an AND of OR-groups
+     * @return the request
+     */
+    public static PageRequest<DataRecord> request( final int positions, final boolean nested, final int filters ) {
+        final var sort = sortAttributes( positions, nested );
+        return PageRequest.create( b -> {
+            b.pageSize( 25 );
+            sort.forEach( a -> b.position( Position.create( p -> p.attribute( a )
+                    .order( a == PRIORITY ? Order.DESC : Order.ASC )
+                    .value( sampleValue( a ) )
+                    .nextValue( sampleValue( a ) ) ) ) );
+            filterTree( filters, nested ).forEach( b::filter );
+        } );
+    }
+
+    /**
+     * @param positions number of positions including the final {@link #ID} position (1-5)
+     * @param nested    use embedded/joined attribute paths
+     * @return the sort attributes
+     */
+    public static List<Attribute> sortAttributes( final int positions, final boolean nested ) {
+        if ( positions < 1 || positions > FLAT_SORT.size() + 1 ) {
+            throw new IllegalArgumentException( "Positions must be between 1 and " + (FLAT_SORT.size() + 1) );
+        }
+        final List<Attribute> attributes = new ArrayList<>( (nested ? NESTED_SORT : FLAT_SORT).subList( 0,
+                positions - 1 ) );
+        attributes.add( ID );
+        return attributes;
+    }
+
+    /**
+     * @param count  number of filters
+     * @param nested use embedded/joined attribute paths
+     * @return the filters, organized as groups of OR-ed filters (to be AND-ed)
+     */
+    public static List<QueryElement> filterTree( final int count, final boolean nested ) {
+        final var factories = nested ? NESTED_FILTERS : FLAT_FILTERS;
+        final List<QueryElement> groups = new ArrayList<>();
+        List<QueryElement> group = new ArrayList<>();
+        for ( int i = 0; i < count; i++ ) {
+            group.add( factories.get( i % factories.size() ).apply( i ) );
+            if ( group.size() == 2 || i == count - 1 ) {
+                groups.add( group.size() == 1 ? group.getFirst() : Filters.or( group ) );
+                group = new ArrayList<>();
+            }
+        }
+        return groups;
+    }
+
+    private static Comparable<?> sampleValue( final Attribute attribute ) {
+        final Class<?> type = attribute.type();
+        if ( type == String.class ) {
+            return "m-value";
+        } else if ( type == Integer.class ) {
+            return 5;
+        } else if ( type == Status.class ) {
+            return Status.ACTIVE;
+        } else if ( type == Instant.class ) {
+            return Instant.parse( "2024-06-01T12:00:00Z" );
+        } else if ( type == UUID.class ) {
+            return UUID.fromString( "7f0c6d1e-1c3b-4f5a-9a51-3f7cbbd3c2a4" );
+        }
+        throw new IllegalArgumentException( "No sample value for: " + attribute );
+    }
+}
@@ -0,0 +1,359 @@
+package io.vigier.cursorpaging.benchmark;
+
+import io.vigier.cursorpaging.benchmark.model.Status;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Writes {@code securityclass}, {@code tag}, {@code datarecord} and {@code datarecord_tag} rows without JPA (much
+ * faster than persisting entities one by one). PostgreSQL connections are filled with {@code COPY ... FROM STDIN}, all
+ * other databases with JDBC batch inserts. The schema must exist, e.g. created by {@link BenchmarkDatabase}.
+ * <p>
+ * The values are not uniformly distributed, to get realistic selectivities and sort orders:
+ * <ul>
+ *     <li>{@code category}, {@code created_by}/{@code modified_by} and the tags follow a Zipf distribution (few
+ *     values are very frequent, most are rare)</li>
+ *     <li>{@code status} is weighted ({@code ACTIVE} 55%, {@code DELETED} 20%, {@code DRAFT} 15%, {@code INACTIVE}
+ *     10%)</li>
+ *     <li>{@code priority} is {@code null} for {@link #priorityNulls} of the rows, {@code modified_at}/{@code
+ *     modified_by} for {@link #modifiedNulls} (never modified)</li>
+ *     <li>{@code created_at} is ascending with the row number (one row per minute plus jitter)</li>
+ * </ul>
+ * All values are derived from the seed, so the same parameters produce the same dataset on every database.
+ */
+@Slf4j
+@Builder
+public class DatasetGenerator {
+
+    public static final int SECURITY_CLASSES = 5;
+    private static final Instant START = Instant.parse( "2020-01-01T00:00:00Z" );
+    private static final Status[] STATUS = { Status.ACTIVE, Status.DELETED, Status.DRAFT, Status.INACTIVE };
+    private static final double[] STATUS_WEIGHTS = { 0.55, 0.20, 0.15, 0.10 };
+    private static final String[] RECORD_COLUMNS = { "id", "name", "category", "priority", "status", "created_at",
+            "created_by", "modified_at", "modified_by", "securityclass_id" };
+    private static final String[] TAG_COLUMNS = { "datarecord_id", "tag_id" };
+
+    @Builder.Default
+    private final int rows = 1_000_000;
+
+    @Builder.Default
+    private final long seed = 4711;
+
+    @Builder.Default
+    private final int batchSize = 5_000;
+
+    /**
+     * Number of distinct categories
+     */
+    @Builder.Default
+    private final int categories = 50;
+
+    /**
+     * Number of distinct users (created/modified by)
+     */
+    @Builder.Default
+    private final int users = 200;
+
+    /**
+     * Number of tags, each record gets 0 to {@link #maxTagsPerRecord} of them
+     */
+    @Builder.Default
+    private final int tags = 100;
+
+    @Builder.Default
+    private final int maxTagsPerRecord = 3;
+
+    /**
+     * Exponent of the Zipf distributions, {@code 0} is uniform
+     */
+    @Builder.Default
+    private final double skew = 1.1;
+
+    /**
+     * Fraction of rows with {@code priority = null}
+     */
+    @Builder.Default
+    private final double priorityNulls = 0.1;
+
+    /**
+     * Fraction of rows with {@code modified_at = null}
+     */
+    @Builder.Default
+    private final double modifiedNulls = 0.2;
+
+    /**
+     * Use PostgreSQL {@code COPY} if the connection supports it
+     */
+    @Builder.Default
+    private final boolean copy = true;
+
+    public static DatasetGenerator create( final Consumer<DatasetGeneratorBuilder> c ) {
+        final var builder = DatasetGenerator.builder();
+        c.accept( builder );
+        return builder.build();
+    }
+
+    /**
+     * Count the rows of the {@code datarecord} table
+     *
+     * @param connection connection to use
+     * @return the number of rows, or -1 if the table does not exist
+     */
+    public static long count( final Connection connection ) {
+        try ( final var statement = connection.createStatement();
+                final ResultSet rs = statement.executeQuery( "select count(*) from datarecord" ) ) {
+            rs.next();
+            return rs.getLong( 1 );
+        } catch ( final SQLException e ) {
+            return -1;
+        }
+    }
+
+    /**
+     * Insert the dataset. The tables are expected to be empty.
+     *
+     * @param connection connection to use, auto-commit is switched off during the generation
+     * @throws SQLException if an insert fails
+     */
+    public void generate( final Connection connection ) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit( false );
+        try {
+            final long started = System.nanoTime();
+            final boolean useCopy = copy && connection.isWrapperFor( PGConnection.class );
+            insertSecurityClasses( connection );
+            insertTags( connection );
+            final long associations = insertDataRecords( connection, useCopy );
+            log.info( "Inserted {} datarecord rows with {} tag associations in {} ms ({})", rows, associations,
+                    (System.nanoTime() - started) / 1_000_000, useCopy ? "COPY" : "JDBC batch" );
+        } finally {
+            connection.setAutoCommit( autoCommit );
+        }
+    }
+
+    private void insertSecurityClasses( final Connection connection ) throws SQLException {
+        try ( final var ps = connection.prepareStatement( "insert into securityclass (level, name) values (?, ?)" ) ) {
+            for ( int level = 0; level < SECURITY_CLASSES; level++ ) {
+                ps.setInt( 1, level );
+                ps.setString( 2, "level-" + level );
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private void insertTags( final Connection connection ) throws SQLException {
+        try ( final var ps = connection.prepareStatement( "insert into tag (id, name) values (?, ?)" ) ) {
+            for ( int tag = 0; tag < tags; tag++ ) {
+                ps.setLong( 1, tag );
+                ps.setString( 2, "tag-" + tag );
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private long insertDataRecords( final Connection connection, final boolean useCopy ) throws SQLException {
+        final var random = new Random( seed );
+        final var category = new Zipf( categories, skew );
+        final var user = new Zipf( users, skew );
+        final var tag = new Zipf( tags, skew );
+        final boolean[] tagged = new boolean[tags];
+        long associations = 0;
+        try ( final RowWriter records = useCopy //
+                ? new CopyWriter( connection, "datarecord", RECORD_COLUMNS ) //
+                : new BatchWriter( connection, "datarecord", RECORD_COLUMNS );
+                final RowWriter recordTags = useCopy //
+                        ? new CopyWriter( connection, "datarecord_tag", TAG_COLUMNS ) //
+                        : new BatchWriter( connection, "datarecord_tag", TAG_COLUMNS ) ) {
+            for ( int i = 0; i < rows; i++ ) {
+                final UUID id = new UUID( random.nextLong(), random.nextLong() );
+                final Instant createdAt = START.plusSeconds( i * 60L + random.nextInt( 60 ) );
+                final boolean modified = random.nextDouble() >= modifiedNulls;
+                records.add( id, //
+                        "name-" + random.nextInt( rows ), //
+                        "cat-" + category.next( random ), //
+                        random.nextDouble() < priorityNulls ? null : random.nextInt( 10 ), //
+                        STATUS[weighted( random )].name(), //
+                        createdAt, //
+                        "user-" + user.next( random ), //
+                        modified ? createdAt.plusSeconds( random.nextInt( 86_400 * 30 ) ) : null, //
+                        modified ? "user-" + user.next( random ) : null, //
+                        random.nextInt( SECURITY_CLASSES ) );
+
+                Arrays.fill( tagged, false );
+                for ( int t = random.nextInt( maxTagsPerRecord + 1 ); t > 0; t-- ) {
+                    final int tagId = tag.next( random );
+                    if ( !tagged[tagId] ) {
+                        tagged[tagId] = true;
+                        recordTags.add( id, (long) tagId );
+                        associations++;
+                    }
+                }
+                // The associations reference the records, so both are flushed together
+                if ( (i + 1) % batchSize == 0 ) {
+                    records.flush();
+                    recordTags.flush();
+                    connection.commit();
+                }
+            }
+            records.flush();
+            recordTags.flush();
+            connection.commit();
+        }
+        return associations;
+    }
+
+    private static int weighted( final Random random ) {
+        double r = random.nextDouble();
+        for ( int i = 0; i < STATUS_WEIGHTS.length - 1; i++ ) {
+            r -= STATUS_WEIGHTS[i];
+            if ( r < 0 ) {
+                return i;
+            }
+        }
+        return STATUS_WEIGHTS.length - 1;
+    }
+
+    /**
+     * Zipf distributed values {@code 0..n-1} (value {@code 0} is the most frequent), sampled by binary search on the
+     * cumulative distribution.
+     */
+    static final class Zipf {
+
+        private final double[] cumulative;
+
+        Zipf( final int n, final double exponent ) {
+            cumulative = new double[n];
+            double sum = 0;
+            for ( int k = 0; k < n; k++ ) {
+                sum += 1 / Math.pow( k + 1, exponent );
+                cumulative[k] = sum;
+            }
+            for ( int k = 0; k < n; k++ ) {
+                cumulative[k] /= sum;
+            }
+        }
+
+        int next( final Random random ) {
+            final int index = Arrays.binarySearch( cumulative, random.nextDouble() );
+            return Math.min( index >= 0 ? index : -index - 1, cumulative.length - 1 );
+        }
+    }
+
+    /**
+     * Buffers rows of one table until {@link #flush()}.
+     */
+    private interface RowWriter extends AutoCloseable {
+
+        void add( Object... values ) throws SQLException;
+
+        void flush() throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+
+    private static final class BatchWriter implements RowWriter {
+
+        private final PreparedStatement statement;
+
+        BatchWriter( final Connection connection, final String table, final String[] columns ) throws SQLException {
+            statement = connection.prepareStatement( "insert into %s (%s) values (%s)".formatted( table,
+                    String.join( ", ", columns ), String.join( ", ", Arrays.stream( columns )
+                            .map( c -> "?" )
+                            .toList() ) ) );
+        }
+
+        @Override
+        public void add( final Object... values ) throws SQLException {
+            for ( int i = 0; i < values.length; i++ ) {
+                final Object value = values[i];
+                if ( value == null ) {
+                    statement.setNull( i + 1, Types.NULL );
+                } else if ( value instanceof final Instant instant ) {
+                    statement.setTimestamp( i + 1, Timestamp.from( instant ) );
+                } else {
+                    statement.setObject( i + 1, value );
+                }
+            }
+            statement.addBatch();
+        }
+
+        @Override
+        public void flush() throws SQLException {
+            statement.executeBatch();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+    }
+
+    /**
+     * Writes the rows as CSV ({@code null} is an unquoted empty field) into {@code COPY ... FROM STDIN}.
+     */
+    private static final class CopyWriter implements RowWriter {
+
+        private final CopyManager copyManager;
+        private final String sql;
+        private final StringBuilder buffer = new StringBuilder( 1 << 16 );
+
+        CopyWriter( final Connection connection, final String table, final String[] columns ) throws SQLException {
+            copyManager = connection.unwrap( PGConnection.class ).getCopyAPI();
+            sql = "copy %s (%s) from stdin (format csv)".formatted( table, String.join( ", ", columns ) );
+        }
+
+        @Override
+        public void add( final Object... values ) {
+            for ( int i = 0; i < values.length; i++ ) {
+                if ( i > 0 ) {
+                    buffer.append( ',' );
+                }
+                final Object value = values[i];
+                if ( value instanceof final String s ) {
+                    buffer.append( '"' ).append( s.replace( "\"", "\"\"" ) ).append( '"' );
+                } else if ( value != null ) {
+                    buffer.append( value );
+                }
+            }
+            buffer.append( '\n' );
+        }
+
+        @Override
+        public void flush() throws SQLException {
+            if ( buffer.isEmpty() ) {
+                return;
+            }
+            try {
+                copyManager.copyIn( sql, new StringReader( buffer.toString() ) );
+            } catch ( final IOException e ) {
+                throw new SQLException( "COPY failed: " + sql, e );
+            }
+            buffer.setLength( 0 );
+        }
+
+        @Override
+        public void close() {
+            buffer.setLength( 0 );
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package io.vigier.cursorpaging.benchmark;
+
+import io.vigier.cursorpaging.benchmark.model.DataRecord;
+import io.vigier.cursorpaging.benchmark.model.Status;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import io.vigier.cursorpaging.jpa.filter.AndFilter;
+import io.vigier.cursorpaging.jpa.impl.CriteriaQueryBuilder;
+import io.vigier.cursorpaging.jpa.impl.CursorPageRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+/**
+ * Latency of loading page 1, 100, 10.000 and 100.000 with the keyset based {@link CursorPageRepositoryImpl} compared
+ * to Spring Data offset paging, on a table with {@link #rows} records sorted by {@code auditInfo.createdAt, id}.
+ * <p>
+ * The dataset is generated once per database and row count. The H2 database is a file under {@code target/}, which is
+ * reused by later runs. The PostgreSQL container is started with reuse enabled, which keeps it (and its data) alive
+ * between runs if {@code testcontainers.reuse.enable=true} is set in {@code ~/.testcontainers.properties}.
+ * <p>
+ * Run with {@link DeepPagingReport} to get the p50/p99 latencies as CSV and Markdown report.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SampleTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+@Fork( 1 )
+public class DeepPagingBenchmark {
+
+    public static final int PAGE_SIZE = 10;
+
+    public enum Database {
+        H2, POSTGRES
+    }
+
+    public enum Strategy {
+        /**
+         * {@link CursorPageRepositoryImpl#loadPage(PageRequest)} with the cursor of the page
+         */
+        KEYSET,
+        /**
+         * {@link SimpleJpaRepository#findAll(Specification, org.springframework.data.domain.Pageable)}, including the
+         * count query needed for the Spring Data page
+         */
+        OFFSET,
+        /**
+         * Spring Data offset scrolling ({@link ScrollPosition#offset(long)}), without count query
+         */
+        OFFSET_WINDOW
+    }
+
+    @Param( { "H2" } )
+    public Database database;
+
+    /**
+     * Table size, the default is the smallest one which still has 100.000 (filtered) pages
+     */
+    @Param( { "2000000" } )
+    public int rows;
+
+    @Param( { "1", "100", "10000", "100000" } )
+    public int page;
+
+    @Param( { "false", "true" } )
+    public boolean filtered;
+
+    @Param( { "KEYSET", "OFFSET", "OFFSET_WINDOW" } )
+    public Strategy strategy;
+
+    private PostgreSQLContainer<?> container;
+    private BenchmarkDatabase benchmarkDatabase;
+    private EntityManager entityManager;
+    private CursorPageRepositoryImpl<DataRecord> keysetRepository;
+    private SimpleJpaRepository<DataRecord, UUID> offsetRepository;
+    private PageRequest<DataRecord> request;
+    private Specification<DataRecord> specification;
+    private org.springframework.data.domain.PageRequest pageable;
+    private final Sort sort = Sort.by( "auditInfo.createdAt", "id" );
+
+    @Setup( Level.Trial )
+    @SuppressWarnings( "unchecked" ) // the query of the specification
+    public void setup() throws SQLException {
+        final String url;
+        final String user;
+        final String password;
+        if ( database == Database.POSTGRES ) {
+            container = new PostgreSQLContainer<>( DockerImageName.parse( "postgres:17" ) ).withReuse( true );
+            container.start();
+            url = container.getJdbcUrl();
+            user = container.getUsername();
+            password = container.getPassword();
+        } else {
+            url = "jdbc:h2:file:./target/deep-paging-" + rows;
+            user = "sa";
+            password = "";
+        }
+
+        final long existing;
+        try ( final Connection connection = DriverManager.getConnection( url, user, password ) ) {
+            existing = DatasetGenerator.count( connection );
+        }
+        benchmarkDatabase = BenchmarkDatabase.create( b -> b.url( url )
+                .user( user )
+                .password( password )
+                .schemaAction( existing == rows ? "none" : "drop-and-create" ) );
+        if ( existing != rows ) {
+            try ( final Connection connection = DriverManager.getConnection( url, user, password ) ) {
+                DatasetGenerator.create( b -> b.rows( rows ) ).generate( connection );
+                if ( database == Database.POSTGRES ) {
+                    connection.createStatement().execute( "analyze" );
+                }
+            }
+        }
+
+        entityManager = benchmarkDatabase.entityManagerFactory().createEntityManager();
+        keysetRepository = new CursorPageRepositoryImpl<>( DataRecord.class, entityManager );
+        offsetRepository = new SimpleJpaRepository<>(
+                JpaEntityInformationSupport.getEntityInformation( DataRecord.class, entityManager ), entityManager );
+
+        final QueryElement filter = filtered //
+                ? Filters.attribute( DataRecordRequests.STATUS ).in( Status.DRAFT, Status.ACTIVE, Status.INACTIVE ) //
+                : AndFilter.of();
+        specification = ( root, query, cb ) -> filter.toPredicate( CriteriaQueryBuilder.<DataRecord, Object>builder()
+                .query( (CriteriaQuery<Object>) query )
+                .root( root )
+                .cb( cb )
+                .entityType( DataRecord.class )
+                .entityManager( entityManager )
+                .build() );
+        pageable = org.springframework.data.domain.PageRequest.of( page - 1, PAGE_SIZE, sort );
+        request = cursorOf( PageRequest.create( b -> b.pageSize( PAGE_SIZE )
+                .asc( DataRecordRequests.CREATED_AT )
+                .asc( DataRecordRequests.ID )
+                .filter( filter ) ) );
+    }
+
+    /**
+     * The cursor (as it would be found in the "next" link of the previous page) is created from the last record of
+     * the previous page and the first one of the requested page, read with an offset query.
+     */
+    private PageRequest<DataRecord> cursorOf( final PageRequest<DataRecord> first ) {
+        if ( page == 1 ) {
+            return first;
+        }
+        final long offset = (long) (page - 1) * PAGE_SIZE - 1;
+        final List<DataRecord> boundary = offsetRepository.findBy( specification,
+                q -> q.sortBy( sort ).limit( 2 ).scroll( offset == 0 ? ScrollPosition.offset() : ScrollPosition.offset(
+                        offset - 1 ) ) ).getContent();
+        if ( boundary.size() < 2 ) {
+            throw new IllegalStateException( "Page %d is beyond the dataset (rows=%d, filtered=%s)".formatted( page,
+                    rows, filtered ) );
+        }
+        entityManager.clear();
+        return first.positionOf( boundary.get( 0 ), boundary.get( 1 ) );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        entityManager.close();
+        benchmarkDatabase.close();
+        if ( container != null && !TestcontainersConfiguration.getInstance().environmentSupportsReuse() ) {
+            container.stop();
+        }
+    }
+
+    @TearDown( Level.Invocation )
+    public void clear() {
+        entityManager.clear();
+    }
+
+    @Benchmark
+    public List<DataRecord> loadPage() {
+        final List<DataRecord> content = switch ( strategy ) {
+            case KEYSET -> keysetRepository.loadPage( request )
+                    .content();
+            case OFFSET -> offsetRepository.findAll( specification, pageable )
+                    .getContent();
+            case OFFSET_WINDOW -> offsetRepository.findBy( specification, q -> q.sortBy( sort )
+                            .limit( PAGE_SIZE )
+                            .scroll( pageable.getOffset() == 0 ? ScrollPosition.offset() : ScrollPosition.offset(
+                                    pageable.getOffset() - 1 ) ) )
+                    .getContent();
+        };
+        if ( content.size() != PAGE_SIZE ) {
+            throw new IllegalStateException( "Expected a full page, got: " + content.size() );
+        }
+        return content;
+    }
+}
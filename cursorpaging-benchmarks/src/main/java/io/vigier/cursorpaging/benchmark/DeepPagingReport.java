@@ -0,0 +1,116 @@
+package io.vigier.cursorpaging.benchmark;
+
+import io.vigier.cursorpaging.benchmark.DeepPagingBenchmark.Strategy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@link DeepPagingBenchmark} and writes the p50/p99 latencies as {@code deep-paging.csv} and
+ * {@code deep-paging.md} into the report directory ({@code -Dreport.dir}, default {@code target/deep-paging}).
+ * <p>
+ * All JMH command line options are accepted, e.g. {@code -p rows=10000000 -p database=POSTGRES}.
+ */
+@Slf4j
+public final class DeepPagingReport {
+
+    record Row(String database, int rows, boolean filtered, Strategy strategy, int page, long samples, double p50,
+               double p99, double mean) {
+
+        String toCsv() {
+            return String.join( ",", database, Integer.toString( rows ), Boolean.toString( filtered ), strategy.name(),
+                    Integer.toString( page ), Long.toString( samples ), format( p50 ), format( p99 ),
+                    format( mean ) );
+        }
+    }
+
+    private DeepPagingReport() {
+    }
+
+    public static void main( final String[] args ) throws Exception {
+        final var options = new OptionsBuilder().parent( new CommandLineOptions( args ) )
+                .include( DeepPagingBenchmark.class.getSimpleName() )
+                .build();
+        final List<Row> rows = toRows( new Runner( options ).run() );
+
+        final Path dir = Path.of( System.getProperty( "report.dir", "target/deep-paging" ) );
+        Files.createDirectories( dir );
+        writeCsv( rows, dir.resolve( "deep-paging.csv" ) );
+        writeMarkdown( rows, dir.resolve( "deep-paging.md" ) );
+        log.warn( "Deep paging report written to: {}", dir.toAbsolutePath() );
+    }
+
+    static List<Row> toRows( final Collection<RunResult> results ) {
+        final List<Row> rows = new ArrayList<>();
+        for ( final RunResult result : results ) {
+            final var params = result.getParams();
+            final var statistics = result.getPrimaryResult().getStatistics();
+            rows.add( new Row( params.getParam( "database" ), Integer.parseInt( params.getParam( "rows" ) ),
+                    Boolean.parseBoolean( params.getParam( "filtered" ) ),
+                    Strategy.valueOf( params.getParam( "strategy" ) ), Integer.parseInt( params.getParam( "page" ) ),
+                    statistics.getN(), statistics.getPercentile( 50 ), statistics.getPercentile( 99 ),
+                    statistics.getMean() ) );
+        }
+        rows.sort( Comparator.comparing( Row::database )
+                .thenComparing( Row::rows )
+                .thenComparing( Row::filtered )
+                .thenComparing( Row::page )
+                .thenComparing( Row::strategy ) );
+        return rows;
+    }
+
+    static void writeCsv( final List<Row> rows, final Path file ) throws IOException {
+        final List<String> lines = new ArrayList<>( rows.size() + 1 );
+        lines.add( "database,rows,filtered,strategy,page,samples,p50_ms,p99_ms,mean_ms" );
+        rows.forEach( r -> lines.add( r.toCsv() ) );
+        Files.write( file, lines );
+    }
+
+    static void writeMarkdown( final List<Row> rows, final Path file ) throws IOException {
+        final Map<String, List<Row>> tables = new LinkedHashMap<>();
+        rows.forEach( r -> tables.computeIfAbsent( "%s, %,d rows, %s".formatted( r.database(), r.rows(),
+                r.filtered() ? "filtered" : "unfiltered" ), _ -> new ArrayList<>() ).add( r ) );
+
+        final var md = new StringBuilder( "# Deep paging: keyset vs. offset\n\n" );
+        md.append( "Latency of loading a page of %d records, p50 / p99 in ms.\n".formatted(
+                DeepPagingBenchmark.PAGE_SIZE ) );
+        tables.forEach( ( title, tableRows ) -> {
+            final var strategies = new TreeSet<Strategy>();
+            final Map<Integer, Map<Strategy, Row>> byPage = new LinkedHashMap<>();
+            tableRows.forEach( r -> {
+                strategies.add( r.strategy() );
+                byPage.computeIfAbsent( r.page(), _ -> new LinkedHashMap<>() ).put( r.strategy(), r );
+            } );
+            md.append( "\n## " ).append( title ).append( "\n\n| page |" );
+            strategies.forEach( s -> md.append( ' ' ).append( s ).append( " |" ) );
+            md.append( "\n|-----:|" );
+            strategies.forEach( _ -> md.append( "------:|" ) );
+            byPage.forEach( ( page, byStrategy ) -> {
+                md.append( "\n| %,d |".formatted( page ) );
+                strategies.forEach( s -> {
+                    final Row r = byStrategy.get( s );
+                    md.append( r == null ? " - |" : " %s / %s |".formatted( format( r.p50() ), format( r.p99() ) ) );
+                } );
+            } );
+            md.append( '\n' );
+        } );
+        Files.writeString( file, md );
+    }
+
+    private static String format( final double value ) {
+        return String.format( Locale.ROOT, "%.3f", value );
+    }
+}
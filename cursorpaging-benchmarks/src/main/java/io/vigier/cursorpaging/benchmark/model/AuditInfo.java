@@ -0,0 +1,23 @@
+package io.vigier.cursorpaging.benchmark.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.time.Instant;
+import lombok.Data;
+
+@Embeddable
+@Data
+public class AuditInfo {
+
+    @Column( name = "created_at" )
+    private Instant createdAt;
+
+    @Column( name = "created_by" )
+    private String createdBy;
+
+    @Column( name = "modified_at" )
+    private Instant modifiedAt;
+
+    @Column( name = "modified_by" )
+    private String modifiedBy;
+}
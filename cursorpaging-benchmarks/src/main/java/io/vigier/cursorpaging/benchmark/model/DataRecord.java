@@ -0,0 +1,63 @@
+package io.vigier.cursorpaging.benchmark.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Benchmark counterpart of the integration-test {@code DataRecord}, using the same table layout plus two columns
+ * ({@code category}, {@code priority}). The associations are lazy, so that the benchmarks measure the page query and
+ * not the association loading.
+ */
+@Entity
+@Table( name = "datarecord", indexes = @Index( name = "idx_datarecord_created_at_id", columnList = "created_at, id" ) )
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString( exclude = { "tags", "securityClass" } )
+public class DataRecord {
+
+    @Id
+    private UUID id;
+
+    @Column( name = "name" )
+    private String name;
+
+    @Column( name = "category" )
+    private String category;
+
+    @Column( name = "priority" )
+    private Integer priority;
+
+    @Column( name = "status" )
+    @Enumerated( EnumType.STRING )
+    private Status status;
+
+    @ManyToOne( fetch = FetchType.LAZY )
+    @JoinColumn( name = "securityclass_id", referencedColumnName = "level" )
+    private SecurityClass securityClass;
+
+    @ManyToMany
+    @JoinTable( name = "datarecord_tag",
+            joinColumns = @JoinColumn( name = "datarecord_id", referencedColumnName = "id" ),
+            inverseJoinColumns = @JoinColumn( name = "tag_id", referencedColumnName = "id" ) )
+    private Set<Tag> tags = new HashSet<>();
+
+    private AuditInfo auditInfo = new AuditInfo();
+}
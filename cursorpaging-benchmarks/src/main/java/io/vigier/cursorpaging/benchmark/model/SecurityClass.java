@@ -0,0 +1,19 @@
+package io.vigier.cursorpaging.benchmark.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Table( name = "securityclass" )
+@Data
+public class SecurityClass {
+
+    @Id
+    private int level;
+
+    @Column( name = "name" )
+    private String name;
+}
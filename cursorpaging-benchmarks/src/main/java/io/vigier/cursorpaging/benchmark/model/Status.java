@@ -0,0 +1,5 @@
+package io.vigier.cursorpaging.benchmark.model;
+
+public enum Status {
+    DRAFT, ACTIVE, INACTIVE, DELETED
+}
@@ -0,0 +1,17 @@
+package io.vigier.cursorpaging.benchmark.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Table( name = "tag" )
+@Data
+public class Tag {
+
+    @Id
+    private Long id;
+
+    private String name;
+}
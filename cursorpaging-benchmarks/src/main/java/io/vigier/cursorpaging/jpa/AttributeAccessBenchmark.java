@@ -0,0 +1,98 @@
+package io.vigier.cursorpaging.jpa;
+
+import io.vigier.cursorpaging.benchmark.DataRecordRequests;
+import io.vigier.cursorpaging.benchmark.model.DataRecord;
+import io.vigier.cursorpaging.benchmark.model.Status;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+
+/**
+ * Reading the position values of an entity (as done for every page by {@link PageRequest#positionOf(Object, Object)})
+ * with the cached {@link AttributeAccessors} compared to a new {@link DirectFieldAccessFallbackBeanWrapper} per path
+ * segment, as it was done before.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+public class AttributeAccessBenchmark {
+
+    /**
+     * Number of positions, including the final id position
+     */
+    @Param( { "1", "3", "5" } )
+    public int positions;
+
+    /**
+     * Use embedded attribute paths instead of root attributes
+     */
+    @Param( { "false", "true" } )
+    public boolean nested;
+
+    private List<Attribute> attributes;
+    private PageRequest<DataRecord> request;
+    private DataRecord entity;
+    private DataRecord nextEntity;
+
+    @Setup
+    public void setup() {
+        attributes = DataRecordRequests.sortAttributes( positions, nested );
+        request = PageRequest.create( b -> attributes.forEach( b::asc ) );
+        entity = dataRecord( 1 );
+        nextEntity = dataRecord( 2 );
+    }
+
+    private static DataRecord dataRecord( final int i ) {
+        final var dataRecord = new DataRecord();
+        dataRecord.setId( UUID.randomUUID() );
+        dataRecord.setName( "name-" + i );
+        dataRecord.setCategory( "cat-" + i );
+        dataRecord.setPriority( i );
+        dataRecord.setStatus( Status.ACTIVE );
+        dataRecord.getAuditInfo().setCreatedAt( Instant.now() );
+        dataRecord.getAuditInfo().setCreatedBy( "user-" + i );
+        dataRecord.getAuditInfo().setModifiedAt( Instant.now() );
+        dataRecord.getAuditInfo().setModifiedBy( "user-" + i );
+        return dataRecord;
+    }
+
+    @Benchmark
+    public void beanWrapper( final Blackhole bh ) {
+        for ( final Attribute attribute : attributes ) {
+            Object value = entity;
+            for ( final SingleAttribute a : attribute.attributes() ) {
+                value = new DirectFieldAccessFallbackBeanWrapper( value ).getPropertyValue( a.name() );
+            }
+            bh.consume( value );
+        }
+    }
+
+    @Benchmark
+    public void accessor( final Blackhole bh ) {
+        for ( final Attribute attribute : attributes ) {
+            bh.consume( attribute.valueOf( entity ) );
+        }
+    }
+
+    @Benchmark
+    public PageRequest<DataRecord> positionOf() {
+        return request.positionOf( entity, nextEntity );
+    }
+}
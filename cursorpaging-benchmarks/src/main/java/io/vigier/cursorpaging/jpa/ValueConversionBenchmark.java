@@ -0,0 +1,64 @@
+package io.vigier.cursorpaging.jpa;
+
+import io.vigier.cursorpaging.benchmark.model.Status;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+/**
+ * Parsing filter values (as done for RSQL filters and cursors of format v1) with the {@link ValueCodec} cached on the
+ * {@link Attribute} compared to a lookup of the converter in the {@link ConversionService} for every value, as it was
+ * done before.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+public class ValueConversionBenchmark {
+
+    private final DefaultConversionService conversionService = new DefaultConversionService();
+    private List<Attribute> attributes;
+    private List<String> values;
+
+    @Setup
+    public void setup() {
+        // as the RSQL filters did before
+        conversionService.addConverter( String.class, Instant.class, Instant::parse );
+        attributes = List.of( Attribute.of( "id", UUID.class ), Attribute.of( "priority", Integer.class ),
+                Attribute.of( "status", Status.class ), Attribute.of( "active", Boolean.class ),
+                Attribute.of( "createdAt", Instant.class ) );
+        values = List.of( UUID.randomUUID().toString(), "42", Status.ACTIVE.name(), "true",
+                "2024-01-02T03:04:05Z" );
+    }
+
+    @Benchmark
+    public void conversionService( final Blackhole bh ) {
+        for ( int i = 0; i < attributes.size(); i++ ) {
+            final Class<?> type = attributes.get( i ).type();
+            bh.consume( conversionService.convert( values.get( i ), type ) );
+        }
+    }
+
+    @Benchmark
+    public void codec( final Blackhole bh ) {
+        for ( int i = 0; i < attributes.size(); i++ ) {
+            bh.consume( attributes.get( i ).codec().parse( values.get( i ), conversionService ) );
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.vigier.cursorpaging.jpa.cache;
+
+import io.vigier.cursorpaging.benchmark.BenchmarkDatabase;
+import io.vigier.cursorpaging.benchmark.DataRecordRequests;
+import io.vigier.cursorpaging.benchmark.DatasetGenerator;
+import io.vigier.cursorpaging.benchmark.model.DataRecord;
+import io.vigier.cursorpaging.benchmark.model.Status;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.impl.CursorPageRepositoryImpl;
+import io.vigier.cursorpaging.jpa.repository.CursorPageRepository;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loads the same first page ("newest 20 records" with a status filter and total count) repeatedly, with and without
+ * the {@link CachingCursorPageRepository}, from an in-memory H2 database. The persistence context is cleared for every
+ * operation, i.e. a cache hit loads the entities by id.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+public class PageCacheBenchmark {
+
+    @Param( { "100000" } )
+    public int rows;
+
+    @Param( { "false", "true" } )
+    public boolean cached;
+
+    private BenchmarkDatabase database;
+    private EntityManager entityManager;
+    private CursorPageRepository<DataRecord> repository;
+    private PageRequest<DataRecord> request;
+
+    @Setup( Level.Trial )
+    public void setup() throws SQLException {
+        database = BenchmarkDatabase.create( b -> {} );
+        try ( final Connection connection = DriverManager.getConnection( database.url(), "sa", "" ) ) {
+            DatasetGenerator.create( b -> b.rows( rows ) ).generate( connection );
+        }
+        entityManager = database.entityManagerFactory().createEntityManager();
+        final var uncached = new CursorPageRepositoryImpl<>( DataRecord.class, entityManager );
+        repository = cached ? new CachingCursorPageRepository<>( uncached, DataRecord.class, entityManager,
+                1000 ) : uncached;
+        request = PageRequest.create( b -> b.pageSize( 20 )
+                .enableTotalCount( true )
+                .desc( DataRecordRequests.CREATED_AT )
+                .desc( DataRecordRequests.ID )
+                .filter( Filters.attribute( DataRecordRequests.STATUS ).in( Status.ACTIVE, Status.DRAFT ) ) );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        entityManager.close();
+        database.close();
+    }
+
+    @Benchmark
+    public int loadPage() {
+        entityManager.clear();
+        return repository.loadPage( request ).size();
+    }
+}
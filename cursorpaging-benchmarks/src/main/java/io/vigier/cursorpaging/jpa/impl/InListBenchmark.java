@@ -0,0 +1,84 @@
+package io.vigier.cursorpaging.jpa.impl;
+
+import io.vigier.cursorpaging.benchmark.BenchmarkDatabase;
+import io.vigier.cursorpaging.benchmark.DataRecordRequests;
+import io.vigier.cursorpaging.benchmark.model.DataRecord;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.QueryOptions;
+import io.vigier.cursorpaging.jpa.QueryOptions.InList;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building, translating and executing a page query with a large id in-list for the
+ * {@link QueryOptions.InList} strategies, against an (empty) in-memory H2 database. The rendered statement (and
+ * therefore parsing and the plan cache) grows with the list for {@link InList#PLAIN}, while {@link InList#ARRAY} has a
+ * single statement for all list sizes.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+public class InListBenchmark {
+
+    @Param( { "100", "1000", "5000" } )
+    public int values;
+
+    @Param( { "PLAIN", "CHUNKED", "ARRAY" } )
+    public InList strategy;
+
+    private BenchmarkDatabase database;
+    private EntityManager entityManager;
+    private CursorPageRepositoryImpl<DataRecord> repository;
+    private PageRequest<DataRecord> request;
+
+    @Setup( Level.Trial )
+    public void setup() {
+        database = BenchmarkDatabase.create( b -> {} );
+        entityManager = database.entityManagerFactory().createEntityManager();
+        repository = new CursorPageRepositoryImpl<>( DataRecord.class, entityManager,
+                QueryOptions.create( o -> o.inList( strategy ) ) );
+        final Random random = new Random( 42 );
+        final List<UUID> ids = Stream.generate( () -> new UUID( random.nextLong(), random.nextLong() ) )
+                .limit( values )
+                .toList();
+        request = PageRequest.create( b -> b.pageSize( 100 )
+                .asc( DataRecordRequests.ID )
+                .filter( Filters.attribute( DataRecordRequests.ID ).in( ids ) ) );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        entityManager.close();
+        database.close();
+    }
+
+    @Benchmark
+    public int loadPage() {
+        final int size = repository.loadPage( request ).size();
+        if ( size != 0 ) {
+            throw new IllegalStateException( "Expected an empty table" );
+        }
+        return size;
+    }
+}
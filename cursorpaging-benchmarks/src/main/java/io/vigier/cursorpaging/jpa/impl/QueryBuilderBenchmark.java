@@ -0,0 +1,91 @@
+package io.vigier.cursorpaging.jpa.impl;
+
+import io.vigier.cursorpaging.benchmark.BenchmarkDatabase;
+import io.vigier.cursorpaging.benchmark.DataRecordRequests;
+import io.vigier.cursorpaging.benchmark.model.DataRecord;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction of the page query ({@code addPositionQuery}, filter predicates, attribute paths and order)
+ * and its translation to SQL by Hibernate, against an (empty) in-memory H2 database.
+ * <p>
+ * {@link #build()} only builds the criteria tree. {@link #renderSql()} additionally lets Hibernate translate the
+ * criteria to SQL, which happens when the query is executed (criteria are not cached in the query plan cache). The
+ * table is empty, so the execution itself adds only a small constant.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+public class QueryBuilderBenchmark {
+
+    /**
+     * Number of positions, including the final id position
+     */
+    @Param( { "1", "3", "5" } )
+    public int positions;
+
+    /**
+     * Use embedded and joined attribute paths instead of root columns
+     */
+    @Param( { "false", "true" } )
+    public boolean nested;
+
+    @Param( { "0", "4", "16" } )
+    public int filters;
+
+    private BenchmarkDatabase database;
+    private EntityManager entityManager;
+    private CursorPageRepositoryImpl<DataRecord> repository;
+    private PageRequest<DataRecord> request;
+
+    @Setup( Level.Trial )
+    public void setup() {
+        database = BenchmarkDatabase.create( b -> {} );
+        entityManager = database.entityManagerFactory().createEntityManager();
+        repository = new CursorPageRepositoryImpl<>( DataRecord.class, entityManager );
+        request = DataRecordRequests.request( positions, nested, filters );
+    }
+
+    @TearDown( Level.Trial )
+    public void tearDown() {
+        entityManager.close();
+        database.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<DataRecord> build() {
+        return repository.pageQuery( request ).query();
+    }
+
+    @Benchmark
+    public String renderSql() {
+        final List<DataRecord> result = repository.pageQuery( request )
+                .createQuery()
+                .setMaxResults( request.pageSize() + 1 )
+                .getResultList();
+        if ( !result.isEmpty() ) {
+            throw new IllegalStateException( "Expected an empty table" );
+        }
+        return database.lastSql().getPlain();
+    }
+}
@@ -0,0 +1,111 @@
+package io.vigier.cursorpaging.jpa.memory;
+
+import io.vigier.cursorpaging.benchmark.DataRecordRequests;
+import io.vigier.cursorpaging.benchmark.model.DataRecord;
+import io.vigier.cursorpaging.benchmark.model.SecurityClass;
+import io.vigier.cursorpaging.benchmark.model.Status;
+import io.vigier.cursorpaging.benchmark.model.Tag;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filters and sorts entities in memory with the predicate and comparator of the {@link InMemoryCompiler}, for the
+ * synthetic requests of {@link DataRecordRequests} on a list of detached {@link DataRecord}s.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+public class InMemoryFilterBenchmark {
+
+    @Param( { "10000" } )
+    public int records;
+
+    /**
+     * Use embedded and joined (incl. collection) attribute paths instead of root attributes
+     */
+    @Param( { "false", "true" } )
+    public boolean nested;
+
+    @Param( { "4", "16" } )
+    public int filters;
+
+    private List<DataRecord> data;
+    private PageRequest<DataRecord> request;
+    private Predicate<DataRecord> predicate;
+    private Comparator<DataRecord> comparator;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random( 42 );
+        final List<Tag> tags = new ArrayList<>();
+        for ( int i = 0; i < 20; i++ ) {
+            final var tag = new Tag();
+            tag.setId( (long) i );
+            tag.setName( "tag-" + i );
+            tags.add( tag );
+        }
+        data = new ArrayList<>( records );
+        for ( int i = 0; i < records; i++ ) {
+            final var securityClass = new SecurityClass();
+            securityClass.setLevel( random.nextInt( 5 ) );
+            securityClass.setName( "level-" + securityClass.getLevel() );
+            final var dataRecord = new DataRecord();
+            dataRecord.setId( new UUID( random.nextLong(), random.nextLong() ) );
+            dataRecord.setName( "name-" + random.nextInt( 20 ) );
+            dataRecord.setCategory( "cat-" + random.nextInt( 20 ) );
+            dataRecord.setPriority( random.nextInt( 10 ) );
+            dataRecord.setStatus( Status.values()[random.nextInt( Status.values().length )] );
+            dataRecord.setSecurityClass( securityClass );
+            dataRecord.getTags().add( tags.get( random.nextInt( tags.size() ) ) );
+            dataRecord.getTags().add( tags.get( random.nextInt( tags.size() ) ) );
+            dataRecord.getAuditInfo().setCreatedAt( Instant.parse( "2025-01-01T00:00:00Z" ).minusSeconds( i ) );
+            dataRecord.getAuditInfo().setCreatedBy( "user-" + random.nextInt( 20 ) );
+            data.add( dataRecord );
+        }
+        request = DataRecordRequests.request( 3, nested, filters );
+        predicate = InMemoryCompiler.predicate( request.filters() );
+        comparator = InMemoryCompiler.comparator( request );
+    }
+
+    @Benchmark
+    public Predicate<DataRecord> compile() {
+        return InMemoryCompiler.predicate( request.filters() );
+    }
+
+    @Benchmark
+    public long filter() {
+        long count = 0;
+        for ( final DataRecord dataRecord : data ) {
+            if ( predicate.test( dataRecord ) ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<DataRecord> filterAndSortPage() {
+        return data.stream().filter( predicate ).sorted( comparator ).limit( request.pageSize() ).toList();
+    }
+}
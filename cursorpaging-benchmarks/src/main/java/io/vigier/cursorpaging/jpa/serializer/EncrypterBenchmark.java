@@ -0,0 +1,103 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link Encrypter} (pooled ciphers, output written into a pre-sized array) with the previous
+ * implementation ({@code legacy*}: a new {@link Cipher} per operation, IV appended by a second copy), and the
+ * {@link CipherSuite}s with each other, to choose the fastest suite on a machine.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+public class EncrypterBenchmark {
+
+    /**
+     * Size of the (protobuf) data, a cursor with 3 positions and 4 filters is about 350 bytes
+     */
+    @Param( { "64", "512" } )
+    public int size;
+
+    @Param( { "CHACHA20_POLY1305", "AES_256_GCM" } )
+    public CipherSuite suite;
+
+    private final SecretKey key = Encrypter.getKey( "1234567890ABCDEFGHIJKlmnopqrst--" );
+    private Encrypter encrypter;
+    private final SecureRandom random = new SecureRandom();
+    private byte[] data;
+    private byte[] encrypted;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        encrypter = Encrypter.builder().secret( key ).cipherSuite( suite ).build();
+        data = new byte[size];
+        random.nextBytes( data );
+        encrypted = encrypter.encrypt( data );
+        if ( !Arrays.equals( data, encrypter.decrypt( legacyEncrypt( key, data, random ) ) ) ) {
+            throw new IllegalStateException( "Legacy encrypted data is not decrypted" );
+        }
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return encrypter.encrypt( data );
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return encrypter.decrypt( encrypted );
+    }
+
+    @Benchmark
+    public byte[] legacyEncrypt() throws GeneralSecurityException {
+        return legacyEncrypt( key, data, random );
+    }
+
+    @Benchmark
+    public byte[] legacyDecrypt() throws GeneralSecurityException {
+        return legacyDecrypt( key, encrypted );
+    }
+
+    private static byte[] legacyEncrypt( final SecretKey key, final byte[] data, final SecureRandom random )
+            throws GeneralSecurityException {
+        final var cipher = Cipher.getInstance( "ChaCha20-Poly1305" );
+        final byte[] ivBytes = new byte[Encrypter.IV_BYTES_LENGTH];
+        random.nextBytes( ivBytes );
+        final IvParameterSpec iv = new IvParameterSpec( ivBytes );
+        cipher.init( Cipher.ENCRYPT_MODE, key, iv );
+        final byte[] encrypted = cipher.doFinal( data );
+        return ByteBuffer.allocate( encrypted.length + Encrypter.IV_BYTES_LENGTH )
+                .put( encrypted )
+                .put( iv.getIV() )
+                .array();
+    }
+
+    private static byte[] legacyDecrypt( final SecretKey key, final byte[] data ) throws GeneralSecurityException {
+        final var cipher = Cipher.getInstance( "ChaCha20-Poly1305" );
+        final IvParameterSpec iv = new IvParameterSpec( data, data.length - Encrypter.IV_BYTES_LENGTH,
+                Encrypter.IV_BYTES_LENGTH );
+        cipher.init( Cipher.DECRYPT_MODE, key, iv );
+        return cipher.doFinal( data, 0, data.length - Encrypter.IV_BYTES_LENGTH );
+    }
+}
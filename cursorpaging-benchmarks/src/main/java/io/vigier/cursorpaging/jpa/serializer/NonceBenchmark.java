@@ -0,0 +1,66 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of nonce generation and encryption with one {@link Encrypter} shared by 8 threads, with the nonces drawn
+ * from a shared {@link SecureRandom} (the previous default) or generated by {@link NonceGenerator#counter()}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+@Threads( 8 )
+public class NonceBenchmark {
+
+    public enum Strategy {
+        SECURE_RANDOM, COUNTER
+    }
+
+    @Param( { "SECURE_RANDOM", "COUNTER" } )
+    public Strategy strategy;
+
+    private final byte[] data = new byte[350];
+    private NonceGenerator nonceGenerator;
+    private Encrypter encrypter;
+
+    @Setup
+    public void setup() {
+        nonceGenerator = switch ( strategy ) {
+            case SECURE_RANDOM -> NonceGenerator.random( new SecureRandom( UUID.randomUUID().toString().getBytes() ) );
+            case COUNTER -> NonceGenerator.counter();
+        };
+        encrypter = Encrypter.builder()
+                .secret( Encrypter.getKey( "1234567890ABCDEFGHIJKlmnopqrst--" ) )
+                .nonceGenerator( nonceGenerator )
+                .build();
+    }
+
+    @Benchmark
+    public byte[] nonce() {
+        final byte[] nonce = new byte[Encrypter.IV_BYTES_LENGTH];
+        nonceGenerator.next( nonce );
+        return nonce;
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return encrypter.encrypt( data );
+    }
+}
@@ -0,0 +1,183 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import io.vigier.cursorpaging.benchmark.CursorFixtures;
+import io.vigier.cursorpaging.benchmark.CursorFixtures.ValueType;
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.serializer.dto.Cursor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.convert.ConversionService;
+
+/**
+ * Measures the single stages of {@link RequestSerializer#toBase64(PageRequest)} and
+ * {@link RequestSerializer#toPageRequest(Base64String)} as well as the complete round-trip. Each stage gets the
+ * output of the previous stage as (pre-computed) input, so the numbers of the stages add up to the round-trip.
+ * <p>
+ * The benchmark lives in the serializer package, because the cursor reader and writer are package private.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 2 )
+public class SerializerBenchmark {
+
+    /**
+     * Number of order positions (each with value and next-value)
+     */
+    @Param( { "1", "3" } )
+    public int positions;
+
+    /**
+     * Number of filters in the filter-tree (AND of OR-groups, 3 values each)
+     */
+    @Param( { "0", "4", "16" } )
+    public int filters;
+
+    @Param( { "UUID", "INSTANT", "STRING" } )
+    public ValueType valueType;
+
+    private PageRequest<Object> request;
+    private Cursor.PageRequest dto;
+    private byte[] protobuf;
+    private byte[] encrypted;
+    private Base64String base64;
+    private String cursor;
+
+    private final Encrypter encrypter = Encrypter.getInstance( "1234567890ABCDEFGHIJKlmnopqrst--" );
+    private final ConversionService conversionService = RequestSerializer.getConversionService();
+    private final Map<String, Attribute> attributesByName = new ConcurrentHashMap<>();
+    private RequestSerializer<Object> serializer;
+    private RequestSerializer<Object> cachingSerializer;
+    private RequestSerializer<Object> signingSerializer;
+    private Base64String signed;
+    private RequestSerializer<Object> storingSerializer;
+    private Base64String stored;
+
+    @Setup
+    public void setup() throws Exception {
+        request = CursorFixtures.pageRequest( positions, filters, valueType );
+        CursorFixtures.attributes( positions + filters, valueType )
+                .forEach( a -> attributesByName.put( a.name(), a ) );
+        serializer = RequestSerializer.create( Object.class, b -> b.encrypter( encrypter )
+                .conversionService( conversionService )
+                .attributes( attributesByName ) );
+        cachingSerializer = RequestSerializer.create( Object.class, b -> b.encrypter( encrypter )
+                .conversionService( conversionService )
+                .attributes( attributesByName )
+                .cacheCursors( 100 ) );
+        signingSerializer = RequestSerializer.create( Object.class, b -> b.encrypter( encrypter )
+                .signer( Signer.getInstance( "abcdefghijklmnopqrstuvwxyz123456" ) )
+                .conversionService( conversionService )
+                .attributes( attributesByName ) );
+
+        protobuf = write();
+        dto = Cursor.PageRequest.parseFrom( protobuf );
+        encrypted = encrypter.encrypt( protobuf );
+        base64 = Base64String.encode( encrypted );
+        cursor = base64.toString();
+        signed = signingSerializer.toBase64( request );
+        storingSerializer = RequestSerializer.create( Object.class, b -> b.encrypter( encrypter )
+                .cursorStore( InMemoryCursorStore.create( s -> {} ) )
+                .conversionService( conversionService )
+                .attributes( attributesByName ) );
+        stored = storingSerializer.toBase64( request );
+    }
+
+    @Benchmark
+    public byte[] protobufEncode() {
+        return dto.toByteArray();
+    }
+
+    /**
+     * Same bytes as {@link #protobufEncode()}, from the request instead of the message graph
+     */
+    @Benchmark
+    public byte[] write() {
+        return CursorWriter.create( c -> c.pageRequest( request ) )
+                .toBytes();
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return encrypter.encrypt( protobuf );
+    }
+
+    @Benchmark
+    public Base64String base64Encode() {
+        return Base64String.encode( encrypted );
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return new Base64String( cursor ).decoded();
+    }
+
+    @Benchmark
+    public byte[] decrypt() {
+        return encrypter.decrypt( encrypted );
+    }
+
+    @Benchmark
+    public Cursor.PageRequest protobufDecode() throws Exception {
+        return Cursor.PageRequest.parseFrom( protobuf );
+    }
+
+    @Benchmark
+    public PageRequest<Object> read() throws Exception {
+        return CursorReader.<Object>create( b -> b.conversionService( conversionService )
+                        .ruleFactories( Map.of() )
+                        .attributesByName( attributesByName )
+                        .attributeResolver( name -> null ) )
+                .read( protobuf, 0, protobuf.length );
+    }
+
+    @Benchmark
+    public Base64String serialize() {
+        return serializer.toBase64( request );
+    }
+
+    @Benchmark
+    public PageRequest<Object> deserialize() {
+        return serializer.toPageRequest( new Base64String( cursor ) );
+    }
+
+    @Benchmark
+    public PageRequest<Object> deserializeCached() {
+        return cachingSerializer.stringToPageRequest( cursor ).orElseThrow();
+    }
+
+    @Benchmark
+    public Base64String serializeSigned() {
+        return signingSerializer.toBase64( request );
+    }
+
+    @Benchmark
+    public PageRequest<Object> deserializeSigned() {
+        return signingSerializer.toPageRequest( signed );
+    }
+
+    @Benchmark
+    public Base64String serializeStored() {
+        return storingSerializer.toBase64( request );
+    }
+
+    @Benchmark
+    public PageRequest<Object> deserializeStored() {
+        return storingSerializer.toPageRequest( stored );
+    }
+}
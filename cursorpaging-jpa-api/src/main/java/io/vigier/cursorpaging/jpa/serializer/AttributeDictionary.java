@@ -0,0 +1,142 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Assigns small numeric ids to attribute names (e.g. {@code auditInfo.createdAt}), which are stored in a cursor instead
+ * of the names.
+ * <p>
+ * The id of a name is derived from its hash (1 - {@value #MAX_ID}, i.e. at most two bytes), so all instances agree
+ * on the ids without coordination, and adding an attribute does not change the ids of the others. Names with the
+ * same id are left out (and stored as names). The version (a hash of all names) is stored in the cursor: a cursor of
+ * another version is rejected, as an id may belong to another attribute in the other version (e.g. after an entity
+ * was changed).
+ */
+public final class AttributeDictionary {
+
+    static final int MAX_ID = 0x3FFF;
+
+    private static final int MAX_DEPTH = 3;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+    private final int version;
+
+    private AttributeDictionary( final Collection<String> attributeNames ) {
+        final Set<Integer> collisions = new HashSet<>();
+        final CRC32 all = new CRC32();
+        for ( final String name : new TreeSet<>( attributeNames ) ) {
+            all.update( name.getBytes( StandardCharsets.UTF_8 ) );
+            all.update( 0 );
+            final int id = idOf( name );
+            if ( collisions.contains( id ) || names.containsKey( id ) ) {
+                collisions.add( id );
+                ids.remove( names.remove( id ) );
+            } else {
+                names.put( id, name );
+                ids.put( name, id );
+            }
+        }
+        this.version = (int) all.getValue();
+    }
+
+    /**
+     * Create a dictionary of the given attribute names
+     *
+     * @param attributeNames the (dot separated) names
+     * @return the dictionary
+     */
+    public static AttributeDictionary of( final Collection<String> attributeNames ) {
+        return new AttributeDictionary( attributeNames );
+    }
+
+    /**
+     * Create a dictionary of the attributes of an entity from the JPA metamodel, i.e. the basic attributes of the entity
+     * and (up to {@value #MAX_DEPTH} levels) of its embedded and related entities
+     *
+     * @param metamodel   the metamodel
+     * @param entityClass the entity class
+     * @return the dictionary
+     */
+    public static AttributeDictionary of( final Metamodel metamodel, final Class<?> entityClass ) {
+        final Set<String> names = new HashSet<>();
+        collect( metamodel.managedType( entityClass ), "", 0, names );
+        return new AttributeDictionary( names );
+    }
+
+    private static void collect( final ManagedType<?> type, final String prefix, final int depth,
+            final Set<String> names ) {
+        for ( final jakarta.persistence.metamodel.Attribute<?, ?> attribute : type.getAttributes() ) {
+            final String name = prefix + attribute.getName();
+            final Object target = switch ( attribute ) {
+                case final SingularAttribute<?, ?> sa -> sa.getType();
+                case final PluralAttribute<?, ?, ?> pa -> pa.getElementType();
+                default -> null;
+            };
+            if ( target instanceof final ManagedType<?> managedType ) {
+                if ( depth < MAX_DEPTH ) {
+                    collect( managedType, name + ".", depth + 1, names );
+                }
+            } else if ( attribute instanceof SingularAttribute<?, ?> ) {
+                names.add( name );
+            }
+        }
+    }
+
+    private static int idOf( final String name ) {
+        final CRC32 crc = new CRC32();
+        crc.update( name.getBytes( StandardCharsets.UTF_8 ) );
+        return (int) (crc.getValue() % MAX_ID) + 1;
+    }
+
+    /**
+     * Get the id of an attribute
+     *
+     * @param name the name of the attribute
+     * @return the id, {@code 0} if the name is not in the dictionary
+     */
+    public int id( final String name ) {
+        final Integer id = ids.get( name );
+        return id != null ? id : 0;
+    }
+
+    /**
+     * Get the name of an attribute
+     *
+     * @param id the id of the attribute
+     * @return the name, {@code null} if the id is not in the dictionary
+     */
+    public @Nullable String name( final int id ) {
+        return names.get( id );
+    }
+
+    /**
+     * Get the version of the dictionary, a hash of all names
+     *
+     * @return the version
+     */
+    public int version() {
+        return version;
+    }
+
+    /**
+     * Get the number of attributes with an id
+     *
+     * @return the number of attributes
+     */
+    public int size() {
+        return ids.size();
+    }
+}
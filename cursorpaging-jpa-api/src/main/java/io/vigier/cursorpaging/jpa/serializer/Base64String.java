@@ -1,52 +1,76 @@
 package io.vigier.cursorpaging.jpa.serializer;
 
+import io.vigier.cursorpaging.jpa.validation.Base64OptionalStringImpl;
 import jakarta.validation.ValidationException;
 import jakarta.validation.constraints.NotNull;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.stream.IntStream;
 
 /**
  * Value class for base64 encoded strings, making sure that the given string can be decoded.
+ * <p>
+ * The string is validated without decoding it (the result, the decoded length, is kept), and {@link #decoded()}
+ * decodes it directly into an array of the exact size.
  */
 public class Base64String implements CharSequence {
 
+    private static final byte[] DECODING = new byte[128];
+
+    static {
+        Arrays.fill( DECODING, (byte) -1 );
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for ( int i = 0; i < alphabet.length(); i++ ) {
+            DECODING[alphabet.charAt( i )] = (byte) i;
+        }
+    }
+
     private final String encoded;
+    private final int decodedLength;
 
     public Base64String( final String base64String ) {
-        this.encoded = validate( base64String );
+        this.encoded = base64String;
+        this.decodedLength = validate( base64String );
     }
 
     public Base64String( final byte[] bytes ) {
-        this.encoded = new String( bytes, StandardCharsets.UTF_8 );
+        this( new String( bytes, StandardCharsets.ISO_8859_1 ) );
     }
 
     public static Base64String encode( final byte[] content ) {
         return new Base64String( Base64.getUrlEncoder().encode( content ) );
     }
 
-    private String validate( final String base64String ) {
+    private static int validate( final String base64String ) {
         if ( base64String.isEmpty() ) {
             throw new ValidationException( "Base64 string must not be empty" );
         }
-        try {
-            decode( base64String );
-        } catch ( final IllegalArgumentException e ) {
+        final int length = Base64OptionalStringImpl.decodedLength( base64String );
+        if ( length < 0 ) {
             throw new ValidationException(
-                    "Argument string must be a valid Base64 string : '%s'".formatted( base64String ), e );
+                    "Argument string must be a valid Base64 string : '%s'".formatted( base64String ) );
         }
-        return base64String;
+        return length;
     }
 
     /**
-     * @return the decoded byte array of the base64 string
+     * @return the decoded byte array of the base64 string (a new array for every call)
      */
     public byte[] decoded() {
-        return decode( encoded );
-    }
-
-    private static byte[] decode( final String base64String ) {
-        return Base64.getUrlDecoder().decode( base64String );
+        final byte[] decoded = new byte[decodedLength];
+        int bits = 0;
+        int count = 0;
+        int position = 0;
+        for ( int i = 0; position < decoded.length; i++ ) {
+            bits = (bits << 6) | DECODING[encoded.charAt( i )];
+            count += 6;
+            if ( count >= 8 ) {
+                count -= 8;
+                decoded[position++] = (byte) (bits >> count);
+            }
+        }
+        return decoded;
     }
 
     @Override
@@ -0,0 +1,74 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.security.GeneralSecurityException;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Optional;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The AEAD ciphers of the {@link Encrypter}. The id of the suite is the first byte of an encrypted cursor, so a cursor
+ * can be decrypted by every instance, independent of the suite it uses for encryption (e.g. while migrating to another
+ * suite). Ids must never change.
+ */
+@RequiredArgsConstructor
+@Getter
+public enum CipherSuite {
+
+    /**
+     * ChaCha20-Poly1305 (RFC 8439), fast without hardware support
+     */
+    CHACHA20_POLY1305( (byte) 1, "ChaCha20-Poly1305", "ChaCha20" ),
+    /**
+     * AES-256 in Galois/Counter Mode, fast where the JDK uses the AES and carry-less multiplication instructions (e.g.
+     * AES-NI and CLMUL on x86)
+     */
+    AES_256_GCM( (byte) 2, "AES/GCM/NoPadding", "AES" ) {
+        @Override
+        AlgorithmParameterSpec parameters( final byte[] nonce, final int offset ) {
+            return new GCMParameterSpec( TAG_BYTES_LENGTH * 8, nonce, offset, Encrypter.IV_BYTES_LENGTH );
+        }
+    };
+
+    static final int TAG_BYTES_LENGTH = 16;
+
+    private final byte id;
+    private final String transformation;
+    private final String keyAlgorithm;
+
+    AlgorithmParameterSpec parameters( final byte[] nonce, final int offset ) {
+        return new IvParameterSpec( nonce, offset, Encrypter.IV_BYTES_LENGTH );
+    }
+
+    /**
+     * Check whether a provider of the cipher is installed
+     *
+     * @return {@code true} if the cipher is available
+     */
+    public boolean isAvailable() {
+        try {
+            Cipher.getInstance( transformation );
+            return true;
+        } catch ( final GeneralSecurityException e ) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the suite with the given id
+     *
+     * @param id the id, i.e. the first byte of an encrypted cursor
+     * @return the suite if there is one with this id
+     */
+    public static Optional<CipherSuite> byId( final byte id ) {
+        for ( final CipherSuite suite : values() ) {
+            if ( suite.id == id ) {
+                return Optional.of( suite );
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,100 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Optional DEFLATE compression of the serialized page request (before encryption or signing).
+ * <p>
+ * A compressed payload starts with the marker byte {@value #MARKER}, which is not a valid protobuf tag, so compressed
+ * and uncompressed payloads can be told apart. The payload is only compressed if this saves bytes, which is the case
+ * for requests with many or long values (e.g. large in-lists), not for a request with a few positions.
+ * <p>
+ * The encryption does not hide the length of the compressed request, see {@code RequestSerializer.compress}.
+ */
+final class Compression {
+
+    static final byte MARKER = 0x00;
+
+    /**
+     * Upper bound of an inflated payload, a cursor is not meant to be larger
+     */
+    static final int MAX_INFLATED_LENGTH = 64 * 1024;
+
+    private Compression() {
+    }
+
+    /**
+     * Compress the payload if the result is smaller
+     *
+     * @param payload the serialized page request
+     * @return the compressed payload (with marker), or the payload if compression does not save bytes
+     */
+    static byte[] compress( final byte[] payload ) {
+        final Deflater deflater = new Deflater( Deflater.BEST_COMPRESSION, true );
+        try {
+            deflater.setInput( payload );
+            deflater.finish();
+            final byte[] buffer = new byte[payload.length];
+            buffer[0] = MARKER;
+            int length = 1;
+            while ( !deflater.finished() && length < buffer.length ) {
+                length += deflater.deflate( buffer, length, buffer.length - length );
+            }
+            if ( !deflater.finished() ) {
+                return payload;
+            }
+            final byte[] compressed = new byte[length];
+            System.arraycopy( buffer, 0, compressed, 0, length );
+            return compressed;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static boolean isCompressed( final byte[] payload ) {
+        return isCompressed( payload, 0, payload.length );
+    }
+
+    static boolean isCompressed( final byte[] buffer, final int offset, final int length ) {
+        return length > 0 && buffer[offset] == MARKER;
+    }
+
+    /**
+     * Inflate a payload created by {@link #compress(byte[])}
+     *
+     * @param payload the payload, starting with the marker
+     * @return the serialized page request
+     * @throws SerializerException if the payload is corrupt or inflates to more than {@value #MAX_INFLATED_LENGTH}
+     *                             bytes
+     */
+    static byte[] decompress( final byte[] payload ) {
+        return decompress( payload, 0, payload.length );
+    }
+
+    static byte[] decompress( final byte[] buffer, final int offset, final int length ) {
+        final Inflater inflater = new Inflater( true );
+        try {
+            inflater.setInput( buffer, offset + 1, length - 1 );
+            final ByteArrayOutputStream out = new ByteArrayOutputStream( length * 4 );
+            final byte[] chunk = new byte[1024];
+            while ( !inflater.finished() ) {
+                final int inflated = inflater.inflate( chunk );
+                if ( inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()) ) {
+                    throw new SerializerException( "Truncated compressed cursor" );
+                }
+                if ( out.size() + inflated > MAX_INFLATED_LENGTH ) {
+                    throw new SerializerException( "Compressed cursor exceeds " + MAX_INFLATED_LENGTH + " bytes" );
+                }
+                out.write( chunk, 0, inflated );
+            }
+            return out.toByteArray();
+        } catch ( final DataFormatException e ) {
+            throw new SerializerException( "Invalid compressed cursor: " + e.getMessage() );
+        } finally {
+            inflater.end();
+        }
+    }
+}
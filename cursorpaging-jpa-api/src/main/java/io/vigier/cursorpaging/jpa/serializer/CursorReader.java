@@ -0,0 +1,417 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.AttributeResolver;
+import io.vigier.cursorpaging.jpa.Filter;
+import io.vigier.cursorpaging.jpa.FilterRule;
+import io.vigier.cursorpaging.jpa.Order;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.Position;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import io.vigier.cursorpaging.jpa.filter.AndFilter;
+import io.vigier.cursorpaging.jpa.filter.FilterList;
+import io.vigier.cursorpaging.jpa.filter.FilterType;
+import io.vigier.cursorpaging.jpa.filter.OrFilter;
+import io.vigier.cursorpaging.jpa.serializer.dto.Cursor;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.ConverterNotFoundException;
+
+/**
+ * Reads a serialized page request (see {@code pagerequest.proto}) with a {@link CodedInputStream} directly into a
+ * {@link PageRequest}, i.e. without building the {@link Cursor.PageRequest} message graph first.
+ *
+ * @param <E> the entity type
+ */
+@Builder
+@RequiredArgsConstructor( staticName = "of" )
+class CursorReader<E> {
+
+    static final Map<Cursor.FilterType, FilterType> FILTER_TYPE_MAP = Map.of( //
+            Cursor.FilterType.EQ, FilterType.EQUAL_TO, //
+            Cursor.FilterType.GT, FilterType.GREATER_THAN, //
+            Cursor.FilterType.LT, FilterType.LESS_THAN, //
+            Cursor.FilterType.LIKE, FilterType.LIKE, //
+            Cursor.FilterType.GE, FilterType.GREATER_THAN_OR_EQUAL_TO, //
+            Cursor.FilterType.LE, FilterType.LESS_THAN_OR_EQUAL_TO, //
+            Cursor.FilterType.UNRECOGNIZED, FilterType.EQUAL_TO, //
+            Cursor.FilterType.ALWAYS, FilterType.ALWAYS //
+    );
+
+    private static final int UUID_BYTES_LENGTH = 16;
+
+    @Builder.Default
+    private final Map<String, Attribute> attributesByName = new HashMap<>();
+    private final ConversionService conversionService;
+    private final Map<String, RuleFactory> ruleFactories;
+    private final AttributeResolver attributeResolver;
+    @Nullable
+    private final AttributeDictionary attributeDictionary;
+
+    /**
+     * The format and dictionary version of a cursor
+     */
+    private record Header(int version, int dictionary) {
+    }
+
+    /**
+     * A value of format v1, parsed by the codec of the attribute
+     */
+    private record Text(String value) {
+    }
+
+    /**
+     * An attribute id unknown to the dictionary, reported with the dictionary version of the cursor
+     */
+    private static final class UnknownAttributeId extends RuntimeException {
+        private final int id;
+
+        private UnknownAttributeId( final int id ) {
+            super( null, null, false, false );
+            this.id = id;
+        }
+    }
+
+    public static <T> CursorReader<T> create( final Consumer<CursorReaderBuilder<T>> c ) {
+        final var builder = CursorReader.<T>builder();
+        c.accept( builder );
+        return builder.build();
+    }
+
+    /**
+     * Read a serialized page request
+     *
+     * @param buffer the buffer containing the request
+     * @param offset the start of the request
+     * @param length the length of the request
+     * @return the page request
+     * @throws IOException if the request is not a valid protobuf message
+     */
+    public PageRequest<E> read( final byte[] buffer, final int offset, final int length ) throws IOException {
+        if ( attributeDictionary != null ) {
+            // the versions are written after the ids, an id of another dictionary may name another attribute
+            final Header header = headerOf( CodedInputStream.newInstance( buffer, offset, length ) );
+            verifyVersion( header.version() );
+            verifyDictionary( header.dictionary() );
+        }
+        try {
+            return readPageRequest( CodedInputStream.newInstance( buffer, offset, length ) );
+        } catch ( final UnknownAttributeId e ) {
+            final Header header = headerOf( CodedInputStream.newInstance( buffer, offset, length ) );
+            verifyVersion( header.version() );
+            throw new SerializerException(
+                    "Unknown attribute id: %d (dictionary of the cursor: %08x, of the serializer: %s)".formatted( e.id,
+                            header.dictionary(),
+                            attributeDictionary != null ? "%08x".formatted( attributeDictionary.version() ) : "none" ) );
+        }
+    }
+
+    private PageRequest<E> readPageRequest( final CodedInputStream in ) throws IOException {
+        final List<Position> positions = new ArrayList<>();
+        FilterList filters = AndFilter.of();
+        int pageSize = 0;
+        Long totalCount = null;
+        int version = 0;
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.PageRequest.PAGE_SIZE_FIELD_NUMBER -> pageSize = in.readInt32();
+                case Cursor.PageRequest.POSITIONS_FIELD_NUMBER -> positions.add( readPosition( in ) );
+                case Cursor.PageRequest.FILTERS_FIELD_NUMBER -> filters = readFilterList( in );
+                case Cursor.PageRequest.TOTAL_COUNT_FIELD_NUMBER -> totalCount = in.readInt64();
+                case Cursor.PageRequest.VERSION_FIELD_NUMBER -> version = in.readInt32();
+                default -> in.skipField( tag );
+            }
+        }
+        verifyVersion( version );
+        return PageRequest.<E>builder()
+                .positions( positions )
+                .filters( filters )
+                .pageSize( pageSize )
+                .enableTotalCount( totalCount != null )
+                .totalCount( totalCount )
+                .build();
+    }
+
+    private void verifyDictionary( final int dictionary ) {
+        if ( dictionary != 0 && dictionary != attributeDictionary.version() ) {
+            throw new SerializerException(
+                    "Cursor of another attribute dictionary: %08x (of the serializer: %08x)".formatted( dictionary,
+                            attributeDictionary.version() ) );
+        }
+    }
+
+    /**
+     * A cursor of a newer format may contain values this version does not know (read as {@code null}), i.e. it would
+     * silently page from another position
+     */
+    private static void verifyVersion( final int version ) {
+        if ( version > CursorWriter.VERSION ) {
+            throw new SerializerException(
+                    "Cursor of an unknown format version: %d (supported up to: %d)".formatted( version,
+                            CursorWriter.VERSION ) );
+        }
+    }
+
+    private static Header headerOf( final CodedInputStream in ) throws IOException {
+        int version = 0;
+        int dictionary = 0;
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.PageRequest.VERSION_FIELD_NUMBER -> version = in.readInt32();
+                case Cursor.PageRequest.DICTIONARY_FIELD_NUMBER -> dictionary = in.readFixed32();
+                default -> in.skipField( tag );
+            }
+        }
+        return new Header( version, dictionary );
+    }
+
+    private Position readPosition( final CodedInputStream in ) throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        Attribute attribute = null;
+        Object value = null;
+        Object nextValue = null;
+        Order order = Order.ASC;
+        boolean reversed = false;
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.Position.ATTRIBUTE_FIELD_NUMBER -> attribute = readAttribute( in );
+                case Cursor.Position.VALUE_FIELD_NUMBER -> value = readValue( in );
+                case Cursor.Position.ORDER_FIELD_NUMBER -> order = switch ( Cursor.Order.forNumber( in.readEnum() ) ) {
+                    case ASC -> Order.ASC;
+                    case DESC -> Order.DESC;
+                    case null, default -> throw new IllegalArgumentException( "Unrecognized order" );
+                };
+                case Cursor.Position.REVERSED_FIELD_NUMBER -> reversed = in.readBool();
+                case Cursor.Position.NEXT_VALUE_FIELD_NUMBER -> nextValue = readValue( in );
+                default -> in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        final Attribute resolved = attribute != null ? attribute : attributeOf( "" );
+        final Order positionOrder = order;
+        final boolean positionReversed = reversed;
+        final Comparable<?> positionValue = valueOf( resolved, value );
+        final Comparable<?> positionNextValue = valueOf( resolved, nextValue );
+        return Position.create( b -> b.attribute( resolved )
+                .value( positionValue )
+                .nextValue( positionNextValue )
+                .order( positionOrder )
+                .reversed( positionReversed ) );
+    }
+
+    private FilterList readFilterList( final CodedInputStream in ) throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        boolean or = false;
+        final List<QueryElement> filters = new ArrayList<>();
+        final List<QueryElement> filterLists = new ArrayList<>();
+        final List<QueryElement> rules = new ArrayList<>();
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.FilterList.TYPE_FIELD_NUMBER ->
+                        or = in.readEnum() == Cursor.FilterList.FilterListType.OR_VALUE;
+                case Cursor.FilterList.FILTERS_FIELD_NUMBER -> filters.add( readFilter( in ) );
+                case Cursor.FilterList.FILTER_LISTS_FIELD_NUMBER -> filterLists.add( readFilterList( in ) );
+                case Cursor.FilterList.RULES_FIELD_NUMBER -> rules.add( readRule( in ) );
+                default -> in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        // filters, lists, rules (the order of the fields in the message)
+        filters.addAll( filterLists );
+        filters.addAll( rules );
+        return or ? OrFilter.of( filters ) : AndFilter.of( filters );
+    }
+
+    private Filter readFilter( final CodedInputStream in ) throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        Attribute attribute = null;
+        final List<Object> values = new ArrayList<>();
+        FilterType type = FilterType.EQUAL_TO;
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.Filter.ATTRIBUTE_FIELD_NUMBER -> attribute = readAttribute( in );
+                case Cursor.Filter.VALUES_FIELD_NUMBER -> values.add( readValue( in ) );
+                case Cursor.Filter.TYPE_FIELD_NUMBER -> {
+                    final Cursor.FilterType dtoType = Cursor.FilterType.forNumber( in.readEnum() );
+                    type = FILTER_TYPE_MAP.get(
+                            dtoType != null ? dtoType : Cursor.FilterType.UNRECOGNIZED );
+                }
+                default -> in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        final Attribute resolved = attribute != null ? attribute : attributeOf( "" );
+        final List<Comparable<?>> converted = new ArrayList<>( values.size() );
+        for ( final Object value : values ) {
+            converted.add( valueOf( resolved, value ) );
+        }
+        return Filter.builder()
+                .attribute( resolved )
+                .values( converted )
+                .type( type )
+                .build();
+    }
+
+    private @Nullable FilterRule readRule( final CodedInputStream in ) throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        String name = "";
+        final Map<String, List<String>> parameters = new HashMap<>();
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.Rule.NAME_FIELD_NUMBER -> name = in.readStringRequireUtf8();
+                case Cursor.Rule.PARAMETERS_FIELD_NUMBER -> readParameter( in, parameters );
+                default -> in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        final RuleFactory factory = ruleFactories.get( name );
+        return factory != null ? factory.apply( parameters ) : null;
+    }
+
+    private static void readParameter( final CodedInputStream in, final Map<String, List<String>> parameters )
+            throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        String name = "";
+        final List<String> values = new ArrayList<>();
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.Rule.Parameter.NAME_FIELD_NUMBER -> name = in.readStringRequireUtf8();
+                case Cursor.Rule.Parameter.VALUES_FIELD_NUMBER -> values.add( readText( in ) );
+                default -> in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        parameters.put( name, List.copyOf( values ) );
+    }
+
+    /**
+     * The string value (format v1) of a {@link Cursor.Value}, parameters of rules are always strings
+     */
+    private static String readText( final CodedInputStream in ) throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        String text = "";
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            if ( WireFormat.getTagFieldNumber( tag ) == Cursor.Value.VALUE_FIELD_NUMBER ) {
+                text = in.readStringRequireUtf8();
+            } else {
+                in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        return text;
+    }
+
+    private Attribute readAttribute( final CodedInputStream in ) throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        String name = "";
+        int id = 0;
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.Attribute.NAME_FIELD_NUMBER -> name = in.readStringRequireUtf8();
+                case Cursor.Attribute.ID_FIELD_NUMBER -> id = in.readUInt32();
+                default -> in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        return attributeOf( id != 0 ? nameOf( id ) : name );
+    }
+
+    private String nameOf( final int id ) {
+        final String name = attributeDictionary != null ? attributeDictionary.name( id ) : null;
+        if ( name == null ) {
+            throw new UnknownAttributeId( id );
+        }
+        return name;
+    }
+
+    private Attribute attributeOf( final String name ) {
+        final var resolved = attributesByName.computeIfAbsent( name, attributeResolver::resolve );
+        if ( resolved == null ) {
+            throw new SerializerException( "No attribute found for name: " + name );
+        }
+        return resolved;
+    }
+
+    /**
+     * Read a {@link Cursor.Value}
+     *
+     * @return the typed value (format v2), a {@link Text} (format v1) or {@code null}
+     */
+    private static @Nullable Object readValue( final CodedInputStream in ) throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        String text = "";
+        Object typed = null;
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.Value.VALUE_FIELD_NUMBER -> text = in.readStringRequireUtf8();
+                case Cursor.Value.INT_VALUE_FIELD_NUMBER -> typed = in.readSInt64();
+                case Cursor.Value.DOUBLE_VALUE_FIELD_NUMBER -> typed = in.readDouble();
+                case Cursor.Value.BOOL_VALUE_FIELD_NUMBER -> typed = in.readBool();
+                case Cursor.Value.UUID_VALUE_FIELD_NUMBER -> typed = readUuid( in );
+                case Cursor.Value.TIMESTAMP_VALUE_FIELD_NUMBER -> typed = readTimestamp( in );
+                case Cursor.Value.BYTES_VALUE_FIELD_NUMBER -> typed = in.readByteArray();
+                case Cursor.Value.STRING_VALUE_FIELD_NUMBER -> typed = in.readStringRequireUtf8();
+                default -> in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        if ( typed != null ) {
+            return typed;
+        }
+        return text.isEmpty() ? null : new Text( text );
+    }
+
+    private static UUID readUuid( final CodedInputStream in ) throws IOException {
+        final int length = in.readRawVarint32();
+        if ( length != UUID_BYTES_LENGTH ) {
+            throw new SerializerException( "Invalid UUID value of length: " + length );
+        }
+        // most significant byte first
+        final long msb = Long.reverseBytes( in.readRawLittleEndian64() );
+        final long lsb = Long.reverseBytes( in.readRawLittleEndian64() );
+        return new UUID( msb, lsb );
+    }
+
+    private static Instant readTimestamp( final CodedInputStream in ) throws IOException {
+        final int limit = in.pushLimit( in.readRawVarint32() );
+        long seconds = 0;
+        int nanos = 0;
+        for ( int tag = in.readTag(); tag != 0; tag = in.readTag() ) {
+            switch ( WireFormat.getTagFieldNumber( tag ) ) {
+                case Cursor.Timestamp.SECONDS_FIELD_NUMBER -> seconds = in.readInt64();
+                case Cursor.Timestamp.NANOS_FIELD_NUMBER -> nanos = in.readInt32();
+                default -> in.skipField( tag );
+            }
+        }
+        in.popLimit( limit );
+        return Instant.ofEpochSecond( seconds, nanos );
+    }
+
+    /**
+     * Convert a value read by {@link #readValue(CodedInputStream)} with the codec of the attribute (only if it has
+     * another type)
+     */
+    private <T extends Comparable<? super T>> @Nullable T valueOf( final Attribute attribute,
+            @Nullable final Object value ) {
+        final Object raw = value instanceof final Text text ? text.value() : value;
+        try {
+            return attribute.<T>codec().convert( raw, conversionService );
+        } catch ( final ConverterNotFoundException e ) {
+            throw new SerializerException(
+                    "Cannot convert value: '%s' (type: %s) to type: '%s' for attribute: %s".formatted( raw,
+                            raw.getClass().getName(), attribute.type(), attribute.name() ), e );
+        }
+    }
+}
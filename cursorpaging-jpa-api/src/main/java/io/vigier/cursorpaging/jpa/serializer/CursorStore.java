@@ -0,0 +1,33 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Keeps serialized page requests on the server, so that a cursor is only a short id instead of the (encrypted) request,
+ * see the {@code cursorStore} of the {@link RequestSerializer} (or {@link RequestSerializerFactory}).
+ * <p>
+ * Stored requests expire when they were not used for some time (sliding expiry), a cursor of an expired request is
+ * rejected. Implementations must be thread safe.
+ *
+ * @see InMemoryCursorStore
+ * @see JdbcCursorStore
+ */
+public interface CursorStore {
+
+    /**
+     * Store a serialized request (or extend its expiry, if already stored)
+     *
+     * @param id      the id of the request, derived from its content
+     * @param request the serialized request
+     */
+    void put( String id, byte[] request );
+
+    /**
+     * Get a serialized request and extend its expiry
+     *
+     * @param id the id of the request
+     * @return the serialized request, {@code null} if unknown or expired
+     */
+    @Nullable
+    byte[] get( String id );
+}
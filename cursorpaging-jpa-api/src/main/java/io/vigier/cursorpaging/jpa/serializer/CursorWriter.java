@@ -0,0 +1,515 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Filter;
+import io.vigier.cursorpaging.jpa.FilterRule;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.Position;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import io.vigier.cursorpaging.jpa.ValueCodec;
+import io.vigier.cursorpaging.jpa.cache.LruCache;
+import io.vigier.cursorpaging.jpa.filter.AndFilter;
+import io.vigier.cursorpaging.jpa.filter.FilterList;
+import io.vigier.cursorpaging.jpa.filter.FilterType;
+import io.vigier.cursorpaging.jpa.filter.OrFilter;
+import io.vigier.cursorpaging.jpa.serializer.dto.Cursor;
+import io.vigier.cursorpaging.jpa.serializer.dto.Cursor.FilterList.FilterListType;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Writes a {@link PageRequest} with a {@link CodedOutputStream} into an array of the exact size, i.e. without building
+ * the {@link Cursor.PageRequest} message graph first. The result is byte for byte the same as the encoded message.
+ * <p>
+ * Like the generated messages, the request is encoded in two passes: the first computes the sizes of all nested
+ * messages (kept in the order they are written), the second writes the fields.
+ *
+ * @param <E> the entity type
+ */
+@Builder
+@RequiredArgsConstructor( staticName = "of" )
+class CursorWriter<E> {
+
+    static final Map<FilterType, Cursor.FilterType> TYPE_MAP = Map.of( //
+            FilterType.EQUAL_TO, Cursor.FilterType.EQ, //
+            FilterType.GREATER_THAN, Cursor.FilterType.GT, //
+            FilterType.LESS_THAN, Cursor.FilterType.LT, //
+            FilterType.LIKE, Cursor.FilterType.LIKE, //
+            FilterType.LESS_THAN_OR_EQUAL_TO, Cursor.FilterType.LE, //
+            FilterType.GREATER_THAN_OR_EQUAL_TO, Cursor.FilterType.GE, //
+            FilterType.ALWAYS, Cursor.FilterType.ALWAYS //
+    );
+    static final Map<Class<? extends FilterList>, FilterListType> LISTTYPE_MAP = Map.of( //
+            AndFilter.class, FilterListType.AND, //
+            OrFilter.class, FilterListType.OR );
+
+    /**
+     * Version of the format: typed values (v1 stored all values as string). Cursors of a higher version are rejected,
+     * so all instances must be able to read a new version before any instance writes it (see {@link #version}).
+     */
+    static final int VERSION = 2;
+
+    /**
+     * The first version, written by the releases without typed values: all values as string, no attribute ids and no
+     * version field
+     */
+    static final int VERSION_1 = 1;
+
+    private static final int UUID_BYTES_LENGTH = 16;
+
+    private final PageRequest<E> pageRequest;
+
+    /**
+     * Attribute ids to use instead of the names, if present
+     */
+    @Nullable
+    private final AttributeDictionary attributeDictionary;
+
+    /**
+     * The version of the format to write, {@link #VERSION_1} while not all instances can read the current one (the
+     * attribute dictionary is not used then), otherwise the current {@link #VERSION}
+     */
+    private final int version;
+
+    private final Sizes sizes = new Sizes();
+
+    /**
+     * The sizes of the nested messages in the order they are written, a slot is reserved before the sizes of the
+     * contained messages are computed
+     */
+    private static final class Sizes {
+        private int[] values = new int[32];
+        private int count;
+        private int position;
+
+        void clear() {
+            count = 0;
+            position = 0;
+        }
+
+        int reserve() {
+            if ( count == values.length ) {
+                values = Arrays.copyOf( values, count * 2 );
+            }
+            return count++;
+        }
+
+        int set( final int slot, final int size ) {
+            values[slot] = size;
+            return size;
+        }
+
+        int next() {
+            return values[position++];
+        }
+    }
+
+    public static <E> CursorWriter<E> create( final Consumer<CursorWriterBuilder<E>> c ) {
+        final var builder = CursorWriter.<E>builder();
+        c.accept( builder );
+        return builder.build();
+    }
+
+    /**
+     * Serialize the request
+     *
+     * @return the serialized request
+     */
+    public byte[] toBytes() {
+        return write( null );
+    }
+
+    /**
+     * Serialize the request, with the encoded filters taken from the cache if the same filters were encoded before
+     * (e.g. for the self and the next cursor of a page)
+     *
+     * @param filterCache encoded filters by filter list
+     * @return the serialized request
+     */
+    public byte[] toBytes( final LruCache<FilterList, byte[]> filterCache ) {
+        byte[] filters = filterCache.get( pageRequest.filters() );
+        if ( filters == null ) {
+            filters = encode( pageRequest.filters() );
+            filterCache.put( pageRequest.filters(), filters );
+        }
+        return write( filters );
+    }
+
+    @SneakyThrows
+    private byte[] write( @Nullable final byte[] filters ) {
+        sizes.clear();
+        final byte[] bytes = new byte[pageRequestSize( filters )];
+        final CodedOutputStream out = CodedOutputStream.newInstance( bytes );
+        writePageRequest( out, filters );
+        out.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    @SneakyThrows
+    private byte[] encode( final FilterList filters ) {
+        sizes.clear();
+        final byte[] bytes = new byte[filterListSize( filters )];
+        final CodedOutputStream out = CodedOutputStream.newInstance( bytes );
+        sizes.next(); // the size of the list itself, which has no tag here
+        writeFilterListFields( out, filters );
+        out.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    private static int messageSize( final int fieldNumber, final int size ) {
+        return CodedOutputStream.computeTagSize( fieldNumber ) + CodedOutputStream.computeUInt32SizeNoTag( size )
+                + size;
+    }
+
+    private void writeMessageHeader( final CodedOutputStream out, final int fieldNumber ) throws IOException {
+        out.writeTag( fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED );
+        out.writeUInt32NoTag( sizes.next() );
+    }
+
+    private int pageRequestSize( @Nullable final byte[] filters ) {
+        int size = 0;
+        if ( pageRequest.pageSize() != 0 ) {
+            size += CodedOutputStream.computeInt32Size( Cursor.PageRequest.PAGE_SIZE_FIELD_NUMBER,
+                    pageRequest.pageSize() );
+        }
+        for ( final Position position : pageRequest.positions() ) {
+            size += messageSize( Cursor.PageRequest.POSITIONS_FIELD_NUMBER, positionSize( position ) );
+        }
+        size += filters != null ? CodedOutputStream.computeByteArraySize( Cursor.PageRequest.FILTERS_FIELD_NUMBER,
+                filters ) : messageSize( Cursor.PageRequest.FILTERS_FIELD_NUMBER,
+                filterListSize( pageRequest.filters() ) );
+        if ( pageRequest.totalCount().isPresent() ) {
+            size += CodedOutputStream.computeInt64Size( Cursor.PageRequest.TOTAL_COUNT_FIELD_NUMBER,
+                    pageRequest.totalCount().get() );
+        }
+        if ( !isVersion1() ) {
+            size += CodedOutputStream.computeInt32Size( Cursor.PageRequest.VERSION_FIELD_NUMBER, VERSION );
+        }
+        if ( dictionaryVersion() != 0 ) {
+            size += CodedOutputStream.computeFixed32Size( Cursor.PageRequest.DICTIONARY_FIELD_NUMBER,
+                    dictionaryVersion() );
+        }
+        return size;
+    }
+
+    private void writePageRequest( final CodedOutputStream out, @Nullable final byte[] filters ) throws IOException {
+        if ( pageRequest.pageSize() != 0 ) {
+            out.writeInt32( Cursor.PageRequest.PAGE_SIZE_FIELD_NUMBER, pageRequest.pageSize() );
+        }
+        for ( final Position position : pageRequest.positions() ) {
+            writePosition( out, position );
+        }
+        if ( filters != null ) {
+            out.writeByteArray( Cursor.PageRequest.FILTERS_FIELD_NUMBER, filters );
+        } else {
+            writeMessageHeader( out, Cursor.PageRequest.FILTERS_FIELD_NUMBER );
+            writeFilterListFields( out, pageRequest.filters() );
+        }
+        if ( pageRequest.totalCount().isPresent() ) {
+            out.writeInt64( Cursor.PageRequest.TOTAL_COUNT_FIELD_NUMBER, pageRequest.totalCount().get() );
+        }
+        if ( !isVersion1() ) {
+            out.writeInt32( Cursor.PageRequest.VERSION_FIELD_NUMBER, VERSION );
+        }
+        if ( dictionaryVersion() != 0 ) {
+            out.writeFixed32( Cursor.PageRequest.DICTIONARY_FIELD_NUMBER, dictionaryVersion() );
+        }
+    }
+
+    private boolean isVersion1() {
+        return version == VERSION_1;
+    }
+
+    private int dictionaryVersion() {
+        return attributeDictionary != null && !isVersion1() ? attributeDictionary.version() : 0;
+    }
+
+    private int positionSize( final Position position ) {
+        final int slot = sizes.reserve();
+        int size = messageSize( Cursor.Position.ATTRIBUTE_FIELD_NUMBER, attributeSize( position.attribute() ) );
+        size += messageSize( Cursor.Position.VALUE_FIELD_NUMBER, valueSize( position.attribute(), position.value() ) );
+        if ( orderOf( position ) != 0 ) {
+            size += CodedOutputStream.computeEnumSize( Cursor.Position.ORDER_FIELD_NUMBER, orderOf( position ) );
+        }
+        size += CodedOutputStream.computeBoolSize( Cursor.Position.REVERSED_FIELD_NUMBER, position.reversed() );
+        size += messageSize( Cursor.Position.NEXT_VALUE_FIELD_NUMBER, valueSize( position.attribute(), position.nextValue() ) );
+        return sizes.set( slot, size );
+    }
+
+    private void writePosition( final CodedOutputStream out, final Position position ) throws IOException {
+        writeMessageHeader( out, Cursor.PageRequest.POSITIONS_FIELD_NUMBER );
+        writeAttribute( out, Cursor.Position.ATTRIBUTE_FIELD_NUMBER, position.attribute() );
+        writeValue( out, Cursor.Position.VALUE_FIELD_NUMBER, position.attribute(), position.value() );
+        if ( orderOf( position ) != 0 ) {
+            out.writeEnum( Cursor.Position.ORDER_FIELD_NUMBER, orderOf( position ) );
+        }
+        out.writeBool( Cursor.Position.REVERSED_FIELD_NUMBER, position.reversed() );
+        writeValue( out, Cursor.Position.NEXT_VALUE_FIELD_NUMBER, position.attribute(),
+                position.nextValue() );
+    }
+
+    private static int orderOf( final Position position ) {
+        return switch ( position.order() ) {
+            case ASC -> Cursor.Order.ASC_VALUE;
+            case DESC -> Cursor.Order.DESC_VALUE;
+        };
+    }
+
+    private int filterListSize( final FilterList list ) {
+        final int slot = sizes.reserve();
+        int size = CodedOutputStream.computeEnumSize( Cursor.FilterList.TYPE_FIELD_NUMBER, typeOf( list ) );
+        // like the message: all filters, then all lists, then all rules
+        for ( final QueryElement element : list ) {
+            if ( element instanceof final Filter filter ) {
+                size += messageSize( Cursor.FilterList.FILTERS_FIELD_NUMBER, filterSize( filter ) );
+            }
+        }
+        for ( final QueryElement element : list ) {
+            if ( element instanceof final FilterList filterList ) {
+                size += messageSize( Cursor.FilterList.FILTER_LISTS_FIELD_NUMBER, filterListSize( filterList ) );
+            }
+        }
+        for ( final QueryElement element : list ) {
+            if ( element instanceof final FilterRule rule ) {
+                size += messageSize( Cursor.FilterList.RULES_FIELD_NUMBER, ruleSize( rule ) );
+            }
+        }
+        return sizes.set( slot, size );
+    }
+
+    private void writeFilterListFields( final CodedOutputStream out, final FilterList list ) throws IOException {
+        out.writeEnum( Cursor.FilterList.TYPE_FIELD_NUMBER, typeOf( list ) );
+        for ( final QueryElement element : list ) {
+            if ( element instanceof final Filter filter ) {
+                writeFilter( out, filter );
+            }
+        }
+        for ( final QueryElement element : list ) {
+            if ( element instanceof final FilterList filterList ) {
+                writeMessageHeader( out, Cursor.FilterList.FILTER_LISTS_FIELD_NUMBER );
+                writeFilterListFields( out, filterList );
+            }
+        }
+        for ( final QueryElement element : list ) {
+            if ( element instanceof final FilterRule rule ) {
+                writeRule( out, rule );
+            }
+        }
+    }
+
+    private static int typeOf( final FilterList list ) {
+        return LISTTYPE_MAP.get( list.getClass() ).getNumber();
+    }
+
+    private int filterSize( final Filter filter ) {
+        final int slot = sizes.reserve();
+        int size = messageSize( Cursor.Filter.ATTRIBUTE_FIELD_NUMBER, attributeSize( filter.attribute() ) );
+        for ( final Comparable<?> value : filter.values() ) {
+            size += messageSize( Cursor.Filter.VALUES_FIELD_NUMBER, valueSize( filter.attribute(), value ) );
+        }
+        size += CodedOutputStream.computeEnumSize( Cursor.Filter.TYPE_FIELD_NUMBER, typeOf( filter ) );
+        return sizes.set( slot, size );
+    }
+
+    private void writeFilter( final CodedOutputStream out, final Filter filter ) throws IOException {
+        writeMessageHeader( out, Cursor.FilterList.FILTERS_FIELD_NUMBER );
+        writeAttribute( out, Cursor.Filter.ATTRIBUTE_FIELD_NUMBER, filter.attribute() );
+        for ( final Comparable<?> value : filter.values() ) {
+            writeValue( out, Cursor.Filter.VALUES_FIELD_NUMBER, filter.attribute(), value );
+        }
+        out.writeEnum( Cursor.Filter.TYPE_FIELD_NUMBER, typeOf( filter ) );
+    }
+
+    private static int typeOf( final Filter filter ) {
+        return TYPE_MAP.get( filter.operation() ).getNumber();
+    }
+
+    private int ruleSize( final FilterRule rule ) {
+        final int slot = sizes.reserve();
+        int size = rule.name().isEmpty() ? 0
+                : CodedOutputStream.computeStringSize( Cursor.Rule.NAME_FIELD_NUMBER, rule.name() );
+        for ( final Map.Entry<String, List<String>> parameter : rule.parameters().entrySet() ) {
+            size += messageSize( Cursor.Rule.PARAMETERS_FIELD_NUMBER, parameterSize( parameter ) );
+        }
+        return sizes.set( slot, size );
+    }
+
+    private void writeRule( final CodedOutputStream out, final FilterRule rule ) throws IOException {
+        writeMessageHeader( out, Cursor.FilterList.RULES_FIELD_NUMBER );
+        if ( !rule.name().isEmpty() ) {
+            out.writeString( Cursor.Rule.NAME_FIELD_NUMBER, rule.name() );
+        }
+        for ( final Map.Entry<String, List<String>> parameter : rule.parameters().entrySet() ) {
+            writeParameter( out, parameter );
+        }
+    }
+
+    /**
+     * Parameters of rules are passed as strings to the {@link RuleFactory}, so they are written as values of format v1
+     */
+    private int parameterSize( final Map.Entry<String, List<String>> parameter ) {
+        final int slot = sizes.reserve();
+        int size = parameter.getKey().isEmpty() ? 0
+                : CodedOutputStream.computeStringSize( Cursor.Rule.Parameter.NAME_FIELD_NUMBER, parameter.getKey() );
+        for ( final String value : parameter.getValue() ) {
+            size += messageSize( Cursor.Rule.Parameter.VALUES_FIELD_NUMBER, textSize( value ) );
+        }
+        return sizes.set( slot, size );
+    }
+
+    private void writeParameter( final CodedOutputStream out, final Map.Entry<String, List<String>> parameter )
+            throws IOException {
+        writeMessageHeader( out, Cursor.Rule.PARAMETERS_FIELD_NUMBER );
+        if ( !parameter.getKey().isEmpty() ) {
+            out.writeString( Cursor.Rule.Parameter.NAME_FIELD_NUMBER, parameter.getKey() );
+        }
+        for ( final String value : parameter.getValue() ) {
+            writeMessageHeader( out, Cursor.Rule.Parameter.VALUES_FIELD_NUMBER );
+            if ( value != null && !value.isEmpty() ) {
+                out.writeString( Cursor.Value.VALUE_FIELD_NUMBER, value );
+            }
+        }
+    }
+
+    private int textSize( @Nullable final String value ) {
+        final int slot = sizes.reserve();
+        return sizes.set( slot, value == null || value.isEmpty() ? 0
+                : CodedOutputStream.computeStringSize( Cursor.Value.VALUE_FIELD_NUMBER, value ) );
+    }
+
+    private int attributeId( final String name ) {
+        return attributeDictionary != null && !isVersion1() ? attributeDictionary.id( name ) : 0;
+    }
+
+    private int attributeSize( final Attribute attribute ) {
+        final int slot = sizes.reserve();
+        final String name = attribute.name();
+        final int id = attributeId( name );
+        if ( id != 0 ) {
+            return sizes.set( slot, CodedOutputStream.computeUInt32Size( Cursor.Attribute.ID_FIELD_NUMBER, id ) );
+        }
+        return sizes.set( slot,
+                name.isEmpty() ? 0 : CodedOutputStream.computeStringSize( Cursor.Attribute.NAME_FIELD_NUMBER, name ) );
+    }
+
+    private void writeAttribute( final CodedOutputStream out, final int fieldNumber, final Attribute attribute )
+            throws IOException {
+        writeMessageHeader( out, fieldNumber );
+        final String name = attribute.name();
+        final int id = attributeId( name );
+        if ( id != 0 ) {
+            out.writeUInt32( Cursor.Attribute.ID_FIELD_NUMBER, id );
+        } else if ( !name.isEmpty() ) {
+            out.writeString( Cursor.Attribute.NAME_FIELD_NUMBER, name );
+        }
+    }
+
+    /**
+     * Typed value for the common types, the string representation for others (see {@link #textOf(Attribute, Object)})
+     * and for all values of format v1
+     */
+    private int valueSize( final Attribute attribute, @Nullable final Comparable<?> value ) {
+        final int slot = sizes.reserve();
+        final int size = switch ( value ) {
+            case null -> 0;
+            case final Comparable<?> v when isVersion1() -> untypedSize( attribute, v );
+            case final String s -> CodedOutputStream.computeStringSize( Cursor.Value.STRING_VALUE_FIELD_NUMBER, s );
+            case final Long l -> CodedOutputStream.computeSInt64Size( Cursor.Value.INT_VALUE_FIELD_NUMBER, l );
+            case final Integer i -> CodedOutputStream.computeSInt64Size( Cursor.Value.INT_VALUE_FIELD_NUMBER, i );
+            case final Short sh -> CodedOutputStream.computeSInt64Size( Cursor.Value.INT_VALUE_FIELD_NUMBER, sh );
+            case final Byte by -> CodedOutputStream.computeSInt64Size( Cursor.Value.INT_VALUE_FIELD_NUMBER, by );
+            case final Double d -> CodedOutputStream.computeDoubleSize( Cursor.Value.DOUBLE_VALUE_FIELD_NUMBER, d );
+            case final Float f -> CodedOutputStream.computeDoubleSize( Cursor.Value.DOUBLE_VALUE_FIELD_NUMBER, f );
+            case final Boolean bo -> CodedOutputStream.computeBoolSize( Cursor.Value.BOOL_VALUE_FIELD_NUMBER, bo );
+            case final UUID u -> messageSize( Cursor.Value.UUID_VALUE_FIELD_NUMBER, UUID_BYTES_LENGTH );
+            case final Instant in -> messageSize( Cursor.Value.TIMESTAMP_VALUE_FIELD_NUMBER, timestampSize( in ) );
+            case final Enum<?> en ->
+                    CodedOutputStream.computeStringSize( Cursor.Value.STRING_VALUE_FIELD_NUMBER, en.name() );
+            default -> untypedSize( attribute, value );
+        };
+        return sizes.set( slot, size );
+    }
+
+    private static int untypedSize( final Attribute attribute, final Comparable<?> value ) {
+        final String text = textOf( attribute, value );
+        return text.isEmpty() ? 0 : CodedOutputStream.computeStringSize( Cursor.Value.VALUE_FIELD_NUMBER, text );
+    }
+
+    private void writeValue( final CodedOutputStream out, final int fieldNumber, final Attribute attribute,
+            @Nullable final Comparable<?> value ) throws IOException {
+        writeMessageHeader( out, fieldNumber );
+        switch ( value ) {
+            case null -> {
+                // empty value
+            }
+            case final Comparable<?> v when isVersion1() -> writeUntyped( out, attribute, v );
+            case final String s -> out.writeString( Cursor.Value.STRING_VALUE_FIELD_NUMBER, s );
+            case final Long l -> out.writeSInt64( Cursor.Value.INT_VALUE_FIELD_NUMBER, l );
+            case final Integer i -> out.writeSInt64( Cursor.Value.INT_VALUE_FIELD_NUMBER, i );
+            case final Short sh -> out.writeSInt64( Cursor.Value.INT_VALUE_FIELD_NUMBER, sh );
+            case final Byte by -> out.writeSInt64( Cursor.Value.INT_VALUE_FIELD_NUMBER, by );
+            case final Double d -> out.writeDouble( Cursor.Value.DOUBLE_VALUE_FIELD_NUMBER, d );
+            case final Float f -> out.writeDouble( Cursor.Value.DOUBLE_VALUE_FIELD_NUMBER, f );
+            case final Boolean bo -> out.writeBool( Cursor.Value.BOOL_VALUE_FIELD_NUMBER, bo );
+            case final UUID u -> {
+                out.writeTag( Cursor.Value.UUID_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED );
+                out.writeUInt32NoTag( UUID_BYTES_LENGTH );
+                // most significant byte first
+                out.writeFixed64NoTag( Long.reverseBytes( u.getMostSignificantBits() ) );
+                out.writeFixed64NoTag( Long.reverseBytes( u.getLeastSignificantBits() ) );
+            }
+            case final Instant in -> {
+                out.writeTag( Cursor.Value.TIMESTAMP_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED );
+                out.writeUInt32NoTag( timestampSize( in ) );
+                if ( in.getEpochSecond() != 0 ) {
+                    out.writeInt64( Cursor.Timestamp.SECONDS_FIELD_NUMBER, in.getEpochSecond() );
+                }
+                if ( in.getNano() != 0 ) {
+                    out.writeInt32( Cursor.Timestamp.NANOS_FIELD_NUMBER, in.getNano() );
+                }
+            }
+            case final Enum<?> en -> out.writeString( Cursor.Value.STRING_VALUE_FIELD_NUMBER, en.name() );
+            default -> writeUntyped( out, attribute, value );
+        }
+    }
+
+    private static void writeUntyped( final CodedOutputStream out, final Attribute attribute,
+            final Comparable<?> value ) throws IOException {
+        final String text = textOf( attribute, value );
+        if ( !text.isEmpty() ) {
+            out.writeString( Cursor.Value.VALUE_FIELD_NUMBER, text );
+        }
+    }
+
+    /**
+     * The string representation of a value without typed field, formatted with the codec of the attribute (the inverse
+     * of the parser used by the {@link CursorReader})
+     */
+    @SuppressWarnings( "unchecked" )
+    static String textOf( final Attribute attribute, final Object value ) {
+        final ValueCodec<?> codec = attribute.codec();
+        return codec.type().isInstance( value ) ? ((ValueCodec<Object>) codec).format( value ) : value.toString();
+    }
+
+    private static int timestampSize( final Instant instant ) {
+        int size = 0;
+        if ( instant.getEpochSecond() != 0 ) {
+            size += CodedOutputStream.computeInt64Size( Cursor.Timestamp.SECONDS_FIELD_NUMBER, instant.getEpochSecond() );
+        }
+        if ( instant.getNano() != 0 ) {
+            size += CodedOutputStream.computeInt32Size( Cursor.Timestamp.NANOS_FIELD_NUMBER, instant.getNano() );
+        }
+        return size;
+    }
+}
@@ -1,19 +1,21 @@
 package io.vigier.cursorpaging.jpa.serializer;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.random.RandomGenerator;
 import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 
 /**
  * Encrypts serialized data using a symmetric encryption.
@@ -25,60 +27,266 @@ public class Encrypter {
     public static final String KEY_ALGORITHM = "ChaCha20";
     public static final int IV_BYTES_LENGTH = 12;
 
-    private static final String ALGORITHM = "ChaCha20-Poly1305";
+    private static final String LEGACY_ALGORITHM = "ChaCha20-Poly1305";
+    private static final String KDF_ALGORITHM = "HmacSHA256";
+    private static final int HEADER_BYTES_LENGTH = 1;
+    private static final int TAG_BYTES_LENGTH = CipherSuite.TAG_BYTES_LENGTH;
 
     /**
-     * The random generator to use for generating the initial vector (IV). Potentially this can be replaced by a
-     * secure-random implementation provided by a cloud provider (e.g. software.amazon.awssdk.services.kms.KmsClient).
+     * The generator of the nonces (IVs), see {@link NonceGenerator#counter()}. Use
+     * {@link EncrypterBuilder#randomGenerator(RandomGenerator)} to draw them from a random generator instead, e.g. one
+     * provided by a cloud provider (e.g. software.amazon.awssdk.services.kms.KmsClient).
      */
     @Builder.Default
-    private final RandomGenerator randomGenerator = new SecureRandom( UUID.randomUUID().toString().getBytes() );
+    private final NonceGenerator nonceGenerator = NonceGenerator.counter();
 
     /**
      * The secret key used for encryption and decryption.
      */
     private final SecretKey secret;
 
+    /**
+     * The cipher suite used for encryption. Cursors of all suites can be decrypted.
+     */
+    @Builder.Default
+    private final CipherSuite cipherSuite = CipherSuite.CHACHA20_POLY1305;
+
+    /**
+     * Whether cursors encrypted before the cipher suites were introduced (without suite id) are decrypted.
+     */
+    @Builder.Default
+    private final boolean decryptLegacy = true;
+
+    /**
+     * Whether cursors are encrypted without suite id (ChaCha20-Poly1305 with the secret, the nonce follows the
+     * ciphertext and tag), so instances of a release before the cipher suites can decrypt them during a rolling
+     * upgrade. Such cursors are also decrypted if {@link #decryptLegacy} is disabled.
+     */
+    @Builder.Default
+    private final boolean encryptLegacy = false;
+
+    /**
+     * The keys of the suites (by ordinal), followed by the legacy key, created when used
+     */
+    private final Keyed[] keys = new Keyed[CipherSuite.values().length + 1];
+
+    public static class EncrypterBuilder {
+
+        /**
+         * Draw the nonces from the given random generator
+         *
+         * @param randomGenerator the random generator
+         * @return this builder
+         */
+        public EncrypterBuilder randomGenerator( final RandomGenerator randomGenerator ) {
+            return nonceGenerator( NonceGenerator.random( randomGenerator ) );
+        }
+    }
 
     public byte[] encrypt( final byte[] data ) {
         try {
             return doEncrypt( data );
+        } catch ( final GeneralSecurityException e ) {
+            throw new CryptoException( e );
         } catch ( final RuntimeException e ) {
             throw new CryptoException( e.getCause() );
         }
     }
 
-    @SneakyThrows
-    private byte[] doEncrypt( final byte[] data ) {
-        final var cipher = Cipher.getInstance( ALGORITHM );
-        final IvParameterSpec iv = new IvParameterSpec( getIvBytes() );
-
-        cipher.init( Cipher.ENCRYPT_MODE, secret, iv );
-        final byte[] encrypted = cipher.doFinal( data );
-        return ByteBuffer.allocate( encrypted.length + IV_BYTES_LENGTH ).put( encrypted ).put( iv.getIV() ).array();
+    private byte[] doEncrypt( final byte[] data ) throws GeneralSecurityException {
+        if ( encryptLegacy ) {
+            return doEncryptLegacy( data );
+        }
+        final Keyed keyed = keyed( cipherSuite );
+        final Cipher cipher = keyed.acquire();
+        // suite id, nonce, ciphertext and tag
+        final byte[] encrypted = new byte[HEADER_BYTES_LENGTH + IV_BYTES_LENGTH + data.length + TAG_BYTES_LENGTH];
+        encrypted[0] = cipherSuite.getId();
+        final byte[] iv = getIvBytes();
+        System.arraycopy( iv, 0, encrypted, HEADER_BYTES_LENGTH, IV_BYTES_LENGTH );
+        cipher.init( Cipher.ENCRYPT_MODE, keyed.key(), cipherSuite.parameters( iv, 0 ) );
+        cipher.updateAAD( encrypted, 0, HEADER_BYTES_LENGTH );
+        cipher.doFinal( data, 0, data.length, encrypted, HEADER_BYTES_LENGTH + IV_BYTES_LENGTH );
+        keyed.release( cipher );
+        return encrypted;
     }
 
     private byte[] getIvBytes() {
         final var iv = new byte[IV_BYTES_LENGTH];
-        randomGenerator.nextBytes( iv );
+        nonceGenerator.next( iv );
         return iv;
     }
 
     public byte[] decrypt( final byte[] data ) {
         try {
             return doDecrypt( data );
+        } catch ( final GeneralSecurityException e ) {
+            throw new CryptoException( e );
         } catch ( final RuntimeException e ) {
             throw new CryptoException( e.getCause() );
         }
     }
 
-    @SneakyThrows
-    private byte[] doDecrypt( final byte[] data ) {
-        final var cipher = Cipher.getInstance( ALGORITHM );
-        final IvParameterSpec iv = new IvParameterSpec( data, data.length - IV_BYTES_LENGTH, IV_BYTES_LENGTH );
+    private byte[] doDecrypt( final byte[] data ) throws GeneralSecurityException {
+        final Optional<CipherSuite> suite = data.length > 0 ? CipherSuite.byId( data[0] ) : Optional.empty();
+        if ( suite.isEmpty() && !decryptsLegacy() ) {
+            throw new IllegalArgumentException( "Unknown cipher suite" );
+        }
+        if ( suite.isPresent() ) {
+            try {
+                return doDecrypt( suite.get(), data );
+            } catch ( final GeneralSecurityException | IllegalArgumentException e ) {
+                // the first byte of a legacy cursor may equal a suite id by chance
+                if ( !decryptsLegacy() ) {
+                    throw e;
+                }
+            }
+        }
+        return doDecryptLegacy( data );
+    }
+
+    /**
+     * Decrypt a cursor of a cipher suite within the given array, i.e. without allocating the plaintext. The plaintext
+     * starts at index 0. After a failure the content of the array is undefined: cursors without suite id are not
+     * decrypted, use {@link #decrypt(byte[])} with a copy of the cursor for them.
+     *
+     * @param data the encrypted cursor, overwritten with the plaintext
+     * @return the length of the plaintext
+     * @throws CryptoException if the data cannot be decrypted
+     */
+    int decryptInPlace( final byte[] data ) {
+        try {
+            final CipherSuite suite = (data.length > 0 ? CipherSuite.byId( data[0] ) : Optional.<CipherSuite>empty())
+                    .orElseThrow( () -> new IllegalArgumentException( "Unknown cipher suite" ) );
+            decryptedLength( data );
+            return doDecrypt( suite, data, data );
+        } catch ( final GeneralSecurityException | IllegalArgumentException e ) {
+            throw new CryptoException( e );
+        }
+    }
+
+    boolean decryptsLegacy() {
+        return decryptLegacy || encryptLegacy;
+    }
+
+    private byte[] doDecrypt( final CipherSuite suite, final byte[] data ) throws GeneralSecurityException {
+        final byte[] decrypted = new byte[decryptedLength( data )];
+        doDecrypt( suite, data, decrypted );
+        return decrypted;
+    }
+
+    private int doDecrypt( final CipherSuite suite, final byte[] data, final byte[] output )
+            throws GeneralSecurityException {
+        final int offset = HEADER_BYTES_LENGTH + IV_BYTES_LENGTH;
+        final Keyed keyed = keyed( suite );
+        final Cipher cipher = keyed.acquire();
+        cipher.init( Cipher.DECRYPT_MODE, keyed.key(), suite.parameters( data, HEADER_BYTES_LENGTH ) );
+        cipher.updateAAD( data, 0, HEADER_BYTES_LENGTH );
+        final int length = cipher.doFinal( data, offset, data.length - offset, output, 0 );
+        keyed.release( cipher );
+        return length;
+    }
+
+    private static int decryptedLength( final byte[] data ) {
+        final int length = data.length - HEADER_BYTES_LENGTH - IV_BYTES_LENGTH - TAG_BYTES_LENGTH;
+        if ( length < 0 ) {
+            throw new IllegalArgumentException( "Encrypted data too short: " + data.length + " bytes" );
+        }
+        return length;
+    }
+
+    /**
+     * Decrypt a cursor of the format before cipher suites: ChaCha20-Poly1305 with the secret, the nonce follows the
+     * ciphertext and tag
+     */
+    private byte[] doDecryptLegacy( final byte[] data ) throws GeneralSecurityException {
+        final int length = data.length - IV_BYTES_LENGTH;
+        if ( length < TAG_BYTES_LENGTH ) {
+            throw new IllegalArgumentException( "Encrypted data too short: " + data.length + " bytes" );
+        }
+        final Keyed keyed = legacyKeyed();
+        final Cipher cipher = keyed.acquire();
+        cipher.init( Cipher.DECRYPT_MODE, secret, new IvParameterSpec( data, length, IV_BYTES_LENGTH ) );
+        final byte[] decrypted = new byte[length - TAG_BYTES_LENGTH];
+        cipher.doFinal( data, 0, length, decrypted, 0 );
+        keyed.release( cipher );
+        return decrypted;
+    }
+
+    /**
+     * Encrypt in the format before cipher suites, see {@link #encryptLegacy}
+     */
+    private byte[] doEncryptLegacy( final byte[] data ) throws GeneralSecurityException {
+        final Keyed keyed = legacyKeyed();
+        final Cipher cipher = keyed.acquire();
+        // ciphertext and tag, nonce
+        final byte[] encrypted = new byte[data.length + TAG_BYTES_LENGTH + IV_BYTES_LENGTH];
+        final byte[] iv = getIvBytes();
+        System.arraycopy( iv, 0, encrypted, data.length + TAG_BYTES_LENGTH, IV_BYTES_LENGTH );
+        cipher.init( Cipher.ENCRYPT_MODE, secret, new IvParameterSpec( iv ) );
+        cipher.doFinal( data, 0, data.length, encrypted, 0 );
+        keyed.release( cipher );
+        return encrypted;
+    }
+
+    private Keyed legacyKeyed() {
+        Keyed keyed = keys[keys.length - 1];
+        if ( keyed == null ) {
+            keyed = new Keyed( secret, LEGACY_ALGORITHM, new ConcurrentLinkedQueue<>() );
+            keys[keys.length - 1] = keyed;
+        }
+        return keyed;
+    }
+
+    private Keyed keyed( final CipherSuite suite ) throws GeneralSecurityException {
+        Keyed keyed = keys[suite.ordinal()];
+        if ( keyed == null ) {
+            // a race creates the key twice, which does no harm (the record is immutable, i.e. safely published)
+            keyed = new Keyed( deriveKey( suite ), suite.getTransformation(), new ConcurrentLinkedQueue<>() );
+            keys[suite.ordinal()] = keyed;
+        }
+        return keyed;
+    }
+
+    /**
+     * Derive the key of a suite from the secret (HMAC-SHA256 of the suite id), so no key is used by two algorithms
+     */
+    private SecretKey deriveKey( final CipherSuite suite ) throws GeneralSecurityException {
+        return new SecretKeySpec( hmac( "cursorpaging-suite-" + suite.getId() ), suite.getKeyAlgorithm() );
+    }
 
-        cipher.init( Cipher.DECRYPT_MODE, secret, iv );
-        return cipher.doFinal( data, 0, data.length - IV_BYTES_LENGTH );
+    /**
+     * Derive a secret for another purpose from the secret (HMAC-SHA256 of the label), e.g. the salt of stored cursors
+     */
+    byte[] deriveSecret( final String label ) {
+        try {
+            return hmac( label );
+        } catch ( final GeneralSecurityException e ) {
+            throw new CryptoException( e );
+        }
+    }
+
+    private byte[] hmac( final String label ) throws GeneralSecurityException {
+        final Mac mac = Mac.getInstance( KDF_ALGORITHM );
+        mac.init( new SecretKeySpec( secret.getEncoded(), KDF_ALGORITHM ) );
+        return mac.doFinal( label.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * A key and the idle cipher instances using it, as {@link Cipher#getInstance(String)} does a provider lookup. A
+     * cipher is re-initialized for every operation (with a new nonce) and only returned when the operation succeeded.
+     * The pool grows to the number of concurrent operations (unlike a thread-local, also suitable for virtual threads).
+     */
+    private record Keyed(SecretKey key, String transformation, Queue<Cipher> ciphers) {
+
+        Cipher acquire() throws GeneralSecurityException {
+            final Cipher cipher = ciphers.poll();
+            return cipher != null ? cipher : Cipher.getInstance( transformation );
+        }
+
+        void release( final Cipher cipher ) {
+            ciphers.offer( cipher );
+        }
     }
 
     /**
@@ -90,7 +298,8 @@ public class Encrypter {
     public static Encrypter getInstance() {
         try {
             final KeyGenerator keyGen = KeyGenerator.getInstance( KEY_ALGORITHM );
-            keyGen.init( 256, SecureRandom.getInstanceStrong() );
+            // not getInstanceStrong(), which may block on entropy-starved hosts
+            keyGen.init( 256, new SecureRandom() );
             return Encrypter.builder().secret( keyGen.generateKey() )
                     .build();
         } catch ( final NoSuchAlgorithmException e ) {
@@ -0,0 +1,110 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link CursorStore} keeping the requests in memory (of a single instance), bounded in size by evicting the least
+ * recently used request.
+ * <p>
+ * With a sliding expiry the least recently used requests are also the first to expire, so expired requests are removed
+ * from the eldest end in one go whenever a request is stored.
+ */
+@Builder
+@RequiredArgsConstructor
+public final class InMemoryCursorStore implements CursorStore {
+
+    /**
+     * The maximum number of stored requests
+     */
+    @Builder.Default
+    private final int maximumSize = 10_000;
+
+    /**
+     * The time a request is kept after its last use
+     */
+    @Builder.Default
+    private final Duration timeToLive = Duration.ofHours( 1 );
+
+    @Builder.Default
+    private final Clock clock = Clock.systemUTC();
+
+    /**
+     * The requests in access order (all access synchronized on the map)
+     */
+    private final Map<String, Entry> entries = new LinkedHashMap<>( 16, 0.75f, true );
+
+    private record Entry(byte[] request, long expiresAt) {
+    }
+
+    public static InMemoryCursorStore create( final Consumer<InMemoryCursorStoreBuilder> c ) {
+        final InMemoryCursorStoreBuilder builder = InMemoryCursorStore.builder();
+        c.accept( builder );
+        return builder.build();
+    }
+
+    @Override
+    public void put( final String id, final byte[] request ) {
+        final long now = clock.millis();
+        synchronized ( entries ) {
+            entries.put( id, new Entry( request, now + timeToLive.toMillis() ) );
+            removeExpired( now );
+            final Iterator<Entry> eldest = entries.values().iterator();
+            while ( entries.size() > maximumSize ) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    @Override
+    public @Nullable byte[] get( final String id ) {
+        final long now = clock.millis();
+        synchronized ( entries ) {
+            final Entry entry = entries.get( id );
+            if ( entry == null ) {
+                return null;
+            }
+            if ( entry.expiresAt() <= now ) {
+                entries.remove( id );
+                return null;
+            }
+            entries.put( id, new Entry( entry.request(), now + timeToLive.toMillis() ) );
+            return entry.request();
+        }
+    }
+
+    /**
+     * Remove the expired requests (done on every {@link #put(String, byte[])})
+     */
+    public void cleanup() {
+        synchronized ( entries ) {
+            removeExpired( clock.millis() );
+        }
+    }
+
+    /**
+     * Get the number of stored (incl. not yet removed, expired) requests
+     *
+     * @return the size
+     */
+    public int size() {
+        synchronized ( entries ) {
+            return entries.size();
+        }
+    }
+
+    private void removeExpired( final long now ) {
+        final Iterator<Entry> eldest = entries.values().iterator();
+        while ( eldest.hasNext() && eldest.next().expiresAt() <= now ) {
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A {@link CursorStore} keeping the requests in a database table, shared by all instances of a service. The table must
+ * exist, e.g. (PostgreSQL):
+ * <pre>{@code
+ * create table cursor_store (
+ *     id         varchar(32) primary key,
+ *     request    bytea not null,
+ *     expires_at bigint not null
+ * );
+ * create index cursor_store_expires_at on cursor_store (expires_at);
+ * }</pre>
+ * Requests are inserted with {@code insert ... on conflict do nothing} (supported e.g. by PostgreSQL, SQLite and H2 in
+ * PostgreSQL mode), as another instance may store the same request concurrently. The changes are committed by the
+ * store itself if the connections of the data source are not in auto-commit mode.
+ * <p>
+ * To save writes, the expiry of a request is only extended when less than half of the time to live is left, i.e. a
+ * request is kept at least half the time to live after its last use. Expired requests are deleted in batches by
+ * {@link #cleanup()}, which is never called on a request thread: schedule it, e.g.
+ * {@code @Scheduled(fixedDelay = 5, timeUnit = TimeUnit.MINUTES)} on one instance.
+ */
+@Slf4j
+@Builder
+@RequiredArgsConstructor
+public final class JdbcCursorStore implements CursorStore {
+
+    private static final Pattern TABLE_NAME = Pattern.compile( "[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?" );
+
+    private final DataSource dataSource;
+
+    /**
+     * The name of the table, optionally qualified by a schema (it is part of the SQL, thus checked to be an
+     * identifier)
+     */
+    @Builder.Default
+    private final String tableName = "cursor_store";
+
+    /**
+     * The time a request is kept after its last use
+     */
+    @Builder.Default
+    private final Duration timeToLive = Duration.ofHours( 1 );
+
+    /**
+     * The number of expired requests deleted in one batch
+     */
+    @Builder.Default
+    private final int cleanupBatchSize = 500;
+
+    @Builder.Default
+    private final Clock clock = Clock.systemUTC();
+
+    public static class JdbcCursorStoreBuilder {
+        public JdbcCursorStoreBuilder tableName( final String tableName ) {
+            if ( !TABLE_NAME.matcher( tableName ).matches() ) {
+                throw new IllegalArgumentException( "Invalid table name: " + tableName );
+            }
+            this.tableName$value = tableName;
+            this.tableName$set = true;
+            return this;
+        }
+    }
+
+    public static JdbcCursorStore create( final Consumer<JdbcCursorStoreBuilder> c ) {
+        final JdbcCursorStoreBuilder builder = JdbcCursorStore.builder();
+        c.accept( builder );
+        return builder.build();
+    }
+
+    @Override
+    public void put( final String id, final byte[] request ) {
+        final long now = clock.millis();
+        try ( final Connection connection = dataSource.getConnection() ) {
+            // the id is derived from the content, an existing row has the same request
+            final long expiresAt = expiresAt( connection, id );
+            if ( expiresAt < 0 || (expiresAt - now < timeToLive.toMillis() / 2 && touch( connection, id, now ) == 0) ) {
+                insert( connection, id, request, now );
+            }
+            commit( connection );
+        } catch ( final SQLException e ) {
+            throw new SerializerException( "Cannot store cursor: " + e.getMessage(), e );
+        }
+    }
+
+    @Override
+    public @Nullable byte[] get( final String id ) {
+        final long now = clock.millis();
+        try ( final Connection connection = dataSource.getConnection();
+                final PreparedStatement select = connection.prepareStatement(
+                        "select request, expires_at from " + tableName + " where id = ?" ) ) {
+            select.setString( 1, id );
+            try ( final ResultSet rs = select.executeQuery() ) {
+                if ( !rs.next() ) {
+                    return null;
+                }
+                final byte[] request = rs.getBytes( 1 );
+                final long expiresAt = rs.getLong( 2 );
+                if ( expiresAt <= now ) {
+                    return null;
+                }
+                if ( expiresAt - now < timeToLive.toMillis() / 2 ) {
+                    touch( connection, id, now );
+                    commit( connection );
+                }
+                return request;
+            }
+        } catch ( final SQLException e ) {
+            throw new SerializerException( "Cannot load cursor: " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * Delete the expired requests
+     *
+     * @return the number of deleted requests
+     */
+    public int cleanup() {
+        final long now = clock.millis();
+        int deleted = 0;
+        try ( final Connection connection = dataSource.getConnection();
+                final PreparedStatement select = connection.prepareStatement(
+                        "select id from " + tableName + " where expires_at <= ?" );
+                final PreparedStatement delete = connection.prepareStatement(
+                        "delete from " + tableName + " where id = ? and expires_at <= ?" ) ) {
+            select.setMaxRows( cleanupBatchSize );
+            select.setLong( 1, now );
+            List<String> ids;
+            do {
+                ids = expiredIds( select );
+                for ( final String id : ids ) {
+                    delete.setString( 1, id );
+                    delete.setLong( 2, now );
+                    delete.addBatch();
+                }
+                if ( !ids.isEmpty() ) {
+                    delete.executeBatch();
+                    commit( connection );
+                    deleted += ids.size();
+                }
+            } while ( ids.size() == cleanupBatchSize );
+        } catch ( final SQLException e ) {
+            log.warn( "Cleanup of expired cursors failed: {}", e.getMessage() );
+        }
+        log.debug( "Deleted {} expired cursors", deleted );
+        return deleted;
+    }
+
+    private static List<String> expiredIds( final PreparedStatement select ) throws SQLException {
+        final List<String> ids = new ArrayList<>();
+        try ( final ResultSet rs = select.executeQuery() ) {
+            while ( rs.next() ) {
+                ids.add( rs.getString( 1 ) );
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Commit the changes, if the connection (e.g. of a pool) is not in auto-commit mode
+     */
+    private static void commit( final Connection connection ) throws SQLException {
+        if ( !connection.getAutoCommit() ) {
+            connection.commit();
+        }
+    }
+
+    private long expiresAt( final Connection connection, final String id ) throws SQLException {
+        try ( final PreparedStatement select = connection.prepareStatement(
+                "select expires_at from " + tableName + " where id = ?" ) ) {
+            select.setString( 1, id );
+            try ( final ResultSet rs = select.executeQuery() ) {
+                return rs.next() ? rs.getLong( 1 ) : -1;
+            }
+        }
+    }
+
+    private int touch( final Connection connection, final String id, final long now ) throws SQLException {
+        try ( final PreparedStatement update = connection.prepareStatement(
+                "update " + tableName + " set expires_at = ? where id = ?" ) ) {
+            update.setLong( 1, now + timeToLive.toMillis() );
+            update.setString( 2, id );
+            return update.executeUpdate();
+        }
+    }
+
+    private void insert( final Connection connection, final String id, final byte[] request, final long now )
+            throws SQLException {
+        // a duplicate key error would abort the transaction (PostgreSQL), the row stored concurrently is kept
+        try ( final PreparedStatement insert = connection.prepareStatement(
+                "insert into " + tableName + " (id, request, expires_at) values (?, ?, ?) on conflict do nothing" ) ) {
+            insert.setString( 1, id );
+            insert.setBytes( 2, request );
+            insert.setLong( 3, now + timeToLive.toMillis() );
+            insert.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates the nonces (IVs) used by the {@link Encrypter}. A nonce must never be used twice with the same key, the
+ * nonces do not need to be unpredictable.
+ */
+@FunctionalInterface
+public interface NonceGenerator {
+
+    /**
+     * Fill the array with the next nonce
+     *
+     * @param nonce the array to fill, of length {@link Encrypter#IV_BYTES_LENGTH}
+     */
+    void next( byte[] nonce );
+
+    /**
+     * Get a generator drawing every nonce from the given random generator. All encryptions share the random generator,
+     * which synchronizes in case of a {@link SecureRandom}.
+     *
+     * @param random the random generator
+     * @return the nonce generator
+     */
+    static NonceGenerator random( final RandomGenerator random ) {
+        return random::nextBytes;
+    }
+
+    /**
+     * Get a generator of nonces consisting of a random 32-bit prefix and a 64-bit counter starting at a random value.
+     * The nonces of a generator never repeat (within 2<sup>64</sup> encryptions) and generators with the same key (other
+     * instances or restarts) are unlikely to produce overlapping ranges. Does not block or synchronize: the counter is
+     * incremented atomically.
+     *
+     * @return the nonce generator
+     */
+    static NonceGenerator counter() {
+        // not getInstanceStrong(), which may block on entropy-starved hosts
+        final SecureRandom seed = new SecureRandom();
+        final int prefix = seed.nextInt();
+        final AtomicLong counter = new AtomicLong( seed.nextLong() );
+        return nonce -> {
+            final long value = counter.getAndIncrement();
+            for ( int i = 0; i < 4; i++ ) {
+                nonce[i] = (byte) (prefix >>> (24 - 8 * i));
+            }
+            for ( int i = 0; i < 8; i++ ) {
+                nonce[4 + i] = (byte) (value >>> (56 - 8 * i));
+            }
+        };
+    }
+}
@@ -6,14 +6,20 @@ import io.vigier.cursorpaging.jpa.AttributeResolver;
 import io.vigier.cursorpaging.jpa.FilterRule;
 import io.vigier.cursorpaging.jpa.PageRequest;
 import io.vigier.cursorpaging.jpa.QueryElement;
+import io.vigier.cursorpaging.jpa.cache.CacheStats;
+import io.vigier.cursorpaging.jpa.cache.LruCache;
 import io.vigier.cursorpaging.jpa.filter.FilterList;
-import io.vigier.cursorpaging.jpa.serializer.dto.Cursor;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.SneakyThrows;
@@ -22,15 +28,42 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.data.convert.Jsr310Converters;
 
+import static java.util.Objects.requireNonNull;
+
 @Builder
 public class RequestSerializer<E> {
 
+    /**
+     * The first byte of a cursor referencing a stored request, followed by {@value #STORED_ID_BYTES_LENGTH} bytes of id
+     */
+    static final byte STORED_HEADER = 0x7E;
+    static final int STORED_ID_BYTES_LENGTH = 16;
+    private static final int STORED_CURSOR_MAX_LENGTH = 24;
+
+    private static final int FILTER_CACHE_SIZE = 64;
+
+    /**
+     * A serialized request within a buffer
+     */
+    private record Payload(byte[] bytes, int offset, int length) {
+        static Payload of( final byte[] bytes ) {
+            return new Payload( bytes, 0, bytes.length );
+        }
+    }
+
     @Builder.Default
     private Map<String, Attribute> attributes = new ConcurrentHashMap<>();
 
     @Builder.Default
     private final Encrypter encrypter = Encrypter.getInstance();
 
+    /**
+     * Signs the cursors instead of encrypting them, if present (see {@link Signer}). Encrypted cursors are still
+     * decrypted.
+     */
+    @Nullable
+    private final Signer signer;
+
     @Getter
     private Class<E> entityType;
 
@@ -40,6 +73,64 @@ public class RequestSerializer<E> {
     @Builder.Default
     private final Map<String, RuleFactory> filterRuleFactories = new HashMap<>();
 
+    /**
+     * Decoded page requests by cursor string, {@code null} if not enabled
+     */
+    @Nullable
+    private final LruCache<String, PageRequest<E>> cursorCache;
+
+    /**
+     * Stores the ids of the attributes in the cursors instead of the names, if present
+     */
+    @Nullable
+    private final AttributeDictionary attributeDictionary;
+
+    /**
+     * Compress the serialized request, if this makes the cursor shorter (see {@link Compression}). Compressed cursors
+     * are always decompressed.
+     * <p>
+     * The request is compressed before it is encrypted, so the length of the cursor tells how well the request
+     * compresses. If a client controls some filter values of a request which also contains values it must not learn,
+     * it can guess these values by the cursor length (like the CRIME/BREACH attacks). Do not enable compression for
+     * such requests.
+     */
+    @Builder.Default
+    private final boolean compress = false;
+
+    /**
+     * The version of the format written: {@code 1} (all values as string, no attribute ids) while some instances of a
+     * rolling upgrade only read that version, the current version (default) once all instances are upgraded. Cursors
+     * of both versions are always read.
+     */
+    @Builder.Default
+    private final int formatVersion = CursorWriter.VERSION;
+
+    /**
+     * Keeps the serialized requests on the server, the cursors are only a short id, if present (see
+     * {@link CursorStore}). Stored requests are neither encrypted nor signed.
+     */
+    @Nullable
+    private final CursorStore cursorStore;
+
+    /**
+     * Secret salt of the hash identifying a stored request, so that the ids cannot be derived from the content. All
+     * instances sharing a {@link #cursorStore} need the same salt to yield the same ids. Derived from the key of the
+     * {@link #encrypter} if absent (which is random per instance with the default encrypter).
+     */
+    @Nullable
+    private final byte[] cursorStoreSalt;
+
+    /**
+     * The salt in use, the configured or derived {@link #cursorStoreSalt}
+     */
+    private final AtomicReference<byte[]> storedIdSalt = new AtomicReference<>();
+
+    /**
+     * Encoded filters of the recently serialized requests, the self and the next cursor of a page (or the cursors of
+     * all pages of a request) share the filters
+     */
+    private final LruCache<FilterList, byte[]> filterCache = new LruCache<>( FILTER_CACHE_SIZE );
+
     @Builder.Default
     private final AttributeResolver attributeResolver = name -> {
         throw new SerializerException( "No attribute found for name: " + name + " (no AttributeResolver configured)" );
@@ -60,6 +151,17 @@ public class RequestSerializer<E> {
 
     public static class RequestSerializerBuilder<E> {
 
+        public RequestSerializerBuilder<E> formatVersion( final int formatVersion ) {
+            if ( formatVersion < CursorWriter.VERSION_1 || formatVersion > CursorWriter.VERSION ) {
+                throw new IllegalArgumentException(
+                        "Unsupported format version: %d (supported: %d to %d)".formatted( formatVersion,
+                                CursorWriter.VERSION_1, CursorWriter.VERSION ) );
+            }
+            this.formatVersion$value = formatVersion;
+            this.formatVersion$set = true;
+            return this;
+        }
+
         public RequestSerializerBuilder<E> use( final Attribute attribute ) {
             if ( this.attributes$value == null ) {
                 this.attributes$value = new ConcurrentHashMap<>();
@@ -77,6 +179,19 @@ public class RequestSerializer<E> {
             filterRuleFactories$set = true;
             return this;
         }
+
+        /**
+         * Cache the page requests of the most recently decoded cursors, so that repeated cursors (e.g. popular next
+         * links, polling clients) skip decoding, decryption, parsing and value conversion. Only cursors which were
+         * decoded (and thus authenticated) successfully are cached.
+         *
+         * @param maximumSize maximum number of cached cursors
+         * @return this builder
+         */
+        public RequestSerializerBuilder<E> cacheCursors( final int maximumSize ) {
+            this.cursorCache = new LruCache<>( maximumSize );
+            return this;
+        }
     }
 
     public interface RequestSerializerCreator<E> extends
@@ -101,9 +216,15 @@ public class RequestSerializer<E> {
     public byte[] toBytes( final PageRequest<E> page ) {
         updateAttributes( page );
         verifyFilterRuleFactories( page );
-        final Cursor.PageRequest dtoRequest = ToDtoMapper.<E>create( c -> c.pageRequest( page ) )
-                .map();
-        return encrypter.encrypt( dtoRequest.toByteArray() );
+        final byte[] serialized = CursorWriter.<E>create( c -> c.pageRequest( page )
+                        .attributeDictionary( attributeDictionary )
+                        .version( formatVersion ) )
+                .toBytes( filterCache );
+        final byte[] payload = compress ? Compression.compress( serialized ) : serialized;
+        if ( cursorStore != null ) {
+            return store( payload );
+        }
+        return signer != null ? signer.sign( payload ) : encrypter.encrypt( payload );
     }
 
     private void verifyFilterRuleFactories( final PageRequest<E> page ) {
@@ -138,19 +259,110 @@ public class RequestSerializer<E> {
                 .replace( "=", "" );
     }
 
-    @SneakyThrows
     public PageRequest<E> toPageRequest( final byte[] data ) {
-        final var request = Cursor.PageRequest.parseFrom( encrypter.decrypt( data ) );
-        final FromDtoMapper<E> fromDtoMapper = FromDtoMapper.create( b -> b.request( request )
-                .conversionService( conversionService )
-                .ruleFactories( filterRuleFactories )
-                .attributesByName( attributes )
-                .attributeResolver( attributeResolver ) );
-        return fromDtoMapper.map();
+        return read( unprotect( data ) );
+    }
+
+    /**
+     * Read the serialized request directly from the buffer it was decrypted or verified in
+     */
+    @SneakyThrows
+    private PageRequest<E> read( final Payload payload ) {
+        final Payload request = Compression.isCompressed( payload.bytes(), payload.offset(), payload.length() )
+                ? Payload.of( Compression.decompress( payload.bytes(), payload.offset(), payload.length() ) )
+                : payload;
+        return CursorReader.<E>create( b -> b.conversionService( conversionService )
+                        .ruleFactories( filterRuleFactories )
+                        .attributesByName( attributes )
+                        .attributeResolver( attributeResolver )
+                        .attributeDictionary( attributeDictionary ) )
+                .read( request.bytes(), request.offset(), request.length() );
+    }
+
+    private byte[] store( final byte[] payload ) {
+        final byte[] cursor = new byte[1 + STORED_ID_BYTES_LENGTH];
+        cursor[0] = STORED_HEADER;
+        final MessageDigest digest = sha256();
+        digest.update( storedIdSalt() );
+        System.arraycopy( digest.digest( payload ), 0, cursor, 1, STORED_ID_BYTES_LENGTH );
+        requireNonNull( cursorStore ).put( storedId( cursor ), payload );
+        return cursor;
+    }
+
+    private byte[] storedIdSalt() {
+        byte[] salt = storedIdSalt.get();
+        if ( salt == null ) {
+            salt = cursorStoreSalt != null ? cursorStoreSalt.clone() : encrypter.deriveSecret( "cursorpaging-store" );
+            storedIdSalt.set( salt );
+        }
+        return salt;
+    }
+
+    private static boolean isStored( final byte[] data ) {
+        return data.length == 1 + STORED_ID_BYTES_LENGTH && data[0] == STORED_HEADER;
+    }
+
+    /**
+     * Whether the cursor references a stored request, which must not be cached: it expires in the store and each use
+     * has to extend its lifetime there
+     */
+    private boolean isStored( final Base64String cursor ) {
+        return cursorStore != null && cursor.length() <= STORED_CURSOR_MAX_LENGTH && isStored( cursor.decoded() );
+    }
+
+    private static String storedId( final byte[] cursor ) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString( Arrays.copyOfRange( cursor, 1, cursor.length ) );
+    }
+
+    @SneakyThrows
+    private static MessageDigest sha256() {
+        return MessageDigest.getInstance( "SHA-256" );
+    }
+
+    private Payload unprotect( final byte[] data ) {
+        if ( cursorStore != null && isStored( data ) ) {
+            final byte[] payload = cursorStore.get( storedId( data ) );
+            if ( payload == null ) {
+                throw new SerializerException( "Unknown or expired cursor" );
+            }
+            return Payload.of( payload );
+        }
+        if ( signer != null && Signer.isSigned( data ) ) {
+            try {
+                return new Payload( data, Signer.DATA_OFFSET, signer.verifiedLength( data ) );
+            } catch ( final CryptoException e ) {
+                // the first byte of an encrypted cursor may equal the header by chance
+                try {
+                    return Payload.of( encrypter.decrypt( data ) );
+                } catch ( final CryptoException ignored ) {
+                    throw e;
+                }
+            }
+        }
+        return Payload.of( encrypter.decrypt( data ) );
+    }
+
+    /**
+     * Unprotect a cursor within the array it is decoded into, i.e. an encrypted cursor is decrypted in place
+     */
+    private Payload unprotectInPlace( final Base64String base64 ) {
+        final byte[] data = base64.decoded();
+        if ( (cursorStore != null && isStored( data )) || (signer != null && Signer.isSigned( data )) ) {
+            return unprotect( data );
+        }
+        try {
+            return new Payload( data, 0, encrypter.decryptInPlace( data ) );
+        } catch ( final CryptoException e ) {
+            if ( !encrypter.decryptsLegacy() ) {
+                throw e;
+            }
+            // the array was overwritten, decode the cursor again (it may be a cursor without suite id)
+            return unprotect( base64.decoded() );
+        }
     }
 
     public PageRequest<E> toPageRequest( final Base64String base64 ) {
-        return toPageRequest( base64.decoded() );
+        return cached( base64, () -> read( unprotectInPlace( base64 ) ) );
     }
 
     /**
@@ -162,6 +374,28 @@ public class RequestSerializer<E> {
     public Optional<PageRequest<E>> stringToPageRequest( @Nullable final String cursorStr ) {
         return Optional.ofNullable( (cursorStr != null && !cursorStr.isBlank()) ? cursorStr : null )
                 .map( Base64String::new )
-                .map( this::toPageRequest );
+                .map( base64 -> cached( base64, () -> read( unprotectInPlace( base64 ) ) ) );
+    }
+
+    /**
+     * Get the statistics of the cursor cache (see {@link RequestSerializerBuilder#cacheCursors(int)})
+     *
+     * @return the statistics, all zero if the cache is not enabled
+     */
+    public CacheStats cursorCacheStats() {
+        return cursorCache != null ? cursorCache.stats() : new CacheStats( 0, 0, 0, 0 );
+    }
+
+    private PageRequest<E> cached( final Base64String cursor, final Supplier<PageRequest<E>> decoder ) {
+        if ( cursorCache == null || isStored( cursor ) ) {
+            return decoder.get();
+        }
+        final PageRequest<E> cached = cursorCache.get( cursor.toString() );
+        if ( cached != null ) {
+            return cached;
+        }
+        final PageRequest<E> request = decoder.get();
+        cursorCache.put( cursor.toString(), request );
+        return request;
     }
 }
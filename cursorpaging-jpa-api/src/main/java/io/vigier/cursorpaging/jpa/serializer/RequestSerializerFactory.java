@@ -9,6 +9,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
 import org.springframework.core.convert.ConversionService;
 
 import static java.util.Objects.requireNonNull;
@@ -34,6 +35,43 @@ public class RequestSerializerFactory {
     @Builder.Default
     private final Encrypter encrypter = Encrypter.getInstance();
 
+    /**
+     * Signs the cursors instead of encrypting them, if present
+     */
+    @Nullable
+    private final Signer signer;
+
+    /**
+     * Store attribute ids from an {@link AttributeDictionary} of the JPA metamodel in the cursors instead of the names
+     * (requires the {@link EntityManager}). All instances reading the cursors must use the same metamodel.
+     */
+    @Builder.Default
+    private final boolean useAttributeDictionary = false;
+
+    /**
+     * Compress the cursors, if this makes them shorter
+     */
+    @Builder.Default
+    private final boolean compress = false;
+
+    /**
+     * The version of the cursor format written, {@code 1} during a rolling upgrade from a release without typed values
+     */
+    @Builder.Default
+    private final int formatVersion = CursorWriter.VERSION;
+
+    /**
+     * Keeps the requests on the server and uses short ids as cursors, if present
+     */
+    @Nullable
+    private final CursorStore cursorStore;
+
+    /**
+     * The secret salt of the ids of stored requests, derived from the key of the {@link #encrypter} if absent
+     */
+    @Nullable
+    private final byte[] cursorStoreSalt;
+
     @Builder.Default
     private final Map<Class<?>, RequestSerializer<?>> entitySerializers = new ConcurrentHashMap<>();
 
@@ -65,9 +103,7 @@ public class RequestSerializerFactory {
     @SuppressWarnings( "unchecked" )
     public <T> RequestSerializer<T> forEntity( final Class<T> entityClass ) {
         return (RequestSerializer<T>) entitySerializers.computeIfAbsent( entityClass, c -> RequestSerializer.create( c )
-                .apply( b -> b.encrypter( encrypter )
-                        .conversionService( conversionService )
-                        .attributeResolver( attributeResolver( c ) ) ) );
+                .apply( b -> defaults( b, c ) ) );
     }
 
     /**
@@ -82,14 +118,28 @@ public class RequestSerializerFactory {
             final Consumer<RequestSerializerBuilder<T>> rsb ) {
         entitySerializers.computeIfAbsent( entityClass, _ -> RequestSerializer.create( entityClass )
                 .apply( b -> {
-                    b.encrypter( encrypter )
-                            .conversionService( conversionService )
-                            .attributeResolver( attributeResolver( entityClass ) );
+                    defaults( b, entityClass );
                     rsb.accept( b );
                 } ) );
         return this;
     }
 
+    private <T> void defaults( final RequestSerializerBuilder<T> b, final Class<?> entityClass ) {
+        b.encrypter( encrypter )
+                .signer( signer )
+                .conversionService( conversionService )
+                .attributeResolver( attributeResolver( entityClass ) )
+                .compress( compress )
+                .formatVersion( formatVersion )
+                .cursorStore( cursorStore )
+                .cursorStoreSalt( cursorStoreSalt );
+        if ( useAttributeDictionary ) {
+            b.attributeDictionary( AttributeDictionary.of(
+                    requireNonNull( entityManager, "The attribute dictionary requires an EntityManager" ).getMetamodel(),
+                    entityClass ) );
+        }
+    }
+
     private AttributeResolver attributeResolver( final Class<?> entityClass ) {
         return JpaMetamodelAttributeResolver.of( entityManager.getMetamodel(), entityClass );
     }
@@ -0,0 +1,154 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.Builder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Signs serialized data with a (truncated) HMAC-SHA256, as an alternative to the {@link Encrypter} for cursors which
+ * contain nothing secret: the data stays readable, but tampering is detected. Signing is cheaper than encryption and
+ * the cursors are shorter (no nonce).
+ * <p>
+ * A signed cursor consists of the header byte {@value #HEADER}, the data and the tag.
+ */
+@Builder
+@RequiredArgsConstructor
+public class Signer {
+
+    public static final byte HEADER = 0x40;
+    public static final int MIN_TAG_BYTES_LENGTH = 8;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAX_TAG_BYTES_LENGTH = 32;
+    private static final int HEADER_BYTES_LENGTH = 1;
+    static final int DATA_OFFSET = HEADER_BYTES_LENGTH;
+
+    /**
+     * The secret key of the HMAC, should be different from the key of the {@link Encrypter}
+     */
+    private final SecretKey secret;
+
+    /**
+     * The number of bytes of the HMAC appended to the data (at least {@value #MIN_TAG_BYTES_LENGTH}, at most
+     * {@value #MAX_TAG_BYTES_LENGTH})
+     */
+    @Builder.Default
+    private final int tagLength = 16;
+
+    /**
+     * Idle MAC instances, initialized with the secret ({@link Mac#doFinal()} resets a MAC for the next use)
+     */
+    private final Queue<Mac> macs = new ConcurrentLinkedQueue<>();
+
+    public static class SignerBuilder {
+        public SignerBuilder tagLength( final int tagLength ) {
+            if ( tagLength < MIN_TAG_BYTES_LENGTH || tagLength > MAX_TAG_BYTES_LENGTH ) {
+                throw new IllegalArgumentException( "Invalid tag length: %d (must be %d to %d bytes)".formatted(
+                        tagLength, MIN_TAG_BYTES_LENGTH, MAX_TAG_BYTES_LENGTH ) );
+            }
+            this.tagLength$value = tagLength;
+            this.tagLength$set = true;
+            return this;
+        }
+    }
+
+    public byte[] sign( final byte[] data ) {
+        try {
+            final byte[] signed = new byte[HEADER_BYTES_LENGTH + data.length + tagLength];
+            signed[0] = HEADER;
+            System.arraycopy( data, 0, signed, HEADER_BYTES_LENGTH, data.length );
+            final byte[] tag = tag( signed, HEADER_BYTES_LENGTH + data.length );
+            System.arraycopy( tag, 0, signed, signed.length - tagLength, tagLength );
+            return signed;
+        } catch ( final GeneralSecurityException e ) {
+            throw new CryptoException( e );
+        }
+    }
+
+    /**
+     * Verify the tag and get the data of a signed cursor
+     *
+     * @param signed the signed data, as created by {@link #sign(byte[])}
+     * @return the data
+     * @throws CryptoException if the tag does not match
+     */
+    public byte[] verify( final byte[] signed ) {
+        return Arrays.copyOfRange( signed, DATA_OFFSET, DATA_OFFSET + verifiedLength( signed ) );
+    }
+
+    /**
+     * Verify the tag of a signed cursor without copying the data, which starts at {@value #DATA_OFFSET}
+     *
+     * @param signed the signed data, as created by {@link #sign(byte[])}
+     * @return the length of the data
+     * @throws CryptoException if the tag does not match
+     */
+    int verifiedLength( final byte[] signed ) {
+        final int length = signed.length - tagLength;
+        if ( !isSigned( signed ) || length < HEADER_BYTES_LENGTH ) {
+            throw new CryptoException( new IllegalArgumentException( "Not a signed cursor" ) );
+        }
+        try {
+            final byte[] tag = tag( signed, length );
+            // constant time comparison (like MessageDigest.isEqual) of the truncated tag
+            int difference = 0;
+            for ( int i = 0; i < tagLength; i++ ) {
+                difference |= tag[i] ^ signed[length + i];
+            }
+            if ( difference != 0 ) {
+                throw new CryptoException( new IllegalArgumentException( "Invalid signature" ) );
+            }
+        } catch ( final GeneralSecurityException e ) {
+            throw new CryptoException( e );
+        }
+        return length - DATA_OFFSET;
+    }
+
+    /**
+     * Check whether the data has the header of a signed cursor (the first byte of an encrypted cursor may match by
+     * chance)
+     *
+     * @param data the data
+     * @return {@code true} if the data starts with the header of a signed cursor
+     */
+    public static boolean isSigned( final byte[] data ) {
+        return data.length > 0 && data[0] == HEADER;
+    }
+
+    private byte[] tag( final byte[] data, final int length ) throws GeneralSecurityException {
+        Mac mac = macs.poll();
+        if ( mac == null ) {
+            mac = Mac.getInstance( ALGORITHM );
+            mac.init( secret );
+        }
+        mac.update( data, 0, length );
+        final byte[] tag = mac.doFinal();
+        macs.offer( mac );
+        return tag;
+    }
+
+    /**
+     * Get a {@linkplain Signer} instance using the given key, with a tag of 16 bytes
+     *
+     * @param key the secret key, at least 32 bytes
+     * @return a {@linkplain Signer} instance
+     */
+    public static Signer getInstance( final SecretKey key ) {
+        if ( key.getEncoded().length < 32 ) {
+            throw new IllegalArgumentException(
+                    "Invalid key, byte-length (%s) must be at least 32 byte".formatted( key.getEncoded().length ) );
+        }
+        return Signer.builder().secret( key ).build();
+    }
+
+    public static Signer getInstance( final String secret ) {
+        return Signer.getInstance( new SecretKeySpec( secret.getBytes( StandardCharsets.UTF_8 ), ALGORITHM ) );
+    }
+}
@@ -0,0 +1,38 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttributeDictionaryTest {
+
+    private static final List<String> NAMES = List.of( "id", "name", "createdAt", "auditInfo.createdAt",
+            "securityClass.level" );
+
+    @Test
+    void shouldAssignIdsIndependentOfTheOrder() {
+        final AttributeDictionary dictionary = AttributeDictionary.of( NAMES );
+        final AttributeDictionary reversed = AttributeDictionary.of( NAMES.reversed() );
+
+        assertThat( dictionary.size() ).isEqualTo( NAMES.size() );
+        assertThat( dictionary.version() ).isEqualTo( reversed.version() );
+        for ( final String name : NAMES ) {
+            assertThat( dictionary.id( name ) ).isBetween( 1, AttributeDictionary.MAX_ID )
+                    .isEqualTo( reversed.id( name ) );
+            assertThat( dictionary.name( dictionary.id( name ) ) ).isEqualTo( name );
+        }
+        assertThat( dictionary.id( "unknown" ) ).isZero();
+    }
+
+    @Test
+    void shouldKeepIdsWhenAttributesAreAdded() {
+        final AttributeDictionary dictionary = AttributeDictionary.of( NAMES );
+        final AttributeDictionary extended = AttributeDictionary.of(
+                Stream.concat( NAMES.stream(), Stream.of( "status" ) ).toList() );
+
+        assertThat( extended.version() ).isNotEqualTo( dictionary.version() );
+        NAMES.forEach( name -> assertThat( extended.id( name ) ).isEqualTo( dictionary.id( name ) ) );
+    }
+}
@@ -1,7 +1,9 @@
 package io.vigier.cursorpaging.jpa.serializer;
 
+import io.vigier.cursorpaging.jpa.validation.Base64OptionalStringImpl;
 import jakarta.validation.ValidationException;
 import java.util.Base64;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,4 +31,44 @@ class Base64StringTest {
                 .isInstanceOf( ValidationException.class )
                 .hasMessageContaining( "must be a valid Base64 string" );
     }
+
+    @Test
+    void shouldDecodeLikeTheUrlDecoder() {
+        for ( int length = 0; length < 20; length++ ) {
+            final byte[] bytes = new byte[length];
+            for ( int i = 0; i < length; i++ ) {
+                bytes[i] = (byte) (i * 37 - 128);
+            }
+            final String padded = Base64.getUrlEncoder().encodeToString( bytes );
+            if ( !padded.isEmpty() ) {
+                assertThat( new Base64String( padded ).decoded() ).isEqualTo( bytes );
+                assertThat( new Base64String( padded.replace( "=", "" ) ).decoded() ).isEqualTo( bytes );
+            }
+        }
+    }
+
+    @Test
+    void shouldNotAcceptInvalidPadding() {
+        for ( final String invalid : new String[] { "A", "AB=", "A===", "ABCDE", "AB=C", "+/==" } ) {
+            assertThatThrownBy( () -> new Base64String( invalid ) ).as( invalid )
+                    .isInstanceOf( ValidationException.class );
+        }
+    }
+
+    @Test
+    void shouldAcceptWhatTheValidatorAccepts() {
+        final String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString( "cursor".getBytes() );
+        assertThat( new Base64OptionalStringImpl().isValid( Optional.of( cursor ), null ) ).isTrue();
+
+        assertThat( new Base64String( cursor ).decoded() ).isEqualTo( "cursor".getBytes() );
+    }
+
+    @Test
+    void shouldCheckMutableSequencesAgain() {
+        final StringBuilder base64 = new StringBuilder( "QUJD" );
+        assertThat( Base64OptionalStringImpl.decodedLength( base64 ) ).isEqualTo( 3 );
+
+        base64.append( '!' );
+        assertThat( Base64OptionalStringImpl.decodedLength( base64 ) ).isEqualTo( -1 );
+    }
 }
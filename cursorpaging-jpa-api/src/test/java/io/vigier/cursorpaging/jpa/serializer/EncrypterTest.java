@@ -1,11 +1,20 @@
 package io.vigier.cursorpaging.jpa.serializer;
 
+import java.nio.ByteBuffer;
+import java.util.stream.IntStream;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 class EncrypterTest {
 
+    private static final String SECRET = "1234567890ABCDEFGHIJKlmnopqrst--";
+
     @Test
     @SneakyThrows
     void shouldEncrypt() {
@@ -15,4 +24,89 @@ class EncrypterTest {
 
         Assertions.assertEquals( "Hello", new String( decrypted ) );
     }
+
+    @Test
+    void shouldReuseCiphersConcurrently() {
+        final var instance = Encrypter.getInstance( SECRET );
+        IntStream.range( 0, 1000 ).parallel().forEach( i -> {
+            final byte[] data = ("Hello " + i).getBytes();
+            final byte[] encrypted = instance.encrypt( data );
+            Assertions.assertEquals( 1 + Encrypter.IV_BYTES_LENGTH + data.length + 16, encrypted.length );
+            Assertions.assertArrayEquals( data, instance.decrypt( encrypted ) );
+        } );
+    }
+
+    @Test
+    void shouldDecryptAfterFailedDecryption() {
+        final var instance = Encrypter.getInstance();
+        final var encrypted = instance.encrypt( "Hello".getBytes() );
+        final var tampered = encrypted.clone();
+        tampered[0] ^= 1;
+
+        Assertions.assertThrows( CryptoException.class, () -> instance.decrypt( tampered ) );
+        Assertions.assertThrows( CryptoException.class, () -> instance.decrypt( new byte[4] ) );
+        Assertions.assertEquals( "Hello", new String( instance.decrypt( encrypted ) ) );
+        Assertions.assertEquals( "", new String( instance.decrypt( instance.encrypt( new byte[0] ) ) ) );
+    }
+
+    @ParameterizedTest
+    @EnumSource( CipherSuite.class )
+    void shouldDecryptCursorsOfAllSuites( final CipherSuite suite ) {
+        final SecretKey key = Encrypter.getKey( SECRET );
+        final var instance = Encrypter.builder().secret( key ).cipherSuite( suite ).build();
+        final var other = Encrypter.builder().secret( key ).cipherSuite( CipherSuite.CHACHA20_POLY1305 ).build();
+
+        final byte[] encrypted = instance.encrypt( "Hello".getBytes() );
+        Assertions.assertEquals( suite.getId(), encrypted[0] );
+        Assertions.assertEquals( "Hello", new String( other.decrypt( encrypted ) ) );
+
+        // the suite id is authenticated
+        encrypted[0] = suite == CipherSuite.AES_256_GCM ? CipherSuite.CHACHA20_POLY1305.getId()
+                : CipherSuite.AES_256_GCM.getId();
+        Assertions.assertThrows( CryptoException.class, () -> other.decrypt( encrypted ) );
+    }
+
+    @ParameterizedTest
+    @EnumSource( CipherSuite.class )
+    void shouldDecryptInPlace( final CipherSuite suite ) {
+        final var instance = Encrypter.builder().secret( Encrypter.getKey( SECRET ) ).cipherSuite( suite ).build();
+        final byte[] encrypted = instance.encrypt( "Hello".getBytes() );
+
+        final int length = instance.decryptInPlace( encrypted );
+        Assertions.assertEquals( "Hello", new String( encrypted, 0, length ) );
+        Assertions.assertThrows( CryptoException.class, () -> instance.decryptInPlace( new byte[4] ) );
+        Assertions.assertThrows( CryptoException.class, () -> instance.decryptInPlace( new byte[40] ) );
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldDecryptLegacyCursors() {
+        final SecretKey key = Encrypter.getKey( SECRET );
+        final byte[] iv = new byte[Encrypter.IV_BYTES_LENGTH];
+        final var cipher = Cipher.getInstance( "ChaCha20-Poly1305" );
+        cipher.init( Cipher.ENCRYPT_MODE, key, new IvParameterSpec( iv ) );
+        final byte[] legacy = ByteBuffer.allocate( 5 + 16 + iv.length )
+                .put( cipher.doFinal( "Hello".getBytes() ) )
+                .put( iv )
+                .array();
+
+        Assertions.assertEquals( "Hello", new String( Encrypter.getInstance( key ).decrypt( legacy ) ) );
+        final var strict = Encrypter.builder().secret( key ).decryptLegacy( false ).build();
+        Assertions.assertThrows( CryptoException.class, () -> strict.decrypt( legacy ) );
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldEncryptLegacyCursors() {
+        final SecretKey key = Encrypter.getKey( SECRET );
+        final var legacy = Encrypter.builder().secret( key ).encryptLegacy( true ).decryptLegacy( false ).build();
+        final byte[] encrypted = legacy.encrypt( "Hello".getBytes() );
+
+        final int length = encrypted.length - Encrypter.IV_BYTES_LENGTH;
+        final var cipher = Cipher.getInstance( "ChaCha20-Poly1305" );
+        cipher.init( Cipher.DECRYPT_MODE, key, new IvParameterSpec( encrypted, length, Encrypter.IV_BYTES_LENGTH ) );
+        Assertions.assertEquals( "Hello", new String( cipher.doFinal( encrypted, 0, length ) ) );
+        Assertions.assertEquals( "Hello", new String( legacy.decrypt( encrypted ) ) );
+        Assertions.assertEquals( "Hello", new String( Encrypter.getInstance( key ).decrypt( encrypted ) ) );
+    }
 }
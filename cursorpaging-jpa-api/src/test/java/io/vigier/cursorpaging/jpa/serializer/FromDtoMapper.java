@@ -1,5 +1,6 @@
 package io.vigier.cursorpaging.jpa.serializer;
 
+import com.google.protobuf.ByteString;
 import io.vigier.cursorpaging.jpa.Attribute;
 import io.vigier.cursorpaging.jpa.AttributeResolver;
 import io.vigier.cursorpaging.jpa.Filter;
@@ -14,40 +15,38 @@ import io.vigier.cursorpaging.jpa.filter.FilterType;
 import io.vigier.cursorpaging.jpa.filter.OrFilter;
 import io.vigier.cursorpaging.jpa.serializer.dto.Cursor;
 import io.vigier.cursorpaging.jpa.serializer.dto.Cursor.Value;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Consumer;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.Nullable;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.ConverterNotFoundException;
 
+/**
+ * Maps the generated {@link Cursor.PageRequest} message to a {@link PageRequest}. Not used by the serializer any more
+ * (see {@link CursorReader}), kept as the reference the decoded requests are compared with.
+ */
 @Slf4j
 @Builder
 @RequiredArgsConstructor( staticName = "of" )
 class FromDtoMapper<E> {
 
-    private static final Map<Cursor.FilterType, FilterType> FILTER_TYPE_MAP = Map.of( //
-            Cursor.FilterType.EQ, FilterType.EQUAL_TO, //
-            Cursor.FilterType.GT, FilterType.GREATER_THAN, //
-            Cursor.FilterType.LT, FilterType.LESS_THAN, //
-            Cursor.FilterType.LIKE, FilterType.LIKE, //
-            Cursor.FilterType.GE, FilterType.GREATER_THAN_OR_EQUAL_TO, //
-            Cursor.FilterType.LE, FilterType.LESS_THAN_OR_EQUAL_TO, //
-            Cursor.FilterType.UNRECOGNIZED, FilterType.EQUAL_TO, //
-            Cursor.FilterType.ALWAYS, FilterType.ALWAYS //
-    );
-
     private final Cursor.PageRequest request;
     @Builder.Default
     private final Map<String, Attribute> attributesByName = new HashMap<>();
     private final ConversionService conversionService;
     private final Map<String, RuleFactory> ruleFactories;
     private final AttributeResolver attributeResolver;
+    @Nullable
+    private final AttributeDictionary attributeDictionary;
 
     public static <T> FromDtoMapper<T> create( final Consumer<FromDtoMapperBuilder<T>> c ) {
         final var builder = FromDtoMapper.<T>builder();
@@ -123,7 +122,7 @@ class FromDtoMapper<E> {
     }
 
     private FilterType getFilterType( final Cursor.Filter dto ) {
-        return FILTER_TYPE_MAP.get( dto.getType() );
+        return CursorReader.FILTER_TYPE_MAP.get( dto.getType() );
     }
 
     private List<? extends Comparable<?>> valueListOf( final Attribute attribute,
@@ -140,21 +139,60 @@ class FromDtoMapper<E> {
     }
 
     private <T extends Comparable<? super T>> T valueOf( final Attribute attribute, final Cursor.Value value ) {
+        if ( value.getTypedCase() != Cursor.Value.TypedCase.TYPED_NOT_SET ) {
+            return convert( attribute, typedValueOf( value ) );
+        }
         if ( value.getValue()
                 .isEmpty() ) {
             return null;
         }
+        return convert( attribute, value.getValue() );
+    }
+
+    /**
+     * Value of format v2, converted by the codec only if the attribute has another type (e.g. an {@code Integer} stored as
+     * {@code sint64})
+     */
+    private static Object typedValueOf( final Cursor.Value value ) {
+        return switch ( value.getTypedCase() ) {
+            case INT_VALUE -> value.getIntValue();
+            case DOUBLE_VALUE -> value.getDoubleValue();
+            case BOOL_VALUE -> value.getBoolValue();
+            case UUID_VALUE -> uuidOf( value.getUuidValue() );
+            case TIMESTAMP_VALUE -> Instant.ofEpochSecond( value.getTimestampValue()
+                    .getSeconds(), value.getTimestampValue()
+                    .getNanos() );
+            case BYTES_VALUE -> value.getBytesValue()
+                    .toByteArray();
+            case STRING_VALUE -> value.getStringValue();
+            case TYPED_NOT_SET -> throw new IllegalArgumentException( "Not a typed value" );
+        };
+    }
+
+    private <T extends Comparable<? super T>> T convert( final Attribute attribute, final Object value ) {
         try {
-            return conversionService.<T>convert( value.getValue(), attribute.type() );
+            return attribute.<T>codec().convert( value, conversionService );
         } catch ( final ConverterNotFoundException e ) {
             throw new SerializerException(
-                    "Cannot convert value: '%s' (type: %s) to type: '%s' for attribute: %s".formatted( value.getValue(),
-                            value.getValue()
-                                    .getClass()
+                    "Cannot convert value: '%s' (type: %s) to type: '%s' for attribute: %s".formatted( value,
+                            value.getClass()
                                     .getName(), attribute.type(), attribute.name() ), e );
         }
     }
 
+    private static UUID uuidOf( final ByteString bytes ) {
+        if ( bytes.size() != 16 ) {
+            throw new SerializerException( "Invalid UUID value of length: " + bytes.size() );
+        }
+        long msb = 0;
+        long lsb = 0;
+        for ( int i = 0; i < 8; i++ ) {
+            msb = (msb << 8) | (bytes.byteAt( i ) & 0xff);
+            lsb = (lsb << 8) | (bytes.byteAt( 8 + i ) & 0xff);
+        }
+        return new UUID( msb, lsb );
+    }
+
     private Position positionOf( final Cursor.Position position ) {
         final var attribute = attributeOf( position.getAttribute() );
 
@@ -170,11 +208,23 @@ class FromDtoMapper<E> {
     }
 
     private Attribute attributeOf( final Cursor.Attribute attribute ) {
-        final var resolved = attributesByName.computeIfAbsent( attribute.getName(), attributeResolver::resolve );
+        final String name = attribute.getId() != 0 ? nameOf( attribute.getId() ) : attribute.getName();
+        final var resolved = attributesByName.computeIfAbsent( name, attributeResolver::resolve );
         if ( resolved == null ) {
-            throw new SerializerException( "No attribute found for name: " + attribute.getName() );
+            throw new SerializerException( "No attribute found for name: " + name );
         }
         return resolved;
     }
 
+    private String nameOf( final int id ) {
+        final String name = attributeDictionary != null ? attributeDictionary.name( id ) : null;
+        if ( name == null ) {
+            throw new SerializerException(
+                    "Unknown attribute id: %d (dictionary of the cursor: %08x, of the serializer: %s)".formatted( id,
+                            request.getDictionary(), attributeDictionary != null ? "%08x".formatted(
+                                    attributeDictionary.version() ) : "none" ) );
+        }
+        return name;
+    }
+
 }
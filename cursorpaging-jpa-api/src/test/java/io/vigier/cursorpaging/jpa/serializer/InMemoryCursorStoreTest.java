@@ -0,0 +1,46 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryCursorStoreTest {
+
+    private static final byte[] REQUEST = { 1, 2, 3 };
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void shouldExpireRequestsNotUsedWithinTimeToLive() {
+        final var store = InMemoryCursorStore.create( b -> b.timeToLive( Duration.ofMinutes( 10 ) ).clock( clock ) );
+        store.put( "a", REQUEST );
+        store.put( "b", REQUEST );
+
+        clock.advance( Duration.ofMinutes( 6 ) );
+        assertThat( store.get( "a" ) ).isEqualTo( REQUEST );
+        clock.advance( Duration.ofMinutes( 6 ) );
+
+        assertThat( store.get( "a" ) ).isEqualTo( REQUEST );
+        assertThat( store.get( "b" ) ).isNull();
+        assertThat( store.get( "unknown" ) ).isNull();
+    }
+
+    @Test
+    void shouldRemoveExpiredAndLeastRecentlyUsedRequests() {
+        final var store = InMemoryCursorStore.create( b -> b.maximumSize( 2 )
+                .timeToLive( Duration.ofMinutes( 10 ) )
+                .clock( clock ) );
+        store.put( "a", REQUEST );
+        store.put( "b", REQUEST );
+        store.get( "a" );
+        store.put( "c", REQUEST );
+
+        assertThat( store.get( "b" ) ).isNull();
+        assertThat( store.size() ).isEqualTo( 2 );
+
+        clock.advance( Duration.ofMinutes( 11 ) );
+        store.cleanup();
+        assertThat( store.size() ).isZero();
+    }
+}
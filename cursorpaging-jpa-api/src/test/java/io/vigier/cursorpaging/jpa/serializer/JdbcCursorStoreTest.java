@@ -0,0 +1,143 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdbcCursorStoreTest {
+
+    private static final byte[] REQUEST = { 1, 2, 3 };
+
+    private final MutableClock clock = new MutableClock();
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL( "jdbc:h2:mem:cursors;MODE=PostgreSQL;DB_CLOSE_DELAY=-1" );
+        try ( final Connection connection = dataSource.getConnection();
+                final Statement statement = connection.createStatement() ) {
+            statement.execute( "drop table if exists cursor_store" );
+            statement.execute(
+                    "create table cursor_store (id varchar(32) primary key, request varbinary not null, expires_at bigint not null)" );
+        }
+    }
+
+    @Test
+    void shouldStoreAndExtendRequests() {
+        final var store = JdbcCursorStore.create( b -> b.dataSource( dataSource )
+                .timeToLive( Duration.ofMinutes( 10 ) )
+                .clock( clock ) );
+        store.put( "a", REQUEST );
+        store.put( "a", REQUEST );
+        store.put( "b", REQUEST );
+
+        clock.advance( Duration.ofMinutes( 6 ) );
+        assertThat( store.get( "a" ) ).isEqualTo( REQUEST );
+        clock.advance( Duration.ofMinutes( 6 ) );
+
+        assertThat( store.get( "a" ) ).isEqualTo( REQUEST );
+        assertThat( store.get( "b" ) ).isNull();
+        assertThat( store.get( "unknown" ) ).isNull();
+    }
+
+    @Test
+    void shouldNotExtendRequestsStoredAgainWithinHalfTheTimeToLive() throws SQLException {
+        final var store = JdbcCursorStore.create( b -> b.dataSource( dataSource )
+                .timeToLive( Duration.ofMinutes( 10 ) )
+                .clock( clock ) );
+        store.put( "a", REQUEST );
+        final long expiresAt = expiresAt( "a" );
+
+        clock.advance( Duration.ofMinutes( 4 ) );
+        store.put( "a", REQUEST );
+        assertThat( expiresAt( "a" ) ).isEqualTo( expiresAt );
+
+        clock.advance( Duration.ofMinutes( 2 ) );
+        store.put( "a", REQUEST );
+        assertThat( expiresAt( "a" ) ).isEqualTo( expiresAt + Duration.ofMinutes( 6 ).toMillis() );
+    }
+
+    @Test
+    void shouldCommitWithoutAutoCommit() throws SQLException {
+        final DataSource manualCommit = manualCommit( dataSource );
+        final var store = JdbcCursorStore.create( b -> b.dataSource( manualCommit )
+                .timeToLive( Duration.ofMinutes( 10 ) )
+                .clock( clock ) );
+        store.put( "a", REQUEST );
+        store.put( "b", REQUEST );
+        store.put( "b", REQUEST );
+
+        assertThat( store.get( "a" ) ).isEqualTo( REQUEST );
+        clock.advance( Duration.ofMinutes( 11 ) );
+        assertThat( store.cleanup() ).isEqualTo( 2 );
+        try ( final Connection connection = dataSource.getConnection();
+                final Statement statement = connection.createStatement();
+                final ResultSet rs = statement.executeQuery( "select count(*) from cursor_store" ) ) {
+            rs.next();
+            assertThat( rs.getInt( 1 ) ).isZero();
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidTableNames() {
+        assertThat( JdbcCursorStore.builder().tableName( "cursors.cursor_store" ) ).isNotNull();
+        assertThatThrownBy( () -> JdbcCursorStore.builder().tableName( "cursor_store; drop table users" ) )
+                .isInstanceOf( IllegalArgumentException.class );
+    }
+
+    @Test
+    void shouldDeleteExpiredRequestsInBatches() {
+        final var store = JdbcCursorStore.create( b -> b.dataSource( dataSource )
+                .timeToLive( Duration.ofMinutes( 10 ) )
+                .cleanupBatchSize( 3 )
+                .clock( clock ) );
+        for ( int i = 0; i < 7; i++ ) {
+            store.put( "id-" + i, REQUEST );
+        }
+        clock.advance( Duration.ofMinutes( 5 ) );
+        store.put( "fresh", REQUEST );
+        clock.advance( Duration.ofMinutes( 6 ) );
+        store.put( "late", REQUEST );
+
+        assertThat( store.cleanup() ).isEqualTo( 7 );
+        assertThat( store.get( "fresh" ) ).isEqualTo( REQUEST );
+    }
+
+    /**
+     * A data source like a pool configured with {@code auto-commit=false}: uncommitted changes are rolled back on close
+     */
+    private static DataSource manualCommit( final DataSource dataSource ) {
+        return (DataSource) Proxy.newProxyInstance( DataSource.class.getClassLoader(),
+                new Class<?>[] { DataSource.class }, ( proxy, method, args ) -> {
+                    final Object result = method.invoke( dataSource, args );
+                    if ( result instanceof final Connection connection ) {
+                        connection.setAutoCommit( false );
+                    }
+                    return result;
+                } );
+    }
+
+    private long expiresAt( final String id ) throws SQLException {
+        try ( final Connection connection = dataSource.getConnection();
+                final PreparedStatement select = connection.prepareStatement(
+                        "select expires_at from cursor_store where id = ?" ) ) {
+            select.setString( 1, id );
+            try ( final ResultSet rs = select.executeQuery() ) {
+                rs.next();
+                return rs.getLong( 1 );
+            }
+        }
+    }
+}
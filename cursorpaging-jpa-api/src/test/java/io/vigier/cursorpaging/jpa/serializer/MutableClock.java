@@ -0,0 +1,34 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A clock for tests, which only moves when advanced
+ */
+class MutableClock extends Clock {
+
+    private Instant instant = Instant.parse( "2024-01-01T00:00:00Z" );
+
+    void advance( final Duration duration ) {
+        instant = instant.plus( duration );
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone( final ZoneId zone ) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
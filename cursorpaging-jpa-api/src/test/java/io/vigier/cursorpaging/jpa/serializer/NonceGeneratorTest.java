@@ -0,0 +1,49 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NonceGeneratorTest {
+
+    @Test
+    void shouldGenerateUniqueNoncesConcurrently() {
+        final NonceGenerator generator = NonceGenerator.counter();
+        final Set<ByteBuffer> nonces = ConcurrentHashMap.newKeySet();
+        IntStream.range( 0, 10_000 ).parallel().forEach( _ -> {
+            final byte[] nonce = new byte[Encrypter.IV_BYTES_LENGTH];
+            generator.next( nonce );
+            nonces.add( ByteBuffer.wrap( nonce ) );
+        } );
+        assertThat( nonces ).hasSize( 10_000 );
+    }
+
+    @Test
+    void shouldIncrementCounterAfterRandomPrefix() {
+        final NonceGenerator generator = NonceGenerator.counter();
+        final byte[] first = new byte[Encrypter.IV_BYTES_LENGTH];
+        final byte[] second = new byte[Encrypter.IV_BYTES_LENGTH];
+        generator.next( first );
+        generator.next( second );
+
+        assertThat( Arrays.copyOf( second, 4 ) ).isEqualTo( Arrays.copyOf( first, 4 ) );
+        assertThat( ByteBuffer.wrap( second, 4, 8 ).getLong() - ByteBuffer.wrap( first, 4, 8 ).getLong() ).isOne();
+    }
+
+    @Test
+    void shouldEncryptWithRandomGenerator() {
+        final var encrypter = Encrypter.builder()
+                .secret( Encrypter.getKey( "1234567890ABCDEFGHIJKlmnopqrst--" ) )
+                .randomGenerator( new Random( 42 ) )
+                .build();
+        final var other = Encrypter.getInstance( "1234567890ABCDEFGHIJKlmnopqrst--" );
+
+        assertThat( other.decrypt( encrypter.encrypt( "Hello".getBytes() ) ) ).asString().isEqualTo( "Hello" );
+    }
+}
@@ -10,13 +10,26 @@ import io.vigier.cursorpaging.jpa.PageRequest;
 import io.vigier.cursorpaging.jpa.Position;
 import io.vigier.cursorpaging.jpa.QueryBuilder;
 import io.vigier.cursorpaging.jpa.SingleAttribute;
+import io.vigier.cursorpaging.jpa.cache.CacheStats;
+import io.vigier.cursorpaging.jpa.cache.LruCache;
+import io.vigier.cursorpaging.jpa.filter.FilterList;
 import io.vigier.cursorpaging.jpa.filter.FilterType;
+import io.vigier.cursorpaging.jpa.memory.InMemoryCursorPageRepository;
+import io.vigier.cursorpaging.jpa.serializer.dto.Cursor;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.metamodel.SingularAttribute;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
 import lombok.Data;
+import lombok.SneakyThrows;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.BeforeAll;
@@ -29,9 +42,8 @@ import org.springframework.core.convert.ConversionService;
 
 import static io.vigier.cursorpaging.jpa.Filters.attribute;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith( MockitoExtension.class )
@@ -195,6 +207,368 @@ class SerializerTest {
                 } );
     }
 
+    @Test
+    void shouldServeRepeatedCursorsFromCache() {
+        final PageRequest<TestEntity> request = PageRequest.create( r -> r.asc( TestEntity_.id )
+                .pageSize( 42 ) );
+        final var requestSerializer = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.id ) ).cacheCursors( 10 ) );
+        final Base64String cursor = requestSerializer.toBase64( request );
+
+        final PageRequest<TestEntity> first = requestSerializer.toPageRequest( cursor );
+        assertThat( requestSerializer.stringToPageRequest( cursor.toString() ) ).containsSame( first );
+        assertThat( requestSerializer.toPageRequest( cursor ) ).isSameAs( first ).isEqualTo( request );
+        assertThat( requestSerializer.cursorCacheStats() ).isEqualTo( new CacheStats( 2, 1, 0, 1 ) );
+
+        Assertions.assertThatThrownBy( () -> requestSerializer.stringToPageRequest( "AAAA" + cursor ) )
+                .isInstanceOf( CryptoException.class );
+        assertThat( requestSerializer.cursorCacheStats().size() ).isEqualTo( 1 );
+    }
+
+    @Test
+    void shouldSignCursorsInsteadOfEncrypting() {
+        final PageRequest<TestEntity> request = PageRequest.create( r -> r.asc( TestEntity_.name )
+                .pageSize( 42 ) );
+        final Encrypter encrypter = Encrypter.getInstance();
+        final var encrypting = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) ).encrypter( encrypter ) );
+        final var signing = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) ).encrypter( encrypter )
+                        .signer( Signer.getInstance( "abcdefghijklmnopqrstuvwxyz123456" ) ) );
+
+        final Base64String signed = signing.toBase64( request );
+        final Base64String encrypted = encrypting.toBase64( request );
+        assertThat( signed.length() ).isLessThan( encrypted.length() );
+        assertThat( signing.toPageRequest( signed ) ).isEqualTo( request );
+        assertThat( signing.toPageRequest( encrypted ) ).isEqualTo( request );
+
+        final byte[] tampered = signed.decoded();
+        tampered[tampered.length - 1] ^= 1;
+        Assertions.assertThatThrownBy( () -> signing.toPageRequest( tampered ) )
+                .isInstanceOf( CryptoException.class );
+        Assertions.assertThatThrownBy( () -> encrypting.toPageRequest( signed ) )
+                .isInstanceOf( CryptoException.class );
+    }
+
+    @Test
+    void shouldStoreAttributeIdsAndCompress() {
+        final List<String> names = new ArrayList<>();
+        for ( int i = 0; i < 50; i++ ) {
+            names.add( "Name-" + i );
+        }
+        final PageRequest<TestEntity> request = PageRequest.create( r -> r.asc( TestEntity_.name )
+                .filter( attribute( TestEntity_.name ).in( names.toArray( new String[0] ) ) ) );
+        final AttributeDictionary dictionary = AttributeDictionary.of( List.of( "id", "name" ) );
+        final Encrypter encrypter = Encrypter.getInstance();
+        final var plain = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) ).encrypter( encrypter ) );
+        final var compact = RequestSerializer.create( TestEntity.class, b -> b.use( Attribute.of( TestEntity_.name ) )
+                .encrypter( encrypter )
+                .attributeDictionary( dictionary )
+                .compress( true ) );
+
+        final byte[] bytes = compact.toBytes( request );
+        assertThat( bytes.length ).isLessThan( plain.toBytes( request ).length / 2 );
+        assertThat( compact.toPageRequest( bytes ) ).isEqualTo( request );
+        assertThat( plain.toPageRequest( plain.toBytes( request ) ) ).isEqualTo( request );
+        Assertions.assertThatThrownBy( () -> plain.toPageRequest( bytes ) )
+                .isInstanceOf( SerializerException.class )
+                .hasMessageContaining( "Unknown attribute id" );
+        Assertions.assertThatThrownBy( () -> RequestSerializer.create( TestEntity.class,
+                        b -> b.encrypter( encrypter ).attributeDictionary( AttributeDictionary.of( List.of( "id" ) ) ) )
+                        .toPageRequest( bytes ) )
+                .isInstanceOf( SerializerException.class )
+                .hasMessageContaining( "%08x".formatted( dictionary.version() ) );
+    }
+
+    @Test
+    void shouldRejectCursorsOfAnotherDictionaryVersion() {
+        final AttributeDictionary before = AttributeDictionary.of( List.of( "id", "name" ) );
+        // an attribute of the changed entity, which got the id of "name"
+        String renamed = null;
+        for ( int i = 0; renamed == null; i++ ) {
+            final String candidate = "attribute" + i;
+            if ( AttributeDictionary.of( List.of( candidate ) ).id( candidate ) == before.id( "name" ) ) {
+                renamed = candidate;
+            }
+        }
+        final AttributeDictionary after = AttributeDictionary.of( List.of( "id", renamed ) );
+        final Encrypter encrypter = Encrypter.getInstance();
+        final PageRequest<TestEntity> request = PageRequest.create( r -> r.asc( TestEntity_.name )
+                .filter( attribute( TestEntity_.name ).equalTo( "Alpha" ) ) );
+        final Attribute renamedAttribute = Attribute.of( renamed, String.class );
+        final byte[] bytes = RequestSerializer.create( TestEntity.class, b -> b.encrypter( encrypter )
+                .attributeDictionary( before ) ).toBytes( request );
+
+        assertThat( after.id( renamed ) ).isEqualTo( before.id( "name" ) );
+        Assertions.assertThatThrownBy( () -> RequestSerializer.create( TestEntity.class, b -> b.encrypter( encrypter )
+                        .use( renamedAttribute )
+                        .attributeDictionary( after ) ).toPageRequest( bytes ) )
+                .isInstanceOf( SerializerException.class )
+                .hasMessageContaining( "another attribute dictionary" )
+                .hasMessageContaining( "%08x".formatted( before.version() ) );
+    }
+
+    @Test
+    void shouldNotCompressWhenItDoesNotSaveBytes() {
+        final byte[] payload = { 0x08, 0x2a };
+        assertThat( Compression.compress( payload ) ).isSameAs( payload );
+
+        final byte[] bomb = Compression.compress( new byte[Compression.MAX_INFLATED_LENGTH + 1] );
+        assertThat( Compression.isCompressed( bomb ) ).isTrue();
+        Assertions.assertThatThrownBy( () -> Compression.decompress( bomb ) )
+                .isInstanceOf( SerializerException.class );
+    }
+
+    @Test
+    void shouldReferenceStoredRequests() {
+        final PageRequest<TestEntity> request = PageRequest.create( r -> r.asc( TestEntity_.name )
+                .filter( attribute( TestEntity_.name ).in( "Alpha", "Bravo", "Charlie", "Delta" ) ) );
+        final var store = InMemoryCursorStore.create( b -> {} );
+        final var serializer = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) ).cursorStore( store ) );
+
+        final Base64String cursor = serializer.toBase64( request );
+        assertThat( cursor.length() ).isEqualTo( 23 );
+        assertThat( serializer.toBase64( request ).toString() ).isEqualTo( cursor.toString() );
+        assertThat( serializer.toPageRequest( cursor ) ).isEqualTo( request );
+        assertThat( store.size() ).isEqualTo( 1 );
+
+        final byte[] unknown = cursor.decoded();
+        unknown[1] ^= 1;
+        Assertions.assertThatThrownBy( () -> serializer.toPageRequest( unknown ) )
+                .isInstanceOf( SerializerException.class )
+                .hasMessageContaining( "expired" );
+    }
+
+    @Test
+    void shouldShareStoredIdsOfInstancesWithTheSameKeyOrSalt() {
+        final PageRequest<TestEntity> request = PageRequest.create( r -> r.asc( TestEntity_.name ) );
+        final var store = InMemoryCursorStore.create( b -> {} );
+        final Encrypter encrypter = Encrypter.getInstance();
+        final RequestSerializer.RequestSerializerCreator<TestEntity> creator = RequestSerializer.create(
+                TestEntity.class );
+
+        final String cursor = creator.apply( b -> b.encrypter( encrypter ).cursorStore( store ) )
+                .toBase64( request )
+                .toString();
+        assertThat( creator.apply( b -> b.encrypter( encrypter ).cursorStore( store ) ).toBase64( request ) )
+                .hasToString( cursor );
+        assertThat( creator.apply( b -> b.cursorStore( store ) ).toBase64( request ) ).doesNotHaveToString( cursor );
+
+        final byte[] salt = { 1, 2, 3, 4 };
+        assertThat( creator.apply( b -> b.cursorStoreSalt( salt ).cursorStore( store ) ).toBase64( request ) )
+                .hasToString( creator.apply( b -> b.cursorStoreSalt( salt ).cursorStore( store ) )
+                        .toBase64( request )
+                        .toString() );
+    }
+
+    @Test
+    void shouldNotCacheStoredRequests() {
+        final PageRequest<TestEntity> request = PageRequest.create( r -> r.asc( TestEntity_.name ) );
+        final MutableClock clock = new MutableClock();
+        final var store = InMemoryCursorStore.create( b -> b.timeToLive( Duration.ofMinutes( 10 ) ).clock( clock ) );
+        final var serializer = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) ).cursorStore( store ).cacheCursors( 10 ) );
+
+        final String cursor = serializer.toBase64( request ).toString();
+        assertThat( serializer.stringToPageRequest( cursor ) ).contains( request );
+        assertThat( serializer.stringToPageRequest( cursor ) ).contains( request );
+        assertThat( serializer.cursorCacheStats().hits() ).isZero();
+
+        clock.advance( Duration.ofMinutes( 11 ) );
+        Assertions.assertThatThrownBy( () -> serializer.stringToPageRequest( cursor ) )
+                .isInstanceOf( SerializerException.class )
+                .hasMessageContaining( "expired" );
+    }
+
+    @Test
+    void shouldReuseEncodedFiltersOfSameFilterList() {
+        final PageRequest<TestEntity> self = PageRequest.create( r -> r.asc( TestEntity_.name )
+                .filter( attribute( TestEntity_.name ).in( "Alpha", "Bravo" ) ) );
+        final PageRequest<TestEntity> next = self.copy( r -> r.positions( List.of( Position.create(
+                p -> p.attribute( Attribute.of( TestEntity_.name ) ).order( Order.ASC ).value( "Bravo" ) ) ) ) );
+        final LruCache<FilterList, byte[]> filterCache = new LruCache<>( 10 );
+
+        for ( final PageRequest<TestEntity> request : List.of( self, next ) ) {
+            final byte[] bytes = CursorWriter.<TestEntity>create( c -> c.pageRequest( request ) ).toBytes( filterCache );
+            assertThat( bytes ).isEqualTo( ToDtoMapper.<TestEntity>create( c -> c.pageRequest( request ) )
+                    .map()
+                    .toByteArray() );
+        }
+        assertThat( filterCache.stats() ).isEqualTo( new CacheStats( 1, 1, 0, 1 ) );
+        assertThat( serializeAndDeserialize( next ) ).isEqualTo( next );
+    }
+
+    enum Color {
+        RED, GREEN
+    }
+
+    @Test
+    void shouldWriteSameBytesAsTheMessage() {
+        final var name = "rule-name";
+        final List<Comparable<?>> values = List.of( UUID.randomUUID(), Instant.ofEpochSecond( -5L, 7 ), Instant.EPOCH,
+                42, -7L, (short) 3, (byte) 0, 0.5d, 1.5f, 0.0d, true, false, Color.GREEN, "Text", "", "ÄÖÜ ✓",
+                new ValueClass( "value" ) );
+        final Attribute attribute = Attribute.of( "name", String.class );
+        final PageRequest<TestEntity> request = PageRequest.create( b -> b.desc( TestEntity_.name )
+                .asc( TestEntity_.id )
+                .pageSize( 300 )
+                .enableTotalCount( true )
+                .totalCount( 123_456L )
+                .filter( Filters.or( attribute( TestEntity_.name ).in( "a", "b" ),
+                        Filters.and( attribute( TestEntity_.id ).greaterThan( 7L ) ),
+                        newTestRule( name, Map.of( "p", List.of( "1", "" ), "", List.of() ) ) ) )
+                .filter( new Filter( attribute, FilterType.EQUAL_TO, values ) ) );
+
+        for ( final AttributeDictionary dictionary : new AttributeDictionary[] { null,
+                AttributeDictionary.of( List.of( "id", "name" ) ) } ) {
+            final byte[] expected = ToDtoMapper.<TestEntity>create(
+                    c -> c.pageRequest( request ).attributeDictionary( dictionary ) ).map().toByteArray();
+            final CursorWriter<TestEntity> writer = CursorWriter.create(
+                    c -> c.pageRequest( request ).attributeDictionary( dictionary ) );
+
+            assertThat( writer.toBytes() ).isEqualTo( expected );
+            assertThat( writer.toBytes( new LruCache<>( 1 ) ) ).isEqualTo( expected );
+        }
+    }
+
+    @Test
+    void shouldSerializeTypedValues() {
+        final UUID uuid = UUID.randomUUID();
+        final Instant instant = Instant.ofEpochSecond( 1_700_000_000L, 123_456_789 );
+        final List<Attribute> attributes = List.of( Attribute.of( "uuid", UUID.class ),
+                Attribute.of( "instant", Instant.class ), Attribute.of( "integer", Integer.class ),
+                Attribute.of( "long", Long.class ), Attribute.of( "double", Double.class ),
+                Attribute.of( "bool", Boolean.class ), Attribute.of( "color", Color.class ),
+                Attribute.of( "text", String.class ) );
+        final List<Comparable<?>> values = List.of( uuid, instant, 42, -7L, 0.5d, true, Color.GREEN, "Text" );
+        final PageRequest<TestEntity> request = PageRequest.create( b -> {
+            for ( int i = 0; i < attributes.size(); i++ ) {
+                final int index = i;
+                b.filter( Filter.create( f -> f.attribute( attributes.get( index ) ).equalTo( values.get( index ) ) ) );
+            }
+            b.position( Position.create( p -> p.order( Order.ASC ).attribute( attributes.getFirst() ).value( uuid ) ) );
+        } );
+
+        final RequestSerializer<TestEntity> serializer = RequestSerializer.create( TestEntity.class, b -> {
+            attributes.forEach( b::use );
+            b.conversionService( RequestSerializer.getConversionService() );
+        } );
+        final byte[] bytes = serializer.toBytes( request );
+
+        assertThat( serializer.toPageRequest( bytes ) ).isEqualTo( request );
+        final Cursor.PageRequest dto = ToDtoMapper.<TestEntity>create( c -> c.pageRequest( request ) ).map();
+        assertThat( dto.getVersion() ).isEqualTo( 2 );
+        assertThat( dto.getPositions( 0 ).getValue().getUuidValue().size() ).isEqualTo( 16 );
+        assertThat( dto.getPositions( 0 ).getNextValue().getTypedCase() ).isEqualTo(
+                Cursor.Value.TypedCase.TYPED_NOT_SET );
+    }
+
+    @Test
+    void shouldDeserializeStringValuesOfVersion1() {
+        final UUID uuid = UUID.randomUUID();
+        final Cursor.PageRequest v1 = Cursor.PageRequest.newBuilder()
+                .setPageSize( 10 )
+                .addPositions( Cursor.Position.newBuilder()
+                        .setAttribute( Cursor.Attribute.newBuilder().setName( "uuid" ) )
+                        .setValue( Cursor.Value.newBuilder().setValue( uuid.toString() ) )
+                        .setNextValue( Cursor.Value.newBuilder().setValue( "" ) ) )
+                .setFilters( Cursor.FilterList.newBuilder()
+                        .addFilters( Cursor.Filter.newBuilder()
+                                .setAttribute( Cursor.Attribute.newBuilder().setName( "time" ) )
+                                .addValues( Cursor.Value.newBuilder().setValue( "2024-01-02T03:04:05.000000006Z" ) ) ) )
+                .build();
+
+        final PageRequest<TestEntity> request = FromDtoMapper.<TestEntity>create( b -> b.request( v1 )
+                .conversionService( RequestSerializer.getConversionService() )
+                .ruleFactories( Map.of() )
+                .attributesByName( new HashMap<>( Map.of( "uuid", Attribute.of( "uuid", UUID.class ), "time",
+                        Attribute.of( "time", Instant.class ) ) ) )
+                .attributeResolver( name -> null ) ).map();
+
+        assertThat( request.positions().getFirst().value() ).isEqualTo( uuid );
+        assertThat( request.positions().getFirst().nextValue() ).isNull();
+        assertThat( request.filters().attributes() ).extracting( Attribute::name ).containsExactly( "time" );
+        assertThat( request.filters().iterator().next() ).isInstanceOfSatisfying( Filter.class,
+                f -> assertThat( f.values() ).isEqualTo( List.of( Instant.parse( "2024-01-02T03:04:05.000000006Z" ) ) ) );
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReadSameRequestAsFromDtoMapper() {
+        final var name = "rule-name";
+        final AttributeDictionary dictionary = AttributeDictionary.of( List.of( "id", "name", "time" ) );
+        final Map<String, RuleFactory> ruleFactories = Map.of( name, p -> newTestRule( name, p ) );
+        final PageRequest<TestEntity> typed = PageRequest.create( b -> b.desc( TestEntity_.name )
+                .asc( TestEntity_.id )
+                .pageSize( 42 )
+                .enableTotalCount( true )
+                .filter( Filters.or( attribute( TestEntity_.name ).in( "a", "b" ),
+                        attribute( TestEntity_.id ).greaterThan( 7L ),
+                        newTestRule( name, Map.of( "p", List.of( "1", "2" ) ) ) ) )
+                .filter( attribute( TestEntity_.time ).lessThan( Instant.ofEpochSecond( 1_700_000_000L, 5 ) ) ) );
+        final Cursor.PageRequest v2 = ToDtoMapper.<TestEntity>create(
+                c -> c.pageRequest( typed ).attributeDictionary( dictionary ) ).map();
+        final Cursor.PageRequest v1 = Cursor.PageRequest.newBuilder()
+                .setPageSize( 10 )
+                .addPositions( Cursor.Position.newBuilder()
+                        .setAttribute( Cursor.Attribute.newBuilder().setName( "id" ) )
+                        .setValue( Cursor.Value.newBuilder().setValue( "17" ) )
+                        .setOrder( Cursor.Order.DESC )
+                        .setReversed( true ) )
+                .setFilters( Cursor.FilterList.newBuilder()
+                        .addFilters( Cursor.Filter.newBuilder()
+                                .setAttribute( Cursor.Attribute.newBuilder().setName( "time" ) )
+                                .addValues( Cursor.Value.newBuilder().setValue( "2024-01-02T03:04:05.000000006Z" ) )
+                                .setType( Cursor.FilterType.GE ) ) )
+                .build();
+
+        for ( final Cursor.PageRequest dto : List.of( v1, v2 ) ) {
+            final PageRequest<TestEntity> expected = FromDtoMapper.<TestEntity>create( b -> b.request( dto )
+                    .conversionService( RequestSerializer.getConversionService() )
+                    .ruleFactories( ruleFactories )
+                    .attributeResolver( n -> null )
+                    .attributesByName( attributesByName() )
+                    .attributeDictionary( dictionary ) ).map();
+            final byte[] bytes = dto.toByteArray();
+            final byte[] buffer = new byte[bytes.length + 6];
+            System.arraycopy( bytes, 0, buffer, 3, bytes.length );
+
+            final PageRequest<TestEntity> read = CursorReader.<TestEntity>create(
+                            b -> b.conversionService( RequestSerializer.getConversionService() )
+                                    .ruleFactories( ruleFactories )
+                                    .attributeResolver( n -> null )
+                                    .attributesByName( attributesByName() )
+                                    .attributeDictionary( dictionary ) )
+                    .read( buffer, 3, bytes.length );
+            assertThat( read ).isEqualTo( expected );
+        }
+    }
+
+    private static Map<String, Attribute> attributesByName() {
+        return new HashMap<>( Map.of( "id", Attribute.of( TestEntity_.id ), "name", Attribute.of( TestEntity_.name ),
+                "time", Attribute.of( TestEntity_.time ) ) );
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldDeserializeLegacyCursorsFromBase64() {
+        final SecretKey key = Encrypter.getKey( "1234567890ABCDEFGHIJKlmnopqrst--" );
+        final var serializer = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) ).encrypter( Encrypter.getInstance( key ) ) );
+        final PageRequest<TestEntity> request = PageRequest.create( b -> b.asc( TestEntity_.name ).pageSize( 3 ) );
+        final byte[] iv = new byte[Encrypter.IV_BYTES_LENGTH];
+        final var cipher = Cipher.getInstance( "ChaCha20-Poly1305" );
+        cipher.init( Cipher.ENCRYPT_MODE, key, new IvParameterSpec( iv ) );
+        final byte[] encrypted = cipher.doFinal(
+                ToDtoMapper.<TestEntity>create( c -> c.pageRequest( request ) ).map().toByteArray() );
+        final byte[] legacy = new byte[encrypted.length + iv.length];
+        System.arraycopy( encrypted, 0, legacy, 0, encrypted.length );
+
+        assertThat( serializer.toPageRequest( Base64String.encode( legacy ) ) ).isEqualTo( request );
+    }
+
     private static PageRequest<TestEntity> serializeAndDeserialize( final PageRequest<TestEntity> pageRequest ) {
         final var serializer = getRequestSerializer();
         final var serializedRequest = serializer.toBase64( pageRequest );
@@ -216,9 +590,6 @@ class SerializerTest {
                         attribute( TestEntity_.name ).equalTo( "Name-1" ), //
                         attribute( TestEntity_.id ).greaterThan( 1L ) //
                 ) ) );
-        when( conversionService.convert( anyString(), eq( Long.class ) ) ).thenAnswer(
-                i -> Long.valueOf( (String) i.getArguments()[0] ) );
-        when( conversionService.convert( anyString(), eq( String.class ) ) ).thenAnswer( i -> i.getArguments()[0] );
 
         final RequestSerializer<TestEntity> serializer = RequestSerializer.create( TestEntity.class,
                 b -> b.use( Attribute.of( TestEntity_.name ) )
@@ -228,6 +599,70 @@ class SerializerTest {
         final var deserializeRequest = serializer.toPageRequest( serializedRequest );
 
         assertThat( deserializeRequest ).isEqualTo( pageRequest );
+        // typed values (format v2) of the common types are not converted
+        verifyNoInteractions( conversionService );
+    }
+
+    @Test
+    void shouldRejectCursorsOfANewerFormatVersion() {
+        final PageRequest<TestEntity> request = PageRequest.create( b -> b.asc( TestEntity_.name ) );
+        final byte[] newer = ToDtoMapper.<TestEntity>create( c -> c.pageRequest( request ) )
+                .map()
+                .toBuilder()
+                .setVersion( CursorWriter.VERSION + 1 )
+                .build()
+                .toByteArray();
+        final Encrypter encrypter = Encrypter.getInstance();
+        final RequestSerializer<TestEntity> serializer = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) ).encrypter( encrypter ) );
+
+        Assertions.assertThatThrownBy( () -> serializer.toPageRequest( encrypter.encrypt( newer ) ) )
+                .isInstanceOf( SerializerException.class )
+                .hasMessageContaining( "unknown format version: " + (CursorWriter.VERSION + 1) );
+    }
+
+    @Test
+    void shouldWriteFormatVersion1DuringRollingUpgrade() throws Exception {
+        final PageRequest<TestEntity> request = PageRequest.create( b -> b.position( Position.create(
+                        p -> p.order( Order.DESC ).attribute( Attribute.of( TestEntity_.id ) ).value( 7L ) ) )
+                .filter( attribute( TestEntity_.name ).equalTo( "Name-1" ) ) );
+        final SecretKey key = Encrypter.getKey( "1234567890ABCDEFGHIJKlmnopqrst--" );
+        final RequestSerializer<TestEntity> serializer = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) )
+                        .use( Attribute.of( TestEntity_.id ) )
+                        .encrypter( Encrypter.builder().secret( key ).encryptLegacy( true ).build() )
+                        .formatVersion( 1 ) );
+
+        final byte[] cursor = serializer.toBytes( request );
+        // decrypted as by releases without cipher suites: the nonce follows the ciphertext and tag
+        final int length = cursor.length - Encrypter.IV_BYTES_LENGTH;
+        final var cipher = Cipher.getInstance( "ChaCha20-Poly1305" );
+        cipher.init( Cipher.DECRYPT_MODE, key, new IvParameterSpec( cursor, length, Encrypter.IV_BYTES_LENGTH ) );
+        final Cursor.PageRequest dto = Cursor.PageRequest.parseFrom( cipher.doFinal( cursor, 0, length ) );
+
+        // readable by releases without typed values: no version field, all values as string
+        assertThat( dto.getVersion() ).isZero();
+        assertThat( dto.getPositions( 0 ).getValue().getValue() ).isEqualTo( "7" );
+        assertThat( dto.getPositions( 0 ).getValue().getTypedCase() ).isEqualTo( Cursor.Value.TypedCase.TYPED_NOT_SET );
+        assertThat( dto.getFilters().getFilters( 0 ).getValues( 0 ).getValue() ).isEqualTo( "Name-1" );
+        assertThat( serializer.toPageRequest( cursor ) ).isEqualTo( request );
+        Assertions.assertThatThrownBy( () -> RequestSerializer.create( TestEntity.class, b -> b.formatVersion( 3 ) ) )
+                .isInstanceOf( IllegalArgumentException.class );
+    }
+
+    @Test
+    void shouldConvertValuesOfOtherTypesWithTheConversionService() {
+        final ValueClass value = new ValueClass( "abc" );
+        final PageRequest<TestEntity> pageRequest = PageRequest.create( b -> b.desc( TestEntity_.name )
+                .filter( attribute( TestEntity_.value ).equalTo( value ) ) );
+        when( conversionService.convert( value.toString(), ValueClass.class ) ).thenReturn( value );
+
+        final RequestSerializer<TestEntity> serializer = RequestSerializer.create( TestEntity.class,
+                b -> b.use( Attribute.of( TestEntity_.name ) )
+                        .use( Attribute.of( TestEntity_.value ) )
+                        .conversionService( conversionService ) );
+
+        assertThat( serializer.toPageRequest( serializer.toBytes( pageRequest ) ) ).isEqualTo( pageRequest );
     }
 
     @Test
@@ -293,6 +728,32 @@ class SerializerTest {
         assertThat( deserializedRequest ).isEqualTo( request );
     }
 
+    @Test
+    void shouldContinueInMemoryPagingWithSerializedCursor() {
+        final var id = Attribute.of( "id", Long.class );
+        final var name = Attribute.of( "name", String.class );
+        final var repository = new InMemoryCursorPageRepository<TestEntity>( TestEntity.class, id ).addIndex(
+                b -> b.desc( name ).asc( id ) );
+        for ( long i = 0; i < 10; i++ ) {
+            final var entity = new TestEntity();
+            entity.setId( i );
+            entity.setName( "name-" + i % 3 );
+            repository.save( entity );
+        }
+        final RequestSerializer<TestEntity> serializer = RequestSerializer.create( TestEntity.class )
+                .withDefaults();
+
+        final List<Long> ids = new ArrayList<>();
+        Base64String cursor = serializer.toBase64( PageRequest.create( b -> b.desc( name ).asc( id ).pageSize( 3 ) ) );
+        while ( cursor != null ) {
+            final var page = repository.loadPage( serializer.toPageRequest( cursor ) );
+            ids.addAll( page.content( TestEntity::getId ) );
+            cursor = page.next().map( serializer::toBase64 ).orElse( null );
+        }
+
+        assertThat( ids ).containsExactly( 2L, 5L, 8L, 1L, 4L, 7L, 0L, 3L, 6L, 9L );
+    }
+
     @Test
     void shouldSerializeParametersOfFilterRules() {
         final Map<String, List<String>> parameters = Map.of( "Test1", List.of( "Value1" ) );
@@ -0,0 +1,51 @@
+package io.vigier.cursorpaging.jpa.serializer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SignerTest {
+
+    private static final String SECRET = "1234567890ABCDEFGHIJKlmnopqrst--";
+
+    @Test
+    void shouldSignAndVerify() {
+        final var signer = Signer.getInstance( SECRET );
+        final byte[] signed = signer.sign( "Hello".getBytes() );
+
+        Assertions.assertEquals( 1 + 5 + 16, signed.length );
+        Assertions.assertEquals( "Hello", new String( signed, 1, 5 ) );
+        Assertions.assertEquals( "Hello", new String( signer.verify( signed ) ) );
+    }
+
+    @Test
+    void shouldRejectTamperedData() {
+        final var signer = Signer.getInstance( SECRET );
+        final byte[] signed = signer.sign( "Hello".getBytes() );
+        signed[1] = 'J';
+
+        Assertions.assertThrows( CryptoException.class, () -> signer.verify( signed ) );
+        Assertions.assertThrows( CryptoException.class, () -> Signer.getInstance( SECRET.replace( '1', '0' ) )
+                .verify( signer.sign( "Hello".getBytes() ) ) );
+        Assertions.assertThrows( CryptoException.class, () -> signer.verify( new byte[] { Signer.HEADER } ) );
+    }
+
+    @Test
+    void shouldTruncateTag() {
+        final var signer = Signer.builder()
+                .secret( Encrypter.getKey( SECRET ) )
+                .tagLength( Signer.MIN_TAG_BYTES_LENGTH )
+                .build();
+        final byte[] signed = signer.sign( new byte[0] );
+
+        Assertions.assertEquals( 1 + Signer.MIN_TAG_BYTES_LENGTH, signed.length );
+        Assertions.assertEquals( 0, signer.verify( signed ).length );
+        Assertions.assertThrows( IllegalArgumentException.class, () -> Signer.getInstance( "short" ) );
+    }
+
+    @Test
+    void shouldRejectInvalidTagLengthWhenBuilt() {
+        Assertions.assertThrows( IllegalArgumentException.class,
+                () -> Signer.builder().tagLength( Signer.MIN_TAG_BYTES_LENGTH - 1 ) );
+        Assertions.assertThrows( IllegalArgumentException.class, () -> Signer.builder().tagLength( 33 ) );
+    }
+}
@@ -1,41 +1,38 @@
 package io.vigier.cursorpaging.jpa.serializer;
 
+import com.google.protobuf.ByteString;
 import io.vigier.cursorpaging.jpa.Attribute;
 import io.vigier.cursorpaging.jpa.Filter;
 import io.vigier.cursorpaging.jpa.FilterRule;
 import io.vigier.cursorpaging.jpa.PageRequest;
-import io.vigier.cursorpaging.jpa.filter.AndFilter;
 import io.vigier.cursorpaging.jpa.filter.FilterList;
-import io.vigier.cursorpaging.jpa.filter.FilterType;
-import io.vigier.cursorpaging.jpa.filter.OrFilter;
 import io.vigier.cursorpaging.jpa.serializer.dto.Cursor;
 import io.vigier.cursorpaging.jpa.serializer.dto.Cursor.FilterList.FilterListType;
 import io.vigier.cursorpaging.jpa.serializer.dto.Cursor.Rule.Parameter;
+import java.time.Instant;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
 import java.util.function.Consumer;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.Nullable;
 
+/**
+ * Maps a {@link PageRequest} to the generated {@link Cursor.PageRequest} message. Not used by the serializer any more
+ * (see {@link CursorWriter}), kept as the reference the encoded bytes are compared with.
+ */
 @Builder
 @RequiredArgsConstructor( staticName = "of" )
 class ToDtoMapper<E> {
 
-    private static final Map<FilterType, Cursor.FilterType> TYPE_MAP = Map.of( //
-            FilterType.EQUAL_TO, Cursor.FilterType.EQ, //
-            FilterType.GREATER_THAN, Cursor.FilterType.GT, //
-            FilterType.LESS_THAN, Cursor.FilterType.LT, //
-            FilterType.LIKE, Cursor.FilterType.LIKE, //
-            FilterType.LESS_THAN_OR_EQUAL_TO, Cursor.FilterType.LE, //
-            FilterType.GREATER_THAN_OR_EQUAL_TO, Cursor.FilterType.GE, //
-            FilterType.ALWAYS, Cursor.FilterType.ALWAYS //
-    );
-    private static final Map<Class<? extends FilterList>, FilterListType> LISTTYPE_MAP = Map.of( //
-            AndFilter.class, FilterListType.AND, //
-            OrFilter.class, FilterListType.OR );
-
     private final PageRequest<E> pageRequest;
 
+    /**
+     * Attribute ids to use instead of the names, if present
+     */
+    @Nullable
+    private final AttributeDictionary attributeDictionary;
+
     public static <E> ToDtoMapper<E> create( final Consumer<ToDtoMapperBuilder<E>> c ) {
         final var builder = ToDtoMapper.<E>builder();
         c.accept( builder );
@@ -43,13 +40,21 @@ class ToDtoMapper<E> {
     }
 
     public Cursor.PageRequest map() {
+        return withoutFilters().setFilters( filters() )
+                .build();
+    }
+
+    private Cursor.PageRequest.Builder withoutFilters() {
         final var builder = Cursor.PageRequest.newBuilder()
                 .addAllPositions( positions() )
                 .setPageSize( pageRequest.pageSize() )
-                .setFilters( filters() );
+                .setVersion( CursorWriter.VERSION );
+        if ( attributeDictionary != null ) {
+            builder.setDictionary( attributeDictionary.version() );
+        }
         pageRequest.totalCount()
                 .ifPresent( builder::setTotalCount );
-        return builder.build();
+        return builder;
     }
 
     private List<Parameter> toDtoParameters( final FilterRule r ) {
@@ -60,7 +65,7 @@ class ToDtoMapper<E> {
                         .setName( e.getKey() )
                         .addAllValues( e.getValue()
                                 .stream()
-                                .map( this::valueOf )
+                                .map( ToDtoMapper::textOf )
                                 .toList() )
                         .build() )
                 .toList();
@@ -80,7 +85,7 @@ class ToDtoMapper<E> {
                         .setAttribute( attributeOf( ff.attribute() ) )
                         .addAllValues( ff.values()
                                 .stream()
-                                .map( this::valueOf )
+                                .map( v -> valueOf( ff.attribute(), v ) )
                                 .toList() )
                         .setType( typeOf( ff ) )
                         .build() );
@@ -97,11 +102,11 @@ class ToDtoMapper<E> {
     }
 
     Cursor.FilterType typeOf( final Filter f ) {
-        return TYPE_MAP.get( f.operation() );
+        return CursorWriter.TYPE_MAP.get( f.operation() );
     }
 
     FilterListType typeOf( final FilterList f ) {
-        return LISTTYPE_MAP.get( f.getClass() );
+        return CursorWriter.LISTTYPE_MAP.get( f.getClass() );
     }
 
     private Iterable<Cursor.Position> positions() {
@@ -109,8 +114,8 @@ class ToDtoMapper<E> {
                 .stream()
                 .map( p -> Cursor.Position.newBuilder()
                         .setAttribute( attributeOf( p.attribute() ) )
-                        .setValue( valueOf( p.value() ) )
-                        .setNextValue( valueOf( p.nextValue() ) )
+                        .setValue( valueOf( p.attribute(), p.value() ) )
+                        .setNextValue( valueOf( p.attribute(), p.nextValue() ) )
                         .setOrder( switch ( p.order() ) {
                             case ASC -> Cursor.Order.ASC;
                             case DESC -> Cursor.Order.DESC;
@@ -121,20 +126,60 @@ class ToDtoMapper<E> {
     }
 
 
-    private static Cursor.Attribute attributeOf( final Attribute attribute ) {
+    private Cursor.Attribute attributeOf( final Attribute attribute ) {
+        final int id = attributeDictionary != null ? attributeDictionary.id( attribute.name() ) : 0;
+        if ( id != 0 ) {
+            return Cursor.Attribute.newBuilder()
+                    .setId( id )
+                    .build();
+        }
         return Cursor.Attribute.newBuilder()
                 .setName( attribute.name() )
                 .build();
     }
 
-    private Cursor.Value valueOf( final Comparable<?> value ) {
-        if ( value == null ) {
-            return Cursor.Value.newBuilder()
-                    .setValue( "" )
-                    .build();
+    /**
+     * Typed value for the common types, the string representation for others (and rule parameters, which are passed as
+     * strings to the {@link RuleFactory})
+     */
+    private Cursor.Value valueOf( final Attribute attribute, final Comparable<?> value ) {
+        final Cursor.Value.Builder b = Cursor.Value.newBuilder();
+        switch ( value ) {
+            case null -> {
+                // empty value
+            }
+            case final String s -> b.setStringValue( s );
+            case final Long l -> b.setIntValue( l );
+            case final Integer i -> b.setIntValue( i );
+            case final Short sh -> b.setIntValue( sh );
+            case final Byte by -> b.setIntValue( by );
+            case final Double d -> b.setDoubleValue( d );
+            case final Float f -> b.setDoubleValue( f );
+            case final Boolean bo -> b.setBoolValue( bo );
+            case final UUID u -> b.setUuidValue( uuidOf( u ) );
+            case final Instant in -> b.setTimestampValue( Cursor.Timestamp.newBuilder()
+                    .setSeconds( in.getEpochSecond() )
+                    .setNanos( in.getNano() ) );
+            case final Enum<?> en -> b.setStringValue( en.name() );
+            default -> b.setValue( CursorWriter.textOf( attribute, value ) );
         }
+        return b.build();
+    }
+
+    private static Cursor.Value textOf( final Comparable<?> value ) {
         return Cursor.Value.newBuilder()
-                .setValue( value.toString() )
+                .setValue( value == null ? "" : value.toString() )
                 .build();
     }
+
+    private static ByteString uuidOf( final UUID uuid ) {
+        final byte[] bytes = new byte[16];
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        for ( int i = 0; i < 8; i++ ) {
+            bytes[i] = (byte) (msb >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (lsb >>> (56 - 8 * i));
+        }
+        return ByteString.copyFrom( bytes );
+    }
 }
@@ -6,12 +6,13 @@ import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import cz.jirutka.rsql.parser.ast.OrNode;
 import cz.jirutka.rsql.parser.ast.RSQLOperators;
 import cz.jirutka.rsql.parser.ast.RSQLVisitor;
+import io.vigier.cursorpaging.jpa.Attribute;
 import io.vigier.cursorpaging.jpa.AttributeResolver;
 import io.vigier.cursorpaging.jpa.Filter;
 import io.vigier.cursorpaging.jpa.Filters;
 import io.vigier.cursorpaging.jpa.QueryElement;
+import io.vigier.cursorpaging.jpa.ValueCodec;
 import io.vigier.cursorpaging.jpa.filter.FilterType;
-import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import org.springframework.core.convert.support.DefaultConversionService;
@@ -19,13 +20,11 @@ import org.springframework.core.convert.support.DefaultConversionService;
 /**
  * Visitor that converts an RSQL AST into a {@link QueryElement} tree (using {@link Filters}).
  * <p>
- * Values are converted to the attribute's target type via {@link DefaultConversionService} (extended with common
- * temporal converters).
+ * Values are parsed with the {@link ValueCodec} of the attribute, values of custom types are converted with the shared
+ * {@link DefaultConversionService}.
  */
 class RsqlFilterVisitor implements RSQLVisitor<QueryElement, Void> {
 
-    private static final DefaultConversionService CONVERSION_SERVICE = createConversionService();
-
     private static final Map<ComparisonOperator, FilterType> OPERATOR_MAP = Map.of( //
             RSQLOperators.EQUAL, FilterType.EQUAL_TO, //
             RSQLOperators.IN, FilterType.EQUAL_TO, //
@@ -66,25 +65,20 @@ class RsqlFilterVisitor implements RSQLVisitor<QueryElement, Void> {
                     .getSymbol() );
         }
         final var attribute = resolver.resolve( node.getSelector() );
-        final var values = convertValues( node.getArguments(), attribute.type() );
+        final var values = convertValues( node.getArguments(), attribute );
         return Filter.create( b -> b.attribute( attribute )
                 .type( filterType )
                 .values( values ) );
     }
 
     private static List<? extends Comparable<?>> convertValues( final List<String> arguments,
-            final Class<? extends Comparable<?>> targetType ) {
-        if ( targetType == String.class ) {
+            final Attribute attribute ) {
+        if ( attribute.type() == String.class ) {
             return arguments;
         }
+        final ValueCodec<?> codec = attribute.codec();
         return arguments.stream()
-                .map( v -> (Comparable<?>) CONVERSION_SERVICE.convert( v, (Class<?>) targetType ) )
+                .map( v -> (Comparable<?>) codec.parse( v, DefaultConversionService.getSharedInstance() ) )
                 .toList();
     }
-
-    private static DefaultConversionService createConversionService() {
-        final var service = new DefaultConversionService();
-        service.addConverter( String.class, Instant.class, Instant::parse );
-        return service;
-    }
 }
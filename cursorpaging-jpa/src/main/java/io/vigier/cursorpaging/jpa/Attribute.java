@@ -10,13 +10,13 @@ import jakarta.persistence.criteria.Root;
 import jakarta.persistence.metamodel.SingularAttribute;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.Singular;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.convert.ConversionService;
-import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.support.DefaultConversionService;
 
 /**
@@ -40,6 +40,12 @@ public class Attribute {
 
     private final boolean ignoreCase;
 
+    /**
+     * The codec of the value type, resolved on first use
+     */
+    @EqualsAndHashCode.Exclude
+    private final AtomicReference<ValueCodec<?>> codec = new AtomicReference<>();
+
     public Attribute(final List<SingleAttribute> attributes) {
         this.attributes = attributes;
         this.ignoreCase = false;
@@ -148,11 +154,15 @@ public class Attribute {
      * @return The attribute-path pointing the property of an entity
      */
     public String name() {
+        if (attributes.size() == 1) {
+            return attributes.getFirst().name();
+        }
         return String.join(".", attributes.stream().map(SingleAttribute::name).toList());
     }
 
     /**
-     * Generate a criteria expression/path using the given entity-root.
+     * Generate a criteria expression/path using the given entity-root. Intermediate attributes are joined on every
+     * call, use {@link QueryBuilder#path(Attribute)} to reuse the joins within a query.
      *
      * @param root The root of the entity
      * @param <E>  Entity type
@@ -225,12 +235,29 @@ public class Attribute {
         return ignoreCase;
     }
 
+    /**
+     * Get the codec of the value type, to parse and convert values of this attribute
+     *
+     * @param <V> Expected value type
+     * @return the (cached) codec
+     */
+    @SuppressWarnings("unchecked")
+    public <V extends Comparable<? super V>> ValueCodec<V> codec() {
+        ValueCodec<?> resolved = codec.get();
+        if (resolved == null) {
+            resolved = ValueCodecs.of(type());
+            codec.set(resolved);
+        }
+        return (ValueCodec<V>) resolved;
+    }
+
     public Comparable<?> verify(final Comparable<?> value) {
         if (value == null || value.getClass() == type()) {
             return value;
         }
-        if (CONVERSION_SERVICE.canConvert(value.getClass(), type())) {
-            return (Comparable<?>) CONVERSION_SERVICE.convert(value, TypeDescriptor.valueOf(type()));
+        final ValueCodec<?> valueCodec = codec();
+        if (valueCodec.converts(value.getClass()) || CONVERSION_SERVICE.canConvert(value.getClass(), type())) {
+            return (Comparable<?>) valueCodec.convert(value, CONVERSION_SERVICE);
         }
         throw new IllegalArgumentException(
                 "Value %s (%s) is not of type %s".formatted(value, value.getClass().getName(), type()));
@@ -0,0 +1,200 @@
+package io.vigier.cursorpaging.jpa;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Registry of the (cached) accessors used to read attribute values from entities, e.g. to create the positions for the
+ * next page.
+ * <p>
+ * An accessor is resolved once per entity class and attribute name, with the same rules as a
+ * {@link DirectFieldAccessFallbackBeanWrapper}: a public getter ({@code getName()}, or {@code isName()} for a
+ * {@code boolean}) is preferred, otherwise the field is read directly. If neither a getter nor a field can be made
+ * accessible, the bean wrapper is used as fallback.
+ * <p>
+ * The accessor is a {@link MethodHandle}: it works for every class the bean wrapper can read (incl. non-public classes
+ * and Hibernate proxies) without defining any class, and reading a value needs no introspection or wrapper instances.
+ * Only for repeated reads of the same property (e.g. when filtering in memory) a {@link Function} is generated with the
+ * {@link LambdaMetafactory}, which is as fast as a direct call: this requires a public getter of a public class, in
+ * all other cases (or if the generation fails, e.g. for a class of another class loader) the function delegates to the
+ * method handle.
+ */
+@Slf4j
+final class AttributeAccessors {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType( Object.class, Object.class );
+    private static final MethodHandle BEAN_WRAPPER;
+
+    static {
+        try {
+            BEAN_WRAPPER = MethodHandles.lookup()
+                    .findStatic( AttributeAccessors.class, "beanWrapperValue",
+                            MethodType.methodType( Object.class, String.class, Object.class ) );
+        } catch ( final ReflectiveOperationException e ) {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+    private static final ClassValue<Map<String, MethodHandle>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue( final Class<?> type ) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final ClassValue<Map<String, Function<Object, Object>>> FUNCTIONS = new ClassValue<>() {
+        @Override
+        protected Map<String, Function<Object, Object>> computeValue( final Class<?> type ) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private AttributeAccessors() {
+    }
+
+    /**
+     * Read the value of a property from the entity
+     *
+     * @param entity the entity (must not be {@code null})
+     * @param name   name of the property
+     * @return the value of the property
+     */
+    static Object valueOf( final Object entity, final String name ) {
+        return invoke( accessor( entity.getClass(), name ), entity, name );
+    }
+
+    /**
+     * Get the (cached) accessor for a property
+     *
+     * @param type entity class
+     * @param name name of the property
+     * @return accessor of type {@code (Object)Object}
+     */
+    static MethodHandle accessor( final Class<?> type, final String name ) {
+        final Map<String, MethodHandle> accessors = ACCESSORS.get( type );
+        final MethodHandle accessor = accessors.get( name );
+        // get first: computeIfAbsent would allocate the capturing lambda on every call
+        return accessor != null ? accessor : accessors.computeIfAbsent( name, n -> resolve( type, n ) );
+    }
+
+    /**
+     * Get the (cached) accessor for a property as function
+     *
+     * @param type entity class
+     * @param name name of the property
+     * @return function reading the property from instances of {@code type}
+     */
+    static Function<Object, Object> function( final Class<?> type, final String name ) {
+        final Map<String, Function<Object, Object>> functions = FUNCTIONS.get( type );
+        final Function<Object, Object> function = functions.get( name );
+        return function != null ? function : functions.computeIfAbsent( name, n -> resolveFunction( type, n ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static Function<Object, Object> resolveFunction( final Class<?> type, final String name ) {
+        final Method getter = getter( type, name );
+        if ( getter != null && Modifier.isPublic( getter.getDeclaringClass().getModifiers() ) ) {
+            try {
+                final MethodHandles.Lookup lookup = lookupFor( getter.getDeclaringClass() );
+                final MethodHandle target = lookup.unreflect( getter );
+                return (Function<Object, Object>) LambdaMetafactory.metafactory( lookup, "apply",
+                                MethodType.methodType( Function.class ), ACCESSOR_TYPE, target, target.type().wrap() )
+                        .getTarget()
+                        .invokeExact();
+            } catch ( final RuntimeException e ) {
+                throw e;
+            } catch ( final LinkageError e ) {
+                log.debug( "Cannot link function for property '{}' of {}, using method handle", name, type, e );
+            } catch ( final Error e ) {
+                throw e;
+            } catch ( final Throwable e ) {
+                log.debug( "Cannot create function for property '{}' of {}, using method handle", name, type, e );
+            }
+        }
+        final MethodHandle accessor = accessor( type, name );
+        return entity -> invoke( accessor, entity, name );
+    }
+
+    /**
+     * The function class is defined in the class loader of the lookup and must resolve the entity class from there:
+     * this library's lookup is used if it sees the class, otherwise a lookup in the class (e.g. of a child class loader
+     * like a devtools restart class loader).
+     */
+    private static MethodHandles.Lookup lookupFor( final Class<?> type ) throws IllegalAccessException {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        return isVisible( type ) ? lookup : MethodHandles.privateLookupIn( type, lookup );
+    }
+
+    private static boolean isVisible( final Class<?> type ) {
+        try {
+            return Class.forName( type.getName(), false, AttributeAccessors.class.getClassLoader() ) == type;
+        } catch ( final ClassNotFoundException | LinkageError e ) {
+            return false;
+        }
+    }
+
+    private static Object invoke( final MethodHandle accessor, final Object entity, final String name ) {
+        try {
+            return (Object) accessor.invokeExact( entity );
+        } catch ( final RuntimeException | Error e ) {
+            throw e;
+        } catch ( final Throwable e ) {
+            throw new IllegalStateException( "Cannot read property '%s' of %s".formatted( name, entity.getClass() ),
+                    e );
+        }
+    }
+
+    private static MethodHandle resolve( final Class<?> type, final String name ) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            final Method getter = getter( type, name );
+            if ( getter != null && getter.trySetAccessible() ) {
+                return lookup.unreflect( getter ).asType( ACCESSOR_TYPE );
+            }
+            final Field field = ReflectionUtils.findField( type, name );
+            if ( getter == null && field != null && !Modifier.isStatic( field.getModifiers() )
+                    && field.trySetAccessible() ) {
+                return lookup.unreflectGetter( field ).asType( ACCESSOR_TYPE );
+            }
+        } catch ( final IllegalAccessException e ) {
+            log.debug( "Cannot access property '{}' of {}, using bean wrapper", name, type, e );
+        }
+        return MethodHandles.insertArguments( BEAN_WRAPPER, 0, name );
+    }
+
+    private static Method getter( final Class<?> type, final String name ) {
+        final String capitalized = StringUtils.capitalize( name );
+        final Method get = publicNoArgMethod( type, "get" + capitalized );
+        if ( get != null && get.getReturnType() != void.class ) {
+            return get;
+        }
+        final Method is = publicNoArgMethod( type, "is" + capitalized );
+        return is != null && is.getReturnType() == boolean.class ? is : null;
+    }
+
+    private static Method publicNoArgMethod( final Class<?> type, final String name ) {
+        try {
+            final Method method = type.getMethod( name );
+            return Modifier.isStatic( method.getModifiers() ) ? null : method;
+        } catch ( final NoSuchMethodException e ) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings( "unused" ) // used via BEAN_WRAPPER
+    private static Object beanWrapperValue( final String name, final Object entity ) {
+        return new DirectFieldAccessFallbackBeanWrapper( entity ).getPropertyValue( name );
+    }
+}
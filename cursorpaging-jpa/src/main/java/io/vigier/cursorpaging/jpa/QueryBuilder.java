@@ -3,6 +3,7 @@ package io.vigier.cursorpaging.jpa;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import java.util.Collection;
@@ -51,6 +52,18 @@ public interface QueryBuilder {
      */
     EntityManager entityManager();
 
+    /**
+     * Get the path-expression of an attribute, reusing the joins already created for this query where possible. The
+     * default joins anew with every call, like {@link Attribute#path(Root)}.
+     *
+     * @param attribute the attribute
+     * @param <V>       the value type
+     * @return the path-expression
+     */
+    default <V extends Comparable<? super V>> Expression<V> path( final Attribute attribute ) {
+        return attribute.path( root() );
+    }
+
     /**
      * Get an equal predicate for the given attribute and value
      *
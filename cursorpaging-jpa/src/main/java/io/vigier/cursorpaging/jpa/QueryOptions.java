@@ -0,0 +1,127 @@
+package io.vigier.cursorpaging.jpa;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Options used to build the queries of a cursor page repository.
+ * <p>
+ * Within a Spring application, a bean of this type is picked up by the
+ * {@link io.vigier.cursorpaging.jpa.bootstrap.CursorPageRepositoryFactoryBean} and used for all cursor page
+ * repositories. Without such a bean, {@link #DEFAULT} is used.
+ */
+@Builder( toBuilder = true )
+@Getter
+@Accessors( fluent = true )
+@ToString
+@Slf4j
+public class QueryOptions {
+
+    /**
+     * Handling of like-patterns starting with a wildcard ({@code %} or {@code _}), which cannot use an index.
+     */
+    public enum LeadingWildcard {
+        /**
+         * Pattern is used as is
+         */
+        ALLOW,
+        /**
+         * Pattern is used, but reported to the {@link #leadingWildcardHandler()}
+         */
+        REPORT,
+        /**
+         * Pattern is rejected with an {@link IllegalArgumentException}
+         */
+        REJECT
+    }
+
+    /**
+     * Creation of the condition for an in-list (equal-to filter with many values) of at least
+     * {@link #inListThreshold()} values.
+     */
+    public enum InList {
+        /**
+         * A single {@code in (?, ?, ...)} with one parameter per value, i.e. the statement grows with the list
+         */
+        PLAIN,
+        /**
+         * Values are split into {@code in}-lists of {@link #inListChunkSize()} values (combined with {@code or}). The
+         * last list is padded (by repeating its last value) to the next power of two, so only a few statement shapes
+         * are created.
+         */
+        CHUNKED,
+        /**
+         * A single array parameter: {@code attribute = any(?)}. Needs a database with array support (e.g. PostgreSQL,
+         * H2) and Hibernate (native {@code sql} function). Enum attributes are always chunked, as their mapping
+         * cannot be applied to the array elements.
+         */
+        ARRAY
+    }
+
+    public static final QueryOptions DEFAULT = QueryOptions.builder().build();
+
+    /**
+     * Rewrite like-patterns with a fixed prefix and a single trailing {@code %} (e.g. {@code Alpha%}) to the range
+     * {@code attribute >= 'Alpha' and attribute < 'Alphb'}, which can use a B-tree index independent of the
+     * collation-support for {@code like}.
+     * <p>
+     * The range is computed in code point order, so this is only correct if the compared columns use a binary (e.g.
+     * {@code "C"}) collation. It is therefore disabled by default.
+     */
+    @Builder.Default
+    private final boolean likePrefixAsRange = false;
+
+    /**
+     * Handling of like-patterns with a leading wildcard
+     */
+    @Builder.Default
+    private final LeadingWildcard leadingWildcard = LeadingWildcard.ALLOW;
+
+    /**
+     * Called with the attribute and the pattern, if {@link #leadingWildcard()} is {@link LeadingWildcard#REPORT}. Logs
+     * a warning by default.
+     */
+    @Builder.Default
+    @ToString.Exclude
+    private final BiConsumer<Attribute, String> leadingWildcardHandler = ( attribute, pattern ) -> log.warn(
+            "Like-pattern with leading wildcard cannot use an index: {} like '{}'", attribute.name(), pattern );
+
+    /**
+     * Normalize the filters of a request before the query is built (see
+     * {@link io.vigier.cursorpaging.jpa.filter.FilterNormalizer}). If the filters provably match nothing, the
+     * database is not queried at all.
+     * <p>
+     * Normalization rewrites the filters (e.g. merges ranges and in-sets), so it is disabled by default.
+     */
+    @Builder.Default
+    private final boolean normalizeFilters = false;
+
+    /**
+     * Creation of the condition for large in-lists
+     */
+    @Builder.Default
+    private final InList inList = InList.PLAIN;
+
+    /**
+     * Minimum number of values for which the {@link #inList()} strategy is used, smaller lists are always plain
+     */
+    @Builder.Default
+    private final int inListThreshold = 32;
+
+    /**
+     * Maximum number of values of a single in-list for {@link InList#CHUNKED} (Oracle e.g. allows 1000)
+     */
+    @Builder.Default
+    private final int inListChunkSize = 256;
+
+    public static QueryOptions create( final Consumer<QueryOptionsBuilder> c ) {
+        final var builder = QueryOptions.builder();
+        c.accept( builder );
+        return builder.build();
+    }
+}
@@ -1,7 +1,7 @@
 package io.vigier.cursorpaging.jpa;
 
 import java.util.Objects;
-import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import java.util.function.Function;
 
 import jakarta.annotation.Nullable;
 
@@ -36,13 +36,23 @@ public record SingleAttribute(
     }
 
     /**
-     * Get the value of the attribute from the entity.
+     * Get the value of the attribute from the entity, using the cached accessor of the entity class.
      *
      * @param entity entity which does have the attribute defined by this instance.
      * @return the value of the attribute if found, or {@code null} if entity is
      *         {@code null}.
      */
     Object valueOf(@Nullable final Object entity) {
-        return entity != null ? new DirectFieldAccessFallbackBeanWrapper(entity).getPropertyValue(name) : null;
+        return entity != null ? AttributeAccessors.valueOf(entity, name) : null;
+    }
+
+    /**
+     * Get the (cached) accessor of the attribute for an entity class, e.g. to read the attribute of many entities.
+     *
+     * @param entityType the class of the entities.
+     * @return function reading the value of the attribute from a (non-null) entity of the given class.
+     */
+    public Function<Object, Object> accessor(final Class<?> entityType) {
+        return AttributeAccessors.function(entityType, name);
     }
 }
@@ -0,0 +1,130 @@
+package io.vigier.cursorpaging.jpa;
+
+import jakarta.annotation.Nullable;
+import java.util.function.Function;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.util.NumberUtils;
+
+/**
+ * Parser and formatter of the values of one type, resolved once per type by the {@link ValueCodecs} registry and
+ * cached on the {@link Attribute} (see {@link Attribute#codec()}).
+ * <p>
+ * The common types (String, UUID, Boolean, the numeric types, enums, {@code Instant}, {@code OffsetDateTime} and
+ * {@code LocalDate}) are parsed directly, with the same results as the converters of the {@link ConversionService}
+ * (e.g. an empty string is {@code null}). Values of other (custom) types are converted with a
+ * {@link ConversionService}, which is also what failures are reported with ({@link ConversionFailedException}).
+ *
+ * @param <T> the type of the values
+ */
+public final class ValueCodec<T> {
+
+    private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf( String.class );
+
+    private final Class<T> type;
+    @Nullable
+    private final Function<String, T> parser;
+    private final Function<T, String> formatter;
+    private final boolean numeric;
+
+    ValueCodec( final Class<T> type, @Nullable final Function<String, T> parser,
+            final Function<T, String> formatter ) {
+        this.type = type;
+        this.parser = parser;
+        this.formatter = formatter;
+        this.numeric = parser != null && Number.class.isAssignableFrom( type );
+    }
+
+    /**
+     * @return the type of the values (the wrapper type for a primitive)
+     */
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * @return {@code true} if strings are parsed without a {@link ConversionService}
+     */
+    public boolean hasParser() {
+        return parser != null;
+    }
+
+    /**
+     * Parse a value from its string representation
+     *
+     * @param text              the string representation
+     * @param conversionService used if there is no parser for the type
+     * @return the value, {@code null} for an empty string (except for type String)
+     * @throws ConversionFailedException if the string is not a valid value
+     */
+    @Nullable
+    public T parse( final String text, final ConversionService conversionService ) {
+        if ( parser == null ) {
+            return conversionService.convert( text, type );
+        }
+        if ( text.isEmpty() && type != String.class ) {
+            return null;
+        }
+        try {
+            return parser.apply( text );
+        } catch ( final RuntimeException e ) {
+            throw new ConversionFailedException( STRING_TYPE, TypeDescriptor.valueOf( type ), text, e );
+        }
+    }
+
+    /**
+     * Format a value, the inverse of {@link #parse(String, ConversionService)} (e.g. used to serialize the values of
+     * types which are not encoded in a typed form)
+     *
+     * @param value the value
+     * @return the string representation
+     */
+    public String format( final T value ) {
+        return formatter.apply( value );
+    }
+
+    /**
+     * Convert a value to the type: values of the type are returned as they are, strings are parsed, numbers are
+     * converted to another numeric type (if the value fits), everything else is converted with the
+     * {@link ConversionService}.
+     *
+     * @param value             the value
+     * @param conversionService used for values which cannot be converted by the codec
+     * @return the converted value
+     * @throws ConversionFailedException if the value cannot be converted
+     */
+    @Nullable
+    @SuppressWarnings( "unchecked" )
+    public T convert( @Nullable final Object value, final ConversionService conversionService ) {
+        if ( value == null || type.isInstance( value ) ) {
+            return (T) value;
+        }
+        if ( value instanceof final String text && parser != null ) {
+            return parse( text, conversionService );
+        }
+        if ( numeric && value instanceof final Number number ) {
+            try {
+                return (T) NumberUtils.convertNumberToTargetClass( number, (Class<? extends Number>) type );
+            } catch ( final IllegalArgumentException e ) {
+                throw new ConversionFailedException( TypeDescriptor.forObject( value ), TypeDescriptor.valueOf( type ),
+                        value, e );
+            }
+        }
+        return conversionService.convert( value, type );
+    }
+
+    /**
+     * @param sourceType the type of a value
+     * @return {@code true} if the codec converts values of the type without a {@link ConversionService}
+     */
+    public boolean converts( final Class<?> sourceType ) {
+        return type.isAssignableFrom( sourceType ) || (sourceType == String.class && parser != null) || (numeric
+                && Number.class.isAssignableFrom( sourceType ));
+    }
+
+    @Override
+    public String toString() {
+        return "ValueCodec[" + type.getName() + "]";
+    }
+}
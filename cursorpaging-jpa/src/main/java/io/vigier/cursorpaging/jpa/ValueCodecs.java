@@ -0,0 +1,99 @@
+package io.vigier.cursorpaging.jpa;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+
+/**
+ * Registry of the {@link ValueCodec}s, resolved once per value type.
+ * <p>
+ * The parsers follow the converters of the {@code DefaultConversionService}: numbers are parsed with
+ * {@link NumberUtils#parseNumber(String, Class)} (e.g. hex values are accepted), booleans accept
+ * {@code true/false, on/off, yes/no, 1/0} and enums are looked up by their (trimmed) name.
+ */
+final class ValueCodecs {
+
+    private static final Set<String> TRUE_VALUES = Set.of( "true", "on", "yes", "1" );
+    private static final Set<String> FALSE_VALUES = Set.of( "false", "off", "no", "0" );
+
+    private static final Map<Class<?>, ValueCodec<?>> COMMON = Map.ofEntries( //
+            codec( String.class, Function.identity() ), //
+            codec( UUID.class, ValueCodecs::parseUuid ), //
+            codec( Boolean.class, ValueCodecs::parseBoolean ), //
+            number( Byte.class ), number( Short.class ), number( Integer.class ), number( Long.class ), //
+            number( Float.class ), number( Double.class ), number( BigInteger.class ), number( BigDecimal.class ), //
+            codec( Instant.class, s -> Instant.parse( s.trim() ) ), //
+            codec( OffsetDateTime.class, s -> OffsetDateTime.parse( s.trim() ) ), //
+            codec( LocalDate.class, s -> LocalDate.parse( s.trim() ) ) //
+    );
+
+    private static final ClassValue<ValueCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected ValueCodec<?> computeValue( final Class<?> type ) {
+            return resolve( type );
+        }
+    };
+
+    private ValueCodecs() {
+    }
+
+    /**
+     * Get the (cached) codec of a type
+     *
+     * @param type the value type, primitive types are handled like their wrapper
+     * @return the codec, converting with a {@code ConversionService} if the type is not a common type
+     */
+    static ValueCodec<?> of( final Class<?> type ) {
+        return CODECS.get( ClassUtils.resolvePrimitiveIfNecessary( type ) );
+    }
+
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private static ValueCodec<?> resolve( final Class<?> type ) {
+        final ValueCodec<?> common = COMMON.get( type );
+        if ( common != null ) {
+            return common;
+        }
+        if ( type.isEnum() ) {
+            final Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            return new ValueCodec<Enum>( (Class<Enum>) enumType, s -> Enum.valueOf( enumType, s.trim() ),
+                    Enum::name );
+        }
+        return new ValueCodec<>( (Class<Object>) type, null, Object::toString );
+    }
+
+    private static <T> Map.Entry<Class<?>, ValueCodec<?>> codec( final Class<T> type,
+            final Function<String, T> parser ) {
+        return Map.entry( type, new ValueCodec<>( type, parser, Object::toString ) );
+    }
+
+    private static <T extends Number> Map.Entry<Class<?>, ValueCodec<?>> number( final Class<T> type ) {
+        return codec( type, s -> NumberUtils.parseNumber( s, type ) );
+    }
+
+    private static UUID parseUuid( final String text ) {
+        return text.isBlank() ? null : UUID.fromString( text.trim() );
+    }
+
+    private static Boolean parseBoolean( final String text ) {
+        final String value = text.trim().toLowerCase( Locale.ROOT );
+        if ( value.isEmpty() ) {
+            return null;
+        }
+        if ( TRUE_VALUES.contains( value ) ) {
+            return Boolean.TRUE;
+        }
+        if ( FALSE_VALUES.contains( value ) ) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException( "Invalid boolean value '" + text + "'" );
+    }
+}
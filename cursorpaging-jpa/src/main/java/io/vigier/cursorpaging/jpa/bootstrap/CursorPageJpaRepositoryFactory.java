@@ -1,5 +1,6 @@
 package io.vigier.cursorpaging.jpa.bootstrap;
 
+import io.vigier.cursorpaging.jpa.QueryOptions;
 import io.vigier.cursorpaging.jpa.impl.CursorPageRepositoryImpl;
 import io.vigier.cursorpaging.jpa.repository.CursorPageRepository;
 import jakarta.persistence.EntityManager;
@@ -14,13 +15,27 @@ import org.springframework.data.repository.core.support.RepositoryFragment;
 
 public class CursorPageJpaRepositoryFactory extends JpaRepositoryFactory {
 
+    private final QueryOptions options;
+
     /**
      * Creates a new {@link JpaRepositoryFactory}.
      *
      * @param entityManager must not be {@literal null}
      */
     public CursorPageJpaRepositoryFactory( @NonNull final EntityManager entityManager ) {
+        this( entityManager, QueryOptions.DEFAULT );
+    }
+
+    /**
+     * Creates a new {@link JpaRepositoryFactory}.
+     *
+     * @param entityManager must not be {@literal null}
+     * @param options       options used by the cursor page repositories
+     */
+    public CursorPageJpaRepositoryFactory( @NonNull final EntityManager entityManager,
+            @NonNull final QueryOptions options ) {
         super( entityManager );
+        this.options = options;
     }
 
     @Override
@@ -35,7 +50,7 @@ public class CursorPageJpaRepositoryFactory extends JpaRepositoryFactory {
             fragments = fragments.append(
                     RepositoryFragment.implemented( CursorPageRepository.class,
                             new CursorPageRepositoryImpl<>( getEntityInformation( metadata.getDomainType() ),
-                                    entityManager ) ) );
+                                    entityManager, options ) ) );
         }
         return fragments;
     }
@@ -1,7 +1,10 @@
 package io.vigier.cursorpaging.jpa.bootstrap;
 
+import io.vigier.cursorpaging.jpa.QueryOptions;
 import jakarta.persistence.EntityManager;
 import lombok.NonNull;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
@@ -14,12 +17,23 @@ import org.springframework.data.repository.core.support.RepositoryFactorySupport
 public class CursorPageRepositoryFactoryBean<T extends Repository<S, ID>, S, ID> extends
         JpaRepositoryFactoryBean<T, S, ID> {
 
+    private QueryOptions options = QueryOptions.DEFAULT;
+
     public CursorPageRepositoryFactoryBean( final Class<? extends T> repositoryInterface ) {
         super( repositoryInterface );
     }
 
+    /**
+     * Also picks up the {@link QueryOptions} bean, if one is defined
+     */
+    @Override
+    public void setBeanFactory( @NonNull final BeanFactory beanFactory ) throws BeansException {
+        super.setBeanFactory( beanFactory );
+        options = beanFactory.getBeanProvider( QueryOptions.class ).getIfAvailable( () -> QueryOptions.DEFAULT );
+    }
+
     @Override
     protected @NonNull RepositoryFactorySupport createRepositoryFactory( @NonNull final EntityManager entityManager ) {
-        return new CursorPageJpaRepositoryFactory( entityManager );
+        return new CursorPageJpaRepositoryFactory( entityManager, options );
     }
 }
\ No newline at end of file
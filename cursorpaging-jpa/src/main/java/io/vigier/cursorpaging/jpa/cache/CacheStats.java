@@ -0,0 +1,22 @@
+package io.vigier.cursorpaging.jpa.cache;
+
+/**
+ * Statistics of a cache since its creation
+ *
+ * @param hits      number of lookups returning a cached value
+ * @param misses    number of lookups without cached value
+ * @param evictions number of entries removed to respect the maximum size
+ * @param size      current number of entries
+ */
+public record CacheStats(long hits, long misses, long evictions, long size) {
+
+    /**
+     * Get the ratio of hits to all lookups
+     *
+     * @return the hit ratio, {@code 0} if there was no lookup yet
+     */
+    public double hitRatio() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,175 @@
+package io.vigier.cursorpaging.jpa.cache;
+
+import io.vigier.cursorpaging.jpa.FilterRule;
+import io.vigier.cursorpaging.jpa.Page;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.Position;
+import io.vigier.cursorpaging.jpa.repository.CursorPageRepository;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+
+/**
+ * Decorator of a {@link CursorPageRepository} caching the loaded pages, for requests which are repeated often (e.g.
+ * the first page of the newest records).
+ * <p>
+ * Requests are cached by equality (i.e. same positions incl. values, filters, page size and total count settings), with
+ * the least recently used entries evicted. A cached page holds only the ids of its entities and the positions of the
+ * next page: on a hit the entities are loaded by id in the current persistence context (where the second level cache
+ * may serve them), so no managed entity is shared between sessions. Requests with {@link FilterRule}s are not cached,
+ * as rules may depend on other state.
+ * <p>
+ * The cache must be invalidated when the entities change: {@link #invalidate()} is called by the
+ * {@link HibernateCacheInvalidator} for inserted, updated and deleted entities of the registered types. Changes not
+ * passing the persistence context (bulk updates, native queries, other applications) are not detected. A transaction
+ * which flushed changes reads past the cache until it completes, so it sees its own changes and never caches them for
+ * others.
+ *
+ * @param <E> the type of the entities
+ */
+public class CachingCursorPageRepository<E> implements CursorPageRepository<E> {
+
+    private final CursorPageRepository<E> delegate;
+    private final JpaEntityInformation<E, ?> entityInformation;
+    private final EntityManager entityManager;
+    private final LruCache<PageRequest<E>, CachedPage> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final String findAllQuery;
+    private volatile Predicate<EntityManager> bypass = _ -> false;
+
+    private record CachedPage(List<Object> ids, List<Position> next, Long totalCount) {
+    }
+
+    /**
+     * Creates a new {@link CachingCursorPageRepository}.
+     *
+     * @param delegate      the repository loading the pages
+     * @param domainClass   the entity class
+     * @param entityManager the entity manager, used to load the entities of a cached page
+     * @param maximumSize   the maximum number of cached pages
+     */
+    public CachingCursorPageRepository( final CursorPageRepository<E> delegate, final Class<E> domainClass,
+            final EntityManager entityManager, final int maximumSize ) {
+        this.delegate = delegate;
+        this.entityInformation = JpaEntityInformationSupport.getEntityInformation( domainClass, entityManager );
+        this.entityManager = entityManager;
+        this.cache = new LruCache<>( maximumSize );
+        if ( entityInformation.hasCompositeId() ) {
+            throw new IllegalArgumentException( "Entities with composite id are not supported: " + domainClass );
+        }
+        // a query string (unlike a criteria query) is translated only once by the provider
+        this.findAllQuery = "select e from %s e where e.%s in :ids".formatted( entityInformation.getEntityName(),
+                entityInformation.getRequiredIdAttribute().getName() );
+    }
+
+    @Override
+    public Page<E> loadPage( final PageRequest<E> request ) {
+        if ( request == null || request.firstFilterWith( FilterRule.class::isInstance ).isPresent() || bypass.test(
+                entityManager ) ) {
+            return delegate.loadPage( request );
+        }
+        final CachedPage cached = cache.get( request );
+        if ( cached != null ) {
+            final Page<E> page = toPage( request, cached );
+            if ( page != null ) {
+                return page;
+            }
+        }
+        final long before = generation.get();
+        final Page<E> page = delegate.loadPage( request );
+        cache.put( request, toCached( page ) );
+        if ( generation.get() != before ) {
+            // invalidated while loading, the page might be outdated
+            cache.invalidate( request );
+        }
+        return page;
+    }
+
+    @Override
+    public long count( final PageRequest<E> request ) {
+        return delegate.count( request );
+    }
+
+    /**
+     * Remove all cached pages
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Load the pages past the cache while the condition holds for the entity manager (e.g. uncommitted changes)
+     *
+     * @param condition the condition, {@code null} to always use the cache
+     */
+    void bypassWhen( final Predicate<EntityManager> condition ) {
+        this.bypass = condition != null ? condition : _ -> false;
+    }
+
+    /**
+     * Get the statistics of the page cache
+     *
+     * @return hits, misses and evictions
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Get the entity class of the cached pages
+     *
+     * @return the entity class
+     */
+    public Class<E> entityType() {
+        return entityInformation.getJavaType();
+    }
+
+    private CachedPage toCached( final Page<E> page ) {
+        final List<Object> ids = page.content( e -> (Object) entityInformation.getId( e ) );
+        final List<Position> next = page.next().map( PageRequest::positions ).orElse( null );
+        return new CachedPage( ids, next, page.getTotalCount().orElse( null ) );
+    }
+
+    /**
+     * Create the page from the cached ids, or {@code null} if an entity does not exist anymore
+     */
+    private Page<E> toPage( final PageRequest<E> request, final CachedPage cached ) {
+        final List<E> content = findAll( cached.ids() );
+        if ( content == null ) {
+            return null;
+        }
+        final PageRequest<E> self = cached.totalCount() != null && request.totalCount().isEmpty() ? request.copy(
+                b -> b.totalCount( cached.totalCount() ) ) : request;
+        return Page.create( b -> b.content( content )
+                .self( self )
+                .next( cached.next() != null ? self.copy( n -> n.positions( cached.next() ) ) : null )
+                .entityType( entityInformation.getJavaType() ) );
+    }
+
+    private List<E> findAll( final List<Object> ids ) {
+        if ( ids.isEmpty() ) {
+            return new ArrayList<>();
+        }
+        final Map<Object, E> byId = new HashMap<>();
+        entityManager.createQuery( findAllQuery, entityInformation.getJavaType() )
+                .setParameter( "ids", ids )
+                .getResultList()
+                .forEach( e -> byId.put( entityInformation.getId( e ), e ) );
+        final List<E> content = new ArrayList<>( ids.size() );
+        for ( final Object id : ids ) {
+            final E entity = byId.get( id );
+            if ( entity == null ) {
+                return null;
+            }
+            content.add( entity );
+        }
+        return content;
+    }
+}
@@ -0,0 +1,250 @@
+package io.vigier.cursorpaging.jpa.cache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.engine.spi.TransactionCompletionCallbacks.AfterCompletionCallback;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Invalidates the page caches of {@link CachingCursorPageRepository}s when Hibernate inserts, updates or deletes an
+ * entity (or changes a collection) of a registered type.
+ * <p>
+ * The caches are invalidated when the change is flushed (for reads within the same transaction) and again after the
+ * transaction completed, as a concurrent transaction may have cached the old state in between (also for collection
+ * changes, which have no events after the commit). A transaction which flushed changes
+ * bypasses the caches until it completes, so its uncommitted state is never cached for others. Requires Hibernate as
+ * JPA provider.
+ * <p>
+ * There is one invalidator per entity manager factory: it is registered as listener with the first call of
+ * {@link #register(EntityManagerFactory)} and stays registered until the factory is closed (the listener groups are
+ * shared by all sessions and not modified afterward). Without repositories, it ignores all events.
+ */
+public final class HibernateCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private record Registration(CachingCursorPageRepository<?> repository, List<Class<?>> types) {
+    }
+
+    private static final List<EventType<?>> EVENT_TYPES = List.of( EventType.POST_INSERT, EventType.POST_UPDATE,
+            EventType.POST_DELETE, EventType.POST_COMMIT_INSERT, EventType.POST_COMMIT_UPDATE,
+            EventType.POST_COMMIT_DELETE, EventType.POST_COLLECTION_RECREATE, EventType.POST_COLLECTION_UPDATE,
+            EventType.POST_COLLECTION_REMOVE );
+
+    /**
+     * The invalidators by session factory, an entry is removed when its factory is closed
+     */
+    private static final Map<SessionFactoryImplementor, HibernateCacheInvalidator> INVALIDATORS = new HashMap<>();
+
+    private final EventListenerRegistry registry;
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+
+    /**
+     * The sessions which flushed changes of a registered type in their current transaction, with the repositories to
+     * invalidate when it completes
+     */
+    private final Map<SharedSessionContractImplementor, Set<CachingCursorPageRepository<?>>> writingSessions =
+            new ConcurrentHashMap<>();
+
+    private HibernateCacheInvalidator( final EventListenerRegistry registry ) {
+        this.registry = registry;
+    }
+
+    /**
+     * Get the invalidator of the Hibernate session factory, registering it as listener if there is none yet
+     *
+     * @param entityManagerFactory the entity manager factory (of Hibernate)
+     * @return the invalidator, to add the repositories
+     */
+    public static HibernateCacheInvalidator register( final EntityManagerFactory entityManagerFactory ) {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap( SessionFactoryImplementor.class );
+        synchronized ( INVALIDATORS ) {
+            return INVALIDATORS.computeIfAbsent( sessionFactory, sf -> {
+                final HibernateCacheInvalidator invalidator = new HibernateCacheInvalidator(
+                        sf.getEventListenerRegistry() );
+                EVENT_TYPES.forEach( type -> invalidator.listenTo( type ) );
+                sf.addObserver( new SessionFactoryObserver() {
+                    @Override
+                    public void sessionFactoryClosed( final SessionFactory factory ) {
+                        synchronized ( INVALIDATORS ) {
+                            INVALIDATORS.remove( sf );
+                        }
+                    }
+                } );
+                return invalidator;
+            } );
+        }
+    }
+
+    /**
+     * Invalidate the cache of the repository on changes of its entity type (incl. subclasses) and the given types, e.g.
+     * related entities used in filters.
+     *
+     * @param repository the repository
+     * @param dependsOn  further entity types the cached pages depend on
+     * @return this invalidator
+     */
+    public HibernateCacheInvalidator add( final CachingCursorPageRepository<?> repository,
+            final Class<?>... dependsOn ) {
+        final List<Class<?>> types = new ArrayList<>( List.of( dependsOn ) );
+        types.add( repository.entityType() );
+        registrations.add( new Registration( repository, List.copyOf( types ) ) );
+        repository.bypassWhen( this::hasFlushedChanges );
+        return this;
+    }
+
+    /**
+     * Stop invalidating the cache of the repository. The invalidator stays registered as listener, without
+     * repositories it ignores all events.
+     *
+     * @param repository the repository
+     */
+    public void remove( final CachingCursorPageRepository<?> repository ) {
+        registrations.removeIf( r -> r.repository() == repository );
+        repository.bypassWhen( null );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private <T> void listenTo( final EventType<T> type ) {
+        registry.getEventListenerGroup( type ).appendListener( (T) this );
+    }
+
+    private boolean hasFlushedChanges( final EntityManager entityManager ) {
+        return !writingSessions.isEmpty() && writingSessions.containsKey( entityManager.getDelegate() );
+    }
+
+    /**
+     * Remember the session and the invalidated repositories until its transaction completes (a session is used by one
+     * thread at a time)
+     */
+    private void flushed( final SharedSessionContractImplementor session,
+            final List<CachingCursorPageRepository<?>> invalidated ) {
+        if ( invalidated.isEmpty() || !session.isTransactionInProgress() ) {
+            return;
+        }
+        Set<CachingCursorPageRepository<?>> repositories = writingSessions.get( session );
+        if ( repositories == null ) {
+            repositories = ConcurrentHashMap.newKeySet();
+            writingSessions.put( session, repositories );
+            session.getTransactionCompletionCallbacks()
+                    .registerCallback( (AfterCompletionCallback) ( _, s ) -> completed( s ) );
+        }
+        repositories.addAll( invalidated );
+    }
+
+    /**
+     * Invalidate the repositories changed by the session again, as others may have cached the old state meanwhile
+     */
+    private void completed( final SharedSessionContractImplementor session ) {
+        final Set<CachingCursorPageRepository<?>> repositories = writingSessions.remove( session );
+        if ( repositories != null ) {
+            repositories.forEach( CachingCursorPageRepository::invalidate );
+        }
+    }
+
+    /**
+     * @return the invalidated repositories
+     */
+    private List<CachingCursorPageRepository<?>> invalidate( final Class<?> changedType ) {
+        final List<CachingCursorPageRepository<?>> invalidated = new ArrayList<>();
+        for ( final Registration registration : registrations ) {
+            for ( final Class<?> type : registration.types() ) {
+                if ( type.isAssignableFrom( changedType ) ) {
+                    registration.repository().invalidate();
+                    invalidated.add( registration.repository() );
+                    break;
+                }
+            }
+        }
+        return invalidated;
+    }
+
+    private void invalidate( final AbstractCollectionEvent event ) {
+        final Object owner = event.getAffectedOwnerOrNull();
+        if ( owner != null ) {
+            flushed( event.getSession(), invalidate( owner.getClass() ) );
+        } else {
+            final List<CachingCursorPageRepository<?>> invalidated = registrations.stream()
+                    .<CachingCursorPageRepository<?>>map( Registration::repository )
+                    .toList();
+            invalidated.forEach( CachingCursorPageRepository::invalidate );
+            flushed( event.getSession(), invalidated );
+        }
+    }
+
+    @Override
+    public void onPostInsert( final PostInsertEvent event ) {
+        flushed( event.getSession(), invalidate( event.getPersister().getMappedClass() ) );
+    }
+
+    @Override
+    public void onPostInsertCommitFailed( final PostInsertEvent event ) {
+        invalidate( event.getPersister().getMappedClass() );
+    }
+
+    @Override
+    public void onPostUpdate( final PostUpdateEvent event ) {
+        flushed( event.getSession(), invalidate( event.getPersister().getMappedClass() ) );
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed( final PostUpdateEvent event ) {
+        invalidate( event.getPersister().getMappedClass() );
+    }
+
+    @Override
+    public void onPostDelete( final PostDeleteEvent event ) {
+        flushed( event.getSession(), invalidate( event.getPersister().getMappedClass() ) );
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed( final PostDeleteEvent event ) {
+        invalidate( event.getPersister().getMappedClass() );
+    }
+
+    @Override
+    public void onPostRecreateCollection( final PostCollectionRecreateEvent event ) {
+        invalidate( event );
+    }
+
+    @Override
+    public void onPostUpdateCollection( final PostCollectionUpdateEvent event ) {
+        invalidate( event );
+    }
+
+    @Override
+    public void onPostRemoveCollection( final PostCollectionRemoveEvent event ) {
+        invalidate( event );
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling( final EntityPersister persister ) {
+        return !registrations.isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package io.vigier.cursorpaging.jpa.cache;
+
+import jakarta.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size bounded cache, evicting the least recently used entry. All operations are synchronized, the statistics are
+ * available with {@link #stats()}.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public final class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new {@link LruCache}.
+     *
+     * @param maximumSize the maximum number of entries
+     */
+    public LruCache( final int maximumSize ) {
+        if ( maximumSize < 1 ) {
+            throw new IllegalArgumentException( "Maximum size must be positive: " + maximumSize );
+        }
+        this.entries = new LinkedHashMap<>( 16, 0.75f, true ) {
+            @Override
+            protected boolean removeEldestEntry( final Map.Entry<K, V> eldest ) {
+                if ( size() > maximumSize ) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a cached value
+     *
+     * @param key the key
+     * @return the value or {@code null} if not cached
+     */
+    public @Nullable V get( final K key ) {
+        final V value;
+        synchronized ( entries ) {
+            value = entries.get( key );
+        }
+        ( value != null ? hits : misses ).increment();
+        return value;
+    }
+
+    /**
+     * Cache a value
+     *
+     * @param key   the key
+     * @param value the value (not {@code null})
+     */
+    public void put( final K key, final V value ) {
+        synchronized ( entries ) {
+            entries.put( key, value );
+        }
+    }
+
+    /**
+     * Remove a cached value
+     *
+     * @param key the key
+     */
+    public void invalidate( final K key ) {
+        synchronized ( entries ) {
+            entries.remove( key );
+        }
+    }
+
+    /**
+     * Remove all cached values
+     */
+    public void invalidateAll() {
+        synchronized ( entries ) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get the number of cached values
+     *
+     * @return the size
+     */
+    public int size() {
+        synchronized ( entries ) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Get the statistics of the cache
+     *
+     * @return the current statistics
+     */
+    public CacheStats stats() {
+        return new CacheStats( hits.sum(), misses.sum(), evictions.sum(), size() );
+    }
+}
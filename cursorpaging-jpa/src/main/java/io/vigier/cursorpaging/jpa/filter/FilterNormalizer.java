@@ -0,0 +1,333 @@
+package io.vigier.cursorpaging.jpa.filter;
+
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Filter;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Normalizes a tree of filters before it is translated into a query:
+ * <ul>
+ *     <li>nested lists of the same type are flattened, duplicates removed</li>
+ *     <li>empty filters and {@link FilterType#ALWAYS} are folded into the surrounding list</li>
+ *     <li>within an and-list, the ranges and in-sets on the same attribute are merged, and contradictions (e.g.
+ *     {@code > 10 and < 5}) are detected</li>
+ *     <li>within an or-list, the in-sets (and like-patterns) on the same attribute are merged</li>
+ * </ul>
+ * Merging in-sets and detecting contradictions is only done for single-valued attributes: conditions on a collection
+ * can be fulfilled by different elements. It is also restricted to numeric and temporal types without a zone or
+ * offset, where values are ordered (and equal) in Java the same way as in the database: strings depend on the
+ * collation (e.g. case-insensitive), enums stored by name are not ordered like their ordinal, and UUIDs are compared
+ * signed in Java but unsigned in the database. Other query elements (e.g. a
+ * {@link io.vigier.cursorpaging.jpa.FilterRule}) are kept as they are.
+ * <p>
+ * The result matching all entities is an empty {@link AndFilter}, the result matching none is
+ * {@link Filters#filterAll()} (see {@link #matchesNothing(QueryElement)}).
+ */
+public final class FilterNormalizer {
+
+    private static final QueryElement ALL = AndFilter.of();
+    private static final QueryElement NONE = Filters.filterAll();
+
+    /**
+     * The types whose values are compared the same way in Java and in the database
+     */
+    private static final Set<Class<?>> ORDERED_TYPES = Set.of( Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, Instant.class, LocalDate.class,
+            LocalDateTime.class, LocalTime.class, Year.class, YearMonth.class );
+
+    private final Predicate<Attribute> singleValued;
+
+    private FilterNormalizer( final Predicate<Attribute> singleValued ) {
+        this.singleValued = singleValued;
+    }
+
+    /**
+     * Normalize the filter tree
+     *
+     * @param element      the filters
+     * @param singleValued tells if an attribute has a single value per entity (i.e. its path does not cross a
+     *                     collection)
+     * @return the normalized filters, matching the same entities
+     */
+    public static QueryElement normalize( final QueryElement element, final Predicate<Attribute> singleValued ) {
+        return new FilterNormalizer( singleValued ).normalize( element );
+    }
+
+    /**
+     * Checks if the (normalized) filters provably match no entity
+     *
+     * @param element the filters
+     * @return {@code true} if no entity can match
+     */
+    public static boolean matchesNothing( final QueryElement element ) {
+        return element instanceof final Filter f && f.operation() == FilterType.ALWAYS && !isTrue( f );
+    }
+
+    private static boolean matchesAll( final QueryElement element ) {
+        return switch ( element ) {
+            case final Filter f when f.operation() == FilterType.ALWAYS -> isTrue( f );
+            case final Filter f -> f.isEmpty();
+            case final FilterList l -> l.isEmpty();
+            default -> false;
+        };
+    }
+
+    private static boolean isTrue( final Filter always ) {
+        return !always.values().isEmpty() && Boolean.TRUE.equals( always.values().getFirst() );
+    }
+
+    private QueryElement normalize( final QueryElement element ) {
+        return switch ( element ) {
+            case final AndFilter and -> normalizeAnd( and );
+            case final OrFilter or -> normalizeOr( or );
+            case final Filter f when matchesAll( f ) -> ALL;
+            case final Filter f when f.operation() == FilterType.ALWAYS -> NONE;
+            case final Filter f -> withDistinctValues( f );
+            default -> element;
+        };
+    }
+
+    private QueryElement normalizeAnd( final AndFilter and ) {
+        final Set<QueryElement> elements = new LinkedHashSet<>();
+        for ( final QueryElement child : and ) {
+            final QueryElement normalized = normalize( child );
+            if ( matchesNothing( normalized ) ) {
+                return NONE;
+            }
+            if ( normalized instanceof final AndFilter nested ) {
+                elements.addAll( nested.filters() );
+            } else if ( !matchesAll( normalized ) ) {
+                elements.add( normalized );
+            }
+        }
+        final List<QueryElement> merged = mergeAnd( elements );
+        if ( merged == null ) {
+            return NONE;
+        }
+        return merged.size() == 1 ? merged.getFirst() : AndFilter.of( merged );
+    }
+
+    private QueryElement normalizeOr( final OrFilter or ) {
+        if ( or.isEmpty() ) {
+            return ALL;
+        }
+        final Set<QueryElement> elements = new LinkedHashSet<>();
+        for ( final QueryElement child : or ) {
+            final QueryElement normalized = normalize( child );
+            if ( matchesAll( normalized ) ) {
+                return ALL;
+            }
+            if ( normalized instanceof final OrFilter nested ) {
+                elements.addAll( nested.filters() );
+            } else if ( !matchesNothing( normalized ) ) {
+                elements.add( normalized );
+            }
+        }
+        final List<QueryElement> merged = mergeOr( elements );
+        if ( merged.isEmpty() ) {
+            return NONE;
+        }
+        return merged.size() == 1 ? merged.getFirst() : OrFilter.of( merged );
+    }
+
+    /**
+     * Merge the filters on the same attribute: one lower and one upper bound, the intersection of the in-sets (for
+     * single-valued attributes). Only done for attributes of one of the {@link #ORDERED_TYPES}.
+     *
+     * @return the merged elements, or {@code null} if they contradict each other
+     */
+    private List<QueryElement> mergeAnd( final Collection<QueryElement> elements ) {
+        final Map<Object, Object> groups = new LinkedHashMap<>();
+        for ( final QueryElement element : elements ) {
+            if ( element instanceof final Filter f && isOrdered( f ) && f.operation() != FilterType.LIKE ) {
+                ((Conditions) groups.computeIfAbsent( f.attribute(), a -> new Conditions( f.attribute() ) )).add( f );
+            } else {
+                groups.put( element, element );
+            }
+        }
+        final List<QueryElement> merged = new ArrayList<>( elements.size() );
+        for ( final Object group : groups.values() ) {
+            if ( group instanceof final Conditions conditions ) {
+                final List<Filter> filters = conditions.merge();
+                if ( filters == null ) {
+                    return null;
+                }
+                merged.addAll( filters );
+            } else {
+                merged.add( (QueryElement) group );
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Merge the equal-to and like filters on the same attribute (union of the values)
+     */
+    private static List<QueryElement> mergeOr( final Collection<QueryElement> elements ) {
+        final Map<Object, QueryElement> merged = new LinkedHashMap<>();
+        for ( final QueryElement element : elements ) {
+            if ( element instanceof final Filter f && (f.operation() == FilterType.EQUAL_TO
+                    || f.operation() == FilterType.LIKE) ) {
+                merged.merge( List.of( f.attribute(), f.operation() ), f,
+                        ( a, b ) -> filter( f.attribute(), f.operation(), union( ((Filter) a).values(), f.values() ) ) );
+            } else {
+                merged.put( element, element );
+            }
+        }
+        return List.copyOf( merged.values() );
+    }
+
+    private static Filter withDistinctValues( final Filter f ) {
+        final List<? extends Comparable<?>> distinct = f.values().stream().distinct().toList();
+        return distinct.size() == f.values().size() ? f : filter( f.attribute(), f.operation(), distinct );
+    }
+
+    private static boolean isOrdered( final Filter f ) {
+        final Class<?> type = f.attribute().type();
+        return type != null && ORDERED_TYPES.contains( type ) && f.values().stream().allMatch( type::isInstance );
+    }
+
+    private static List<Comparable<?>> union( final List<? extends Comparable<?>> a,
+            final List<? extends Comparable<?>> b ) {
+        // not List.copyOf(): a filter (e.g. a subclass) may hold null values
+        final Set<Comparable<?>> values = new LinkedHashSet<>( a );
+        values.addAll( b );
+        return Collections.unmodifiableList( new ArrayList<>( values ) );
+    }
+
+    private static Filter filter( final Attribute attribute, final FilterType operation,
+            final List<? extends Comparable<?>> values ) {
+        return new Filter( attribute, operation, values );
+    }
+
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private static int compare( final Comparable<?> a, final Comparable<?> b ) {
+        return ((Comparable) a).compareTo( b );
+    }
+
+    /**
+     * The and-combined conditions on one attribute
+     */
+    private final class Conditions {
+
+        private final Attribute attribute;
+        private final List<Filter> equalTo = new ArrayList<>();
+        private Comparable<?> lower;
+        private boolean lowerInclusive;
+        private Comparable<?> upper;
+        private boolean upperInclusive;
+
+        private Conditions( final Attribute attribute ) {
+            this.attribute = attribute;
+        }
+
+        void add( final Filter f ) {
+            for ( final Comparable<?> value : f.values() ) {
+                switch ( f.operation() ) {
+                    case GREATER_THAN -> lower( value, false );
+                    case GREATER_THAN_OR_EQUAL_TO -> lower( value, true );
+                    case LESS_THAN -> upper( value, false );
+                    case LESS_THAN_OR_EQUAL_TO -> upper( value, true );
+                    default -> {
+                    }
+                }
+            }
+            if ( f.operation() == FilterType.EQUAL_TO ) {
+                equalTo.add( f );
+            }
+        }
+
+        private void lower( final Comparable<?> value, final boolean inclusive ) {
+            final int c = lower == null ? 1 : compare( value, lower );
+            if ( c > 0 || (c == 0 && !inclusive) ) {
+                lower = value;
+                lowerInclusive = inclusive;
+            }
+        }
+
+        private void upper( final Comparable<?> value, final boolean inclusive ) {
+            final int c = upper == null ? -1 : compare( value, upper );
+            if ( c < 0 || (c == 0 && !inclusive) ) {
+                upper = value;
+                upperInclusive = inclusive;
+            }
+        }
+
+        /**
+         * @return the merged filters, {@code null} if the conditions contradict each other
+         */
+        List<Filter> merge() {
+            if ( !singleValued.test( attribute ) ) {
+                return filters( equalTo ); // bounds in the same direction can be merged for collections too
+            }
+            if ( lower != null && upper != null ) {
+                final int c = compare( lower, upper );
+                if ( c > 0 || (c == 0 && !(lowerInclusive && upperInclusive)) ) {
+                    return null;
+                }
+            }
+            if ( equalTo.isEmpty() || attribute.ignoreCase() ) {
+                return filters( equalTo );
+            }
+            Set<Comparable<?>> values = null;
+            for ( final Filter f : equalTo ) {
+                if ( values == null ) {
+                    values = new LinkedHashSet<>( f.values() );
+                } else {
+                    // compared, not equals(): 1.0 and 1.00 are the same BigDecimal in the database
+                    values.removeIf( v -> f.values().stream().noneMatch( o -> compare( v, o ) == 0 ) );
+                }
+            }
+            values.removeIf( v -> !inRange( v ) );
+            // the in-set implies the bounds
+            return values.isEmpty() ? null : List.of( filter( attribute, FilterType.EQUAL_TO, List.copyOf( values ) ) );
+        }
+
+        private boolean inRange( final Comparable<?> value ) {
+            if ( lower != null ) {
+                final int c = compare( value, lower );
+                if ( c < 0 || (c == 0 && !lowerInclusive) ) {
+                    return false;
+                }
+            }
+            if ( upper != null ) {
+                final int c = compare( value, upper );
+                return c < 0 || (c == 0 && upperInclusive);
+            }
+            return true;
+        }
+
+        private List<Filter> filters( final List<Filter> equalToFilters ) {
+            final List<Filter> filters = new ArrayList<>( equalToFilters.size() + 2 );
+            filters.addAll( equalToFilters );
+            if ( lower != null ) {
+                filters.add( filter( attribute,
+                        lowerInclusive ? FilterType.GREATER_THAN_OR_EQUAL_TO : FilterType.GREATER_THAN,
+                        List.of( lower ) ) );
+            }
+            if ( upper != null ) {
+                filters.add( filter( attribute,
+                        upperInclusive ? FilterType.LESS_THAN_OR_EQUAL_TO : FilterType.LESS_THAN, List.of( upper ) ) );
+            }
+            return filters;
+        }
+    }
+}
@@ -3,15 +3,34 @@ package io.vigier.cursorpaging.jpa.impl;
 import io.vigier.cursorpaging.jpa.Attribute;
 import io.vigier.cursorpaging.jpa.Order;
 import io.vigier.cursorpaging.jpa.QueryBuilder;
+import io.vigier.cursorpaging.jpa.QueryOptions;
+import io.vigier.cursorpaging.jpa.SingleAttribute;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.ParameterExpression;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +39,14 @@ import lombok.experimental.Accessors;
 /**
  * Wrapper of CriteriaQuery, CriteriaBuilder, Root and EntityType, and also adds some methods to build the
  * position-queries
+ * <p>
+ * The joins needed for nested attribute paths are registered per builder (i.e. per query), so that a to-one
+ * association or embeddable used by positions, order and filters is joined only once. Conditions on attributes of a
+ * collection (to-many association, element collection) are created as correlated {@code EXISTS} subqueries, so they do
+ * not multiply the rows of the query and no {@code DISTINCT} is needed.
+ * <p>
+ * Some conditions (e.g. {@link QueryOptions.InList#ARRAY}) use parameters, so the query must be created with
+ * {@link #createQuery()}, which binds them.
  *
  * @param <E> EntityType
  * @param <R> ResultType
@@ -34,14 +61,36 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
         AND, OR
     }
 
+    private record JoinKey(From<?, ?> parent, String name) {
+    }
+
+    /**
+     * Range {@code [from, to)} matching the same strings as a like-pattern with a fixed prefix
+     */
+    record LikeRange(String from, String to) {
+    }
+
+    private static final char LIKE_ESCAPE = '\\';
+
     private final CriteriaQuery<R> query;
     private final CriteriaBuilder cb;
     private final Root<E> root;
     private final Class<E> entityType;
     private final EntityManager entityManager;
+    @Builder.Default
+    private final QueryOptions options = QueryOptions.DEFAULT;
+    @Getter( AccessLevel.NONE )
+    private final Map<JoinKey, Join<?, ?>> joins = new HashMap<>();
+    @Getter( AccessLevel.NONE )
+    private final Map<ParameterExpression<?>, Object> parameters = new HashMap<>();
 
     public static <T> CriteriaQueryBuilder<T, T> forEntity( final Class<T> entityType,
             final EntityManager entityManager ) {
+        return forEntity( entityType, entityManager, QueryOptions.DEFAULT );
+    }
+
+    public static <T> CriteriaQueryBuilder<T, T> forEntity( final Class<T> entityType,
+            final EntityManager entityManager, final QueryOptions options ) {
         final var cb = entityManager.getCriteriaBuilder();
         final var query = cb.createQuery( entityType );
         final var root = query.from( entityType );
@@ -52,11 +101,17 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
                 .root( root )
                 .entityType( entityType )
                 .entityManager( entityManager )
+                .options( options )
                 .build();
     }
 
     public static <E> CriteriaQueryBuilder<E, Long> forCount( final Class<E> entityType,
             final EntityManager entityManager ) {
+        return forCount( entityType, entityManager, QueryOptions.DEFAULT );
+    }
+
+    public static <E> CriteriaQueryBuilder<E, Long> forCount( final Class<E> entityType,
+            final EntityManager entityManager, final QueryOptions options ) {
         final var cb = entityManager.getCriteriaBuilder();
         final var query = cb.createQuery( Long.class );
         final var root = query.from( entityType );
@@ -67,16 +122,130 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
                 .root( root )
                 .entityType( entityType )
                 .entityManager( entityManager )
+                .options( options )
                 .build();
     }
 
+    /**
+     * Get the path-expression of the attribute. Intermediate attributes are (left) joined, joins of singular attributes
+     * (to-one associations, embeddables) are reused for all paths of this query. Joins of plural attributes are not
+     * reused: two conditions on the same collection must be able to match different elements.
+     *
+     * @param attribute the attribute
+     * @param <V>       Value type
+     * @return the path-expression to the attribute
+     */
+    @Override
+    public <V extends Comparable<? super V>> Expression<V> path( final Attribute attribute ) {
+        return path( root, attribute, true );
+    }
+
+    private <V extends Comparable<? super V>> Expression<V> path( final From<?, ?> start, final Attribute attribute,
+            final boolean reuseJoins ) {
+        final List<SingleAttribute> attributes = attribute.attributes();
+        From<?, ?> from = start;
+        for ( int i = 0; i < attributes.size() - 1; i++ ) {
+            final String name = attributes.get( i ).name();
+            from = reuseJoins ? join( from, name ) : from.join( name, JoinType.LEFT );
+        }
+        return from.get( attributes.getLast().name() );
+    }
+
+    private From<?, ?> join( final From<?, ?> parent, final String name ) {
+        final var key = new JoinKey( parent, name );
+        final Join<?, ?> existing = joins.get( key );
+        if ( existing != null ) {
+            return existing;
+        }
+        final Join<?, ?> join = parent.join( name, JoinType.LEFT );
+        if ( !join.getAttribute().isCollection() ) {
+            joins.put( key, join );
+        }
+        return join;
+    }
+
+    /**
+     * Create the condition for the attribute. If the attribute path crosses a collection, the condition is wrapped
+     * into a correlated {@code EXISTS} subquery (with its own left joins, i.e. the same semantic as a condition on a
+     * left join of the collection in the main query). Without a query (e.g. a builder created for the root of a
+     * {@code Specification}), there is no subquery and the collection is left joined.
+     */
+    private <V extends Comparable<? super V>> Predicate where( final Attribute attribute,
+            final Function<Expression<V>, Predicate> condition ) {
+        if ( query == null || !crossesCollection( attribute ) ) {
+            return condition.apply( path( attribute ) );
+        }
+        final Subquery<Integer> subquery = query.subquery( Integer.class );
+        final Root<E> correlated = subquery.correlate( root );
+        subquery.select( cb.literal( 1 ) ).where( condition.apply( path( correlated, attribute, false ) ) );
+        return cb.exists( subquery );
+    }
+
+    private boolean crossesCollection( final Attribute attribute ) {
+        return crossesCollection( root.getModel(), attribute );
+    }
+
+    /**
+     * Checks if the path of the attribute crosses a collection (to-many association, element collection), i.e. the
+     * attribute can have multiple values per entity
+     *
+     * @param entity    the type the path starts at
+     * @param attribute the attribute
+     * @return {@code true} if the path crosses a collection
+     */
+    static boolean crossesCollection( final ManagedType<?> entity, final Attribute attribute ) {
+        ManagedType<?> type = entity;
+        try {
+            for ( final SingleAttribute a : attribute.attributes() ) {
+                if ( type == null ) {
+                    return false;
+                }
+                final var metaAttribute = type.getAttribute( a.name() );
+                if ( metaAttribute.isCollection() ) {
+                    return true;
+                }
+                type = metaAttribute instanceof final SingularAttribute<?, ?> sa
+                        && sa.getType() instanceof final ManagedType<?> managedType ? managedType : null;
+            }
+        } catch ( final IllegalArgumentException e ) {
+            return false; // unknown attribute, creating the path will report it
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the query contains a join which can multiply the result rows (a collection join or fetch, e.g. created
+     * by a custom {@link io.vigier.cursorpaging.jpa.FilterRule}, or an additional root). Only then the page query needs
+     * to be {@code DISTINCT}.
+     *
+     * @return {@code true} if the query needs to be distinct
+     */
+    public boolean isDistinctRequired() {
+        return query.getRoots().size() > 1 || hasCollectionJoin( root );
+    }
+
+    private static boolean hasCollectionJoin( final From<?, ?> from ) {
+        for ( final Join<?, ?> join : from.getJoins() ) {
+            if ( join.getAttribute() == null || join.getAttribute().isCollection() || hasCollectionJoin( join ) ) {
+                return true;
+            }
+        }
+        for ( final Fetch<?, ?> fetch : from.getFetches() ) {
+            if ( fetch.getAttribute().isCollection() || (fetch instanceof final From<?, ?> f && hasCollectionJoin(
+                    f )) ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public Predicate lessThan( final Attribute attribute, final Comparable<?> value ) {
         return createLessThan( attribute, attribute.type().cast( value ) );
     }
 
     private <V extends Comparable<? super V>> Predicate createLessThan( final Attribute attribute, final V value ) {
-        return cb.lessThan( attribute.path( root ), value );
+        return this.<V>where( attribute, p -> cb.lessThan( p, value ) );
     }
 
     @Override
@@ -86,7 +255,7 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
 
     private <V extends Comparable<? super V>> Predicate createLessThanOrEqualTo( final Attribute attribute,
             final V value ) {
-        return cb.lessThanOrEqualTo( attribute.path( root ), value );
+        return this.<V>where( attribute, p -> cb.lessThanOrEqualTo( p, value ) );
     }
 
     @Override
@@ -95,7 +264,7 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
     }
 
     private <V extends Comparable<? super V>> Predicate createGreaterThan( final Attribute attribute, final V value ) {
-        return cb().greaterThan( attribute.path( root ), value );
+        return this.<V>where( attribute, p -> cb.greaterThan( p, value ) );
     }
 
     @Override
@@ -105,16 +274,95 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
 
     private <V extends Comparable<? super V>> Predicate createGreaterThanOrEqualTo( final Attribute attribute,
             final V value ) {
-        return cb.greaterThanOrEqualTo( attribute.path( root ), value );
+        return this.<V>where( attribute, p -> cb.greaterThanOrEqualTo( p, value ) );
+    }
+
+    /**
+     * Create the typed query of this builder, with all parameters bound
+     *
+     * @return the typed query
+     */
+    public TypedQuery<R> createQuery() {
+        final TypedQuery<R> typedQuery = entityManager.createQuery( query );
+        parameters.forEach( ( parameter, value ) -> bind( typedQuery, parameter, value ) );
+        return typedQuery;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static <T> void bind( final TypedQuery<?> typedQuery, final Parameter<T> parameter, final Object value ) {
+        typedQuery.setParameter( parameter, (T) value );
     }
 
     @Override
     public Predicate isIn( final Attribute attribute, final Collection<?> values ) {
         if ( attribute.ignoreCase() && CharSequence.class.isAssignableFrom( attribute.type() ) ) {
-            return cb.lower( attribute.path( root ) )
-                    .in( values.stream().map( v -> v.toString().toLowerCase() ).toList() );
+            final var lowerValues = values.stream().map( v -> v.toString().toLowerCase( Locale.ROOT ) ).toList();
+            return this.<String>where( attribute, p -> in( cb.lower( p ), String.class, lowerValues ) );
+        }
+        return createIsIn( attribute, values );
+    }
+
+    private <V extends Comparable<? super V>> Predicate createIsIn( final Attribute attribute,
+            final Collection<?> values ) {
+        return this.<V>where( attribute, p -> in( p, attribute.type(), values ) );
+    }
+
+    private Predicate in( final Expression<?> expression, final Class<?> type, final Collection<?> values ) {
+        if ( values.size() < options.inListThreshold() ) {
+            return expression.in( values );
+        }
+        return switch ( options.inList() ) {
+            case PLAIN -> expression.in( values );
+            case CHUNKED -> inChunks( expression, values );
+            case ARRAY -> type.isEnum() ? inChunks( expression, values ) : inArray( expression, type, values );
+        };
+    }
+
+    private Predicate inChunks( final Expression<?> expression, final Collection<?> values ) {
+        final List<List<Object>> chunks = chunks( values, options.inListChunkSize() );
+        if ( chunks.size() == 1 ) {
+            return expression.in( chunks.getFirst() );
+        }
+        return cb.or( chunks.stream().map( expression::in ).toArray( Predicate[]::new ) );
+    }
+
+    private Predicate inArray( final Expression<?> expression, final Class<?> type, final Collection<?> values ) {
+        final Object[] array = values.toArray( (Object[]) Array.newInstance( type, values.size() ) );
+        final ParameterExpression<?> parameter = cb.parameter( array.getClass() );
+        parameters.put( parameter, array );
+        // Hibernate's sql() function, as "any" is a (boolean) aggregate function in HQL
+        return cb.isTrue( cb.function( "sql", Boolean.class, cb.literal( "(? = any(?))" ), expression, parameter ) );
+    }
+
+    /**
+     * Split the values into lists of at most {@code chunkSize} values. The last list is padded with its last value to
+     * the next power of two (or the chunk size), so that the number of different list sizes stays small.
+     *
+     * @param values    the values (not empty)
+     * @param chunkSize the maximum size of a list
+     * @return the lists
+     */
+    static List<List<Object>> chunks( final Collection<?> values, final int chunkSize ) {
+        if ( chunkSize < 1 ) {
+            throw new IllegalArgumentException( "In-list chunk size must be positive: " + chunkSize );
+        }
+        final List<List<Object>> chunks = new ArrayList<>( (values.size() + chunkSize - 1) / chunkSize );
+        List<Object> chunk = null;
+        for ( final Object value : values ) {
+            if ( chunk == null || chunk.size() == chunkSize ) {
+                chunk = new ArrayList<>( chunkSize );
+                chunks.add( chunk );
+            }
+            chunk.add( value );
+        }
+        if ( chunk != null && chunk.size() < chunkSize ) {
+            final int padded = Math.min( chunkSize, Integer.highestOneBit( chunk.size() - 1 ) << 1 );
+            final Object last = chunk.getLast();
+            while ( chunk.size() < padded ) {
+                chunk.add( last );
+            }
         }
-        return attribute.path( root ).in( values );
+        return chunks;
     }
 
     @Override
@@ -123,17 +371,87 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
             return isNull( attribute );
         }
         if ( attribute.ignoreCase() && CharSequence.class.isAssignableFrom( attribute.type() ) ) {
-            return cb.equal( cb.lower( attribute.path( root ) ), value.toString().toLowerCase() );
+            final var lowerValue = value.toString().toLowerCase( Locale.ROOT );
+            return this.<String>where( attribute, p -> cb.equal( cb.lower( p ), lowerValue ) );
         }
-        return cb.equal( attribute.path( root ), value );
+        return createEqualTo( attribute, value );
+    }
+
+    private <V extends Comparable<? super V>> Predicate createEqualTo( final Attribute attribute,
+            final Object value ) {
+        return this.<V>where( attribute, p -> cb.equal( p, value ) );
     }
 
     @Override
     public Predicate isLike( final Attribute attribute, final String value ) {
-        if ( attribute.ignoreCase() && CharSequence.class.isAssignableFrom( attribute.type() ) ) {
-            return cb.like( cb.lower( attribute.path( root ) ), value.toLowerCase() );
+        checkLeadingWildcard( attribute, value );
+        final boolean lower = attribute.ignoreCase() && CharSequence.class.isAssignableFrom( attribute.type() );
+        final String pattern = lower ? value.toLowerCase( Locale.ROOT ) : value;
+        final LikeRange range = options.likePrefixAsRange() && attribute.type() == String.class ? likeRange(
+                pattern ) : null;
+        return this.<String>where( attribute, p -> {
+            final Expression<String> expression = lower ? cb.lower( p ) : p;
+            if ( range != null ) {
+                return cb.and( cb.greaterThanOrEqualTo( expression, range.from() ),
+                        cb.lessThan( expression, range.to() ) );
+            }
+            return cb.like( expression, pattern );
+        } );
+    }
+
+    private void checkLeadingWildcard( final Attribute attribute, final String pattern ) {
+        if ( pattern.isEmpty() || (pattern.charAt( 0 ) != '%' && pattern.charAt( 0 ) != '_') ) {
+            return;
+        }
+        switch ( options.leadingWildcard() ) {
+            case ALLOW -> {
+            }
+            case REPORT -> options.leadingWildcardHandler().accept( attribute, pattern );
+            case REJECT -> throw new IllegalArgumentException(
+                    "Like-pattern with leading wildcard is not allowed: %s like '%s'".formatted( attribute.name(),
+                            pattern ) );
         }
-        return cb.like( attribute.path( root ), value );
+    }
+
+    /**
+     * Get the range matching a like-pattern of the form {@code prefix%}. The upper bound is the prefix with its last
+     * character incremented, which is only correct for a code point ordered (binary) collation. Wildcards escaped with
+     * a backslash (the default escape character of the databases, e.g. {@code abc\_%}) are part of the prefix.
+     *
+     * @param pattern the like-pattern
+     * @return the range, or {@code null} if the pattern is not a prefix pattern (or has no computable upper bound)
+     */
+    static LikeRange likeRange( final String pattern ) {
+        final int end = pattern.length() - 1;
+        if ( end < 1 || pattern.charAt( end ) != '%' ) {
+            return null;
+        }
+        final StringBuilder prefix = new StringBuilder( end );
+        for ( int i = 0; i < end; i++ ) {
+            char c = pattern.charAt( i );
+            if ( c == LIKE_ESCAPE ) {
+                if ( ++i == end ) {
+                    // the trailing % is escaped
+                    return null;
+                }
+                c = pattern.charAt( i );
+            } else if ( c == '%' || c == '_' ) {
+                return null;
+            }
+            // surrogates: UTF-16 order differs from code point order
+            if ( Character.isSurrogate( c ) ) {
+                return null;
+            }
+            prefix.append( c );
+        }
+        final char last = prefix.charAt( prefix.length() - 1 );
+        final char next = (char) (last + 1);
+        if ( last == Character.MAX_VALUE || Character.isSurrogate( next ) ) {
+            return null;
+        }
+        final String from = prefix.toString();
+        prefix.setCharAt( prefix.length() - 1, next );
+        return new LikeRange( from, prefix.toString() );
     }
 
     private void addWhere( final List<Predicate> conditions, final AppendMode appendMode ) {
@@ -179,8 +497,8 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
     public void orderBy( final Attribute attribute, final Order order ) {
         final List<jakarta.persistence.criteria.Order> orderSpecs = new LinkedList<>( query().getOrderList() );
         orderSpecs.add( switch ( order ) {
-            case ASC -> cb().asc( attribute.path( root ) );
-            case DESC -> cb().desc( attribute.path( root ) );
+            case ASC -> cb().asc( path( attribute ) );
+            case DESC -> cb().desc( path( attribute ) );
         } );
         query().orderBy( orderSpecs );
     }
@@ -188,7 +506,11 @@ public class CriteriaQueryBuilder<E, R> implements QueryBuilder {
 
     @Override
     public Predicate isNull( final Attribute attribute ) {
-        return cb.isNull( attribute.path( root ) );
+        return createIsNull( attribute );
+    }
+
+    private <V extends Comparable<? super V>> Predicate createIsNull( final Attribute attribute ) {
+        return this.<V>where( attribute, cb::isNull );
     }
 
     @Override
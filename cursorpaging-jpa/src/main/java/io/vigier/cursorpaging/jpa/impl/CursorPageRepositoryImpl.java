@@ -4,9 +4,13 @@ package io.vigier.cursorpaging.jpa.impl;
 import io.vigier.cursorpaging.jpa.Order;
 import io.vigier.cursorpaging.jpa.Page;
 import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import io.vigier.cursorpaging.jpa.QueryOptions;
+import io.vigier.cursorpaging.jpa.filter.FilterNormalizer;
 import io.vigier.cursorpaging.jpa.repository.CursorPageRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.ManagedType;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -27,6 +31,7 @@ public class CursorPageRepositoryImpl<E> implements CursorPageRepository<E> {
     private static final int ADDED_TO_PAGE_SIZE = 1; // just for readability MUST be 1!
     private final JpaEntityInformation<E, ?> entityInformation;
     private final EntityManager entityManager;
+    private final QueryOptions options;
 
     /**
      * Creates a new {@link CursorPageRepositoryImpl}.
@@ -35,7 +40,20 @@ public class CursorPageRepositoryImpl<E> implements CursorPageRepository<E> {
      * @param entityManager the entity manager.
      */
     public CursorPageRepositoryImpl( final Class<E> domainClass, final EntityManager entityManager ) {
-        this( JpaEntityInformationSupport.getEntityInformation( domainClass, entityManager ), entityManager );
+        this( domainClass, entityManager, QueryOptions.DEFAULT );
+    }
+
+    /**
+     * Creates a new {@link CursorPageRepositoryImpl}.
+     *
+     * @param domainClass   the domain class.
+     * @param entityManager the entity manager.
+     * @param options       the options used to build the queries.
+     */
+    public CursorPageRepositoryImpl( final Class<E> domainClass, final EntityManager entityManager,
+            final QueryOptions options ) {
+        this( JpaEntityInformationSupport.getEntityInformation( domainClass, entityManager ), entityManager,
+                options );
     }
 
     /**
@@ -46,8 +64,21 @@ public class CursorPageRepositoryImpl<E> implements CursorPageRepository<E> {
      */
     public CursorPageRepositoryImpl( final JpaEntityInformation<E, ?> entityInformation,
             final EntityManager entityManager ) {
+        this( entityInformation, entityManager, QueryOptions.DEFAULT );
+    }
+
+    /**
+     * Creates a new {@link CursorPageRepositoryImpl}.
+     *
+     * @param entityInformation the entity information.
+     * @param entityManager     the entity manager.
+     * @param options           the options used to build the queries.
+     */
+    public CursorPageRepositoryImpl( final JpaEntityInformation<E, ?> entityInformation,
+            final EntityManager entityManager, final QueryOptions options ) {
         this.entityInformation = entityInformation;
         this.entityManager = entityManager;
+        this.options = options;
     }
 
     @Override
@@ -55,18 +86,9 @@ public class CursorPageRepositoryImpl<E> implements CursorPageRepository<E> {
         if ( request == null || request.pageSize() < 0 ) {
             throw new IllegalArgumentException( "Invalid page request: " + request );
         }
-        final CriteriaQueryBuilder<E, E> cqb = CriteriaQueryBuilder.forEntity( entityInformation.getJavaType(),
-                entityManager );
-
-        addPositionQuery( request, cqb );
-
-        cqb.andWhere( request.filters().toPredicate( cqb ) );
-
-        request.positions().forEach( position -> cqb.orderBy( position.attribute(), position.order() ) );
-
-        final var results = entityManager.createQuery( cqb.query().distinct( true ) )
-                .setMaxResults( getMaxResultSize( request ) )
-                .getResultList();
+        final QueryElement filters = filters( request );
+        final List<E> results = FilterNormalizer.matchesNothing( filters ) ? List.of() : pageQuery( request,
+                filters ).createQuery().setMaxResults( getMaxResultSize( request ) ).getResultList();
 
         final PageRequest<E> self = request.enableTotalCount() && request.totalCount().isEmpty() ? request.copy(
                 b -> b.totalCount( count( request ) ) ) : request;
@@ -77,6 +99,43 @@ public class CursorPageRepositoryImpl<E> implements CursorPageRepository<E> {
                 .entityType( entityInformation.getJavaType() ) );
     }
 
+    /**
+     * Builds the criteria query selecting the page content (without the result limit)
+     *
+     * @param request the page request
+     * @return the builder of the query
+     */
+    CriteriaQueryBuilder<E, E> pageQuery( final PageRequest<E> request ) {
+        return pageQuery( request, filters( request ) );
+    }
+
+    private CriteriaQueryBuilder<E, E> pageQuery( final PageRequest<E> request, final QueryElement filters ) {
+        final CriteriaQueryBuilder<E, E> cqb = CriteriaQueryBuilder.forEntity( entityInformation.getJavaType(),
+                entityManager, options );
+
+        addPositionQuery( request, cqb );
+
+        cqb.andWhere( filters.toPredicate( cqb ) );
+
+        request.positions().forEach( position -> cqb.orderBy( position.attribute(), position.order() ) );
+
+        // Conditions on collections are EXISTS subqueries, only joins added by custom rules can multiply the rows
+        cqb.query().distinct( cqb.isDistinctRequired() );
+        return cqb;
+    }
+
+    /**
+     * Get the filters of the request, normalized if enabled in the options
+     */
+    private QueryElement filters( final PageRequest<E> request ) {
+        if ( !options.normalizeFilters() ) {
+            return request.filters();
+        }
+        final ManagedType<E> entity = entityManager.getMetamodel().managedType( entityInformation.getJavaType() );
+        return FilterNormalizer.normalize( request.filters(),
+                attribute -> !CriteriaQueryBuilder.crossesCollection( entity, attribute ) );
+    }
+
     private void addPositionQuery( final PageRequest<E> request, final CriteriaQueryBuilder<E, E> cqb ) {
         final List<Predicate> valueConditions = new LinkedList<>();
 
@@ -134,12 +193,19 @@ public class CursorPageRepositoryImpl<E> implements CursorPageRepository<E> {
 
     @Override
     public long count( final PageRequest<E> request ) {
+        final QueryElement filters = filters( request );
+        if ( FilterNormalizer.matchesNothing( filters ) ) {
+            return 0;
+        }
         final CriteriaQueryBuilder<E, Long> cqb = CriteriaQueryBuilder.forCount( entityInformation.getJavaType(),
-                entityManager );
+                entityManager, options );
 
-        request.filters().forEach( filter -> cqb.andWhere( filter.toPredicate( cqb ) ) );
+        cqb.andWhere( filters.toPredicate( cqb ) );
+        if ( cqb.isDistinctRequired() ) {
+            cqb.query().select( cqb.cb().countDistinct( cqb.root() ) );
+        }
 
-        return entityManager.createQuery( cqb.query() ).getSingleResult();
+        return cqb.createQuery().getSingleResult();
     }
 
     private int getMaxResultSize( final PageRequest<E> request ) {
@@ -0,0 +1,322 @@
+package io.vigier.cursorpaging.jpa.memory;
+
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Filter;
+import io.vigier.cursorpaging.jpa.Order;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.Position;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import io.vigier.cursorpaging.jpa.SingleAttribute;
+import io.vigier.cursorpaging.jpa.filter.AndFilter;
+import io.vigier.cursorpaging.jpa.filter.FilterType;
+import io.vigier.cursorpaging.jpa.filter.OrFilter;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles filters and positions into a {@link Predicate} and {@link Comparator}, to filter and sort entities in
+ * memory (e.g. in an application cache) with the same semantics as the database query:
+ * <ul>
+ *     <li>a {@code null} value matches no condition (except {@link FilterType#ALWAYS})</li>
+ *     <li>a condition on an attribute within a collection matches if any element matches ({@code exists})</li>
+ *     <li>ignore-case applies to equal-to and like, like-patterns support {@code %} and {@code _}</li>
+ *     <li>{@code null} values are ordered last in ascending and first in descending order</li>
+ * </ul>
+ * Values are compared in their natural order, which corresponds to a binary collation for strings. Attribute values
+ * are read with the cached accessors of the entity classes (see {@link SingleAttribute#accessor(Class)}).
+ * Custom {@link io.vigier.cursorpaging.jpa.FilterRule}s cannot be evaluated in memory.
+ */
+public final class InMemoryCompiler {
+
+    private InMemoryCompiler() {
+    }
+
+    /**
+     * Compile the filters into a predicate
+     *
+     * @param filters the filters (e.g. {@link PageRequest#filters()})
+     * @param <E>     entity type
+     * @return the predicate matching the entities selected by the filters
+     * @throws IllegalArgumentException if the filters contain an element which cannot be evaluated in memory
+     */
+    public static <E> Predicate<E> predicate( final QueryElement filters ) {
+        @SuppressWarnings( "unchecked" ) final Predicate<E> predicate = (Predicate<E>) compile( filters );
+        return predicate;
+    }
+
+    /**
+     * Create the comparator for the order defined by the positions of the request
+     *
+     * @param request the page request
+     * @param <E>     entity type
+     * @return the comparator
+     */
+    public static <E> Comparator<E> comparator( final PageRequest<E> request ) {
+        return comparator( request.positions() );
+    }
+
+    /**
+     * Create the comparator for the order defined by the positions
+     *
+     * @param positions the positions
+     * @param <E>       entity type
+     * @return the comparator
+     */
+    public static <E> Comparator<E> comparator( final List<Position> positions ) {
+        Comparator<E> comparator = null;
+        for ( final Position position : positions ) {
+            final Comparator<E> next = comparator( position.attribute(), position.order() );
+            comparator = comparator == null ? next : comparator.thenComparing( next );
+        }
+        return comparator != null ? comparator : ( a, b ) -> 0;
+    }
+
+    private static <E> Comparator<E> comparator( final Attribute attribute, final Order order ) {
+        final Function<Object, Comparable<?>> value = value( attribute );
+        return Comparator.comparing( value::apply, order( order ) );
+    }
+
+    /**
+     * Comparator for the values of a position, including {@code null} values
+     */
+    static Comparator<Comparable<?>> order( final Order order ) {
+        return switch ( order ) {
+            case ASC -> Comparator.nullsLast( InMemoryCompiler::compare );
+            case DESC -> Comparator.nullsFirst( ( a, b ) -> compare( b, a ) );
+        };
+    }
+
+    /**
+     * Function reading the value of a (single valued) attribute used as position
+     */
+    static Function<Object, Comparable<?>> value( final Attribute attribute ) {
+        final Segment[] path = path( attribute );
+        return e -> singleValue( e, path, attribute );
+    }
+
+    private static Predicate<Object> compile( final QueryElement element ) {
+        return switch ( element ) {
+            case final AndFilter and when and.isEmpty() -> e -> true;
+            case final AndFilter and -> and.filters()
+                    .stream()
+                    .map( InMemoryCompiler::compile )
+                    .reduce( Predicate::and )
+                    .orElseThrow();
+            case final OrFilter or when or.isEmpty() -> e -> true;
+            case final OrFilter or -> or.filters()
+                    .stream()
+                    .map( InMemoryCompiler::compile )
+                    .reduce( Predicate::or )
+                    .orElseThrow();
+            case final Filter filter -> compile( filter );
+            default -> throw new IllegalArgumentException( "Cannot evaluate in memory: " + element );
+        };
+    }
+
+    private static Predicate<Object> compile( final Filter filter ) {
+        if ( filter.operation() == FilterType.ALWAYS ) {
+            final boolean value = !filter.values().isEmpty() && Boolean.TRUE.equals( filter.values().getFirst() );
+            return e -> value;
+        }
+        if ( filter.isEmpty() ) {
+            return e -> true;
+        }
+        final Attribute attribute = filter.attribute();
+        final List<? extends Comparable<?>> values = filter.values();
+        final boolean lower = attribute.ignoreCase() && CharSequence.class.isAssignableFrom( attribute.type() );
+        final Predicate<Object> test = switch ( filter.operation() ) {
+            case EQUAL_TO -> equalTo( values, lower );
+            case LIKE -> like( values, lower );
+            case GREATER_THAN -> all( values, c -> c > 0 );
+            case GREATER_THAN_OR_EQUAL_TO -> all( values, c -> c >= 0 );
+            case LESS_THAN -> all( values, c -> c < 0 );
+            case LESS_THAN_OR_EQUAL_TO -> all( values, c -> c <= 0 );
+            case ALWAYS -> throw new IllegalStateException( "Handled above" );
+        };
+        final Segment[] path = path( attribute );
+        return e -> anyMatch( e, path, 0, test );
+    }
+
+    private static Predicate<Object> equalTo( final List<? extends Comparable<?>> values, final boolean lower ) {
+        if ( lower ) {
+            final Set<String> lowerValues = values.stream().map( v -> lower( v.toString() ) ).collect(
+                    Collectors.toUnmodifiableSet() );
+            return v -> lowerValues.contains( lower( v.toString() ) );
+        }
+        if ( values.size() == 1 ) {
+            final Object value = values.getFirst();
+            return value::equals;
+        }
+        final Set<Object> set = Set.copyOf( values );
+        return set::contains;
+    }
+
+    private static Predicate<Object> like( final List<? extends Comparable<?>> values, final boolean lower ) {
+        final Predicate<String> patterns = values.stream()
+                .map( v -> like( lower ? lower( v.toString() ) : v.toString() ) )
+                .reduce( Predicate::or )
+                .orElseThrow();
+        return v -> patterns.test( lower ? lower( v.toString() ) : v.toString() );
+    }
+
+    /**
+     * Match a single like-pattern, without regular expression for a fixed prefix, suffix or infix
+     */
+    private static Predicate<String> like( final String pattern ) {
+        final int wildcard = pattern.indexOf( '%', 1 );
+        if ( pattern.indexOf( '_' ) >= 0 || ( wildcard >= 0 && wildcard < pattern.length() - 1 ) ) {
+            final Pattern regex = Pattern.compile( regex( pattern ), Pattern.DOTALL );
+            return v -> regex.matcher( v ).matches();
+        }
+        final boolean leading = pattern.startsWith( "%" );
+        final boolean trailing = pattern.length() > 1 && pattern.endsWith( "%" );
+        final String fixed = pattern.substring( leading ? 1 : 0, pattern.length() - ( trailing ? 1 : 0 ) );
+        if ( leading && trailing ) {
+            return v -> v.contains( fixed );
+        } else if ( leading ) {
+            return v -> v.endsWith( fixed );
+        } else if ( trailing ) {
+            return v -> v.startsWith( fixed );
+        }
+        return fixed::equals;
+    }
+
+    /**
+     * Translate a like-pattern into a regular expression
+     */
+    static String regex( final String likePattern ) {
+        final StringBuilder regex = new StringBuilder( likePattern.length() + 8 );
+        int literalStart = 0;
+        for ( int i = 0; i < likePattern.length(); i++ ) {
+            final char c = likePattern.charAt( i );
+            if ( c == '%' || c == '_' ) {
+                if ( literalStart < i ) {
+                    regex.append( Pattern.quote( likePattern.substring( literalStart, i ) ) );
+                }
+                regex.append( c == '%' ? ".*" : "." );
+                literalStart = i + 1;
+            }
+        }
+        if ( literalStart < likePattern.length() ) {
+            regex.append( Pattern.quote( likePattern.substring( literalStart ) ) );
+        }
+        return regex.toString();
+    }
+
+    /**
+     * All values must fulfill the comparison (the operations with multiple values are and-combined)
+     */
+    private static Predicate<Object> all( final List<? extends Comparable<?>> values, final Comparison comparison ) {
+        final Comparable<?>[] bounds = values.toArray( Comparable<?>[]::new );
+        return v -> {
+            for ( final Comparable<?> bound : bounds ) {
+                if ( !comparison.test( compare( (Comparable<?>) v, bound ) ) ) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    @FunctionalInterface
+    private interface Comparison {
+        boolean test( int compareResult );
+    }
+
+    private static String lower( final String value ) {
+        return value.toLowerCase( Locale.ROOT );
+    }
+
+    @SuppressWarnings( { "unchecked", "rawtypes" } )
+    private static int compare( final Comparable<?> a, final Comparable<?> b ) {
+        return ((Comparable) a).compareTo( b );
+    }
+
+    /**
+     * Test the value(s) at the path, all elements of collections on the way are visited
+     */
+    private static boolean anyMatch( final Object entity, final Segment[] path, final int index,
+            final Predicate<Object> test ) {
+        Object value = entity;
+        for ( int i = index; value != null; i++ ) {
+            if ( i > 0 && path[i - 1].isCollection( value ) ) {
+                for ( final Object element : (Collection<?>) value ) {
+                    if ( anyMatch( element, path, i, test ) ) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if ( i == path.length ) {
+                return test.test( value );
+            }
+            value = path[i].valueOf( value );
+        }
+        return false;
+    }
+
+    private static Comparable<?> singleValue( final Object entity, final Segment[] path,
+            final Attribute attribute ) {
+        Object value = entity;
+        for ( final Segment segment : path ) {
+            value = value != null ? segment.valueOf( value ) : null;
+            if ( value != null && segment.isCollection( value ) ) {
+                throw new IllegalArgumentException( "Cannot order by an attribute of a collection: " + attribute );
+            }
+        }
+        if ( value == null || value instanceof Comparable<?> ) {
+            return (Comparable<?>) value;
+        }
+        throw new IllegalStateException( "Attribute %s is not a comparable: %s".formatted( attribute, value ) );
+    }
+
+    private static Segment[] path( final Attribute attribute ) {
+        return attribute.attributes().stream().map( Segment::new ).toArray( Segment[]::new );
+    }
+
+    /**
+     * Reads one attribute of a path, with the accessor for the last seen entity class (usually there is only one). The
+     * same applies to the check if the value is a collection, as an {@code instanceof} check for an interface the class
+     * does not implement is comparatively expensive.
+     */
+    private static final class Segment {
+        private final SingleAttribute attribute;
+        private Accessor last;
+        private ValueType lastValueType;
+
+        private Segment( final SingleAttribute attribute ) {
+            this.attribute = attribute;
+        }
+
+        Object valueOf( final Object entity ) {
+            Accessor accessor = last;
+            if ( accessor == null || accessor.type() != entity.getClass() ) {
+                accessor = new Accessor( entity.getClass(), attribute.accessor( entity.getClass() ) );
+                last = accessor;
+            }
+            return accessor.function().apply( entity );
+        }
+
+        boolean isCollection( final Object value ) {
+            ValueType valueType = lastValueType;
+            if ( valueType == null || valueType.type() != value.getClass() ) {
+                valueType = new ValueType( value.getClass(), value instanceof Collection<?> );
+                lastValueType = valueType;
+            }
+            return valueType.collection();
+        }
+    }
+
+    private record Accessor(Class<?> type, Function<Object, Object> function) {
+    }
+
+    private record ValueType(Class<?> type, boolean collection) {
+    }
+}
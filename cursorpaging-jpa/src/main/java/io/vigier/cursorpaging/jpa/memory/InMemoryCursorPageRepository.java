@@ -0,0 +1,311 @@
+package io.vigier.cursorpaging.jpa.memory;
+
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Order;
+import io.vigier.cursorpaging.jpa.Page;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.Position;
+import io.vigier.cursorpaging.jpa.repository.CursorPageRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A {@link CursorPageRepository} keeping the entities in memory, e.g. for reference data or lookup tables which are
+ * read far more often than they change.
+ * <p>
+ * For every registered index (an order, i.e. the positions of a page request) the entities are kept sorted in a
+ * {@link ConcurrentSkipListMap}, so the start of a page is found in {@code O(log n)} and the page is read from there on
+ * until it is filled with entities matching the filters. The index is also used for the reversed order. Requests with an
+ * order without index are answered by filtering and sorting all entities.
+ * <p>
+ * Filters, positions and the resulting cursors are the same as for the database repository (see
+ * {@link InMemoryCompiler} for the semantics), so the requests can be serialized with the {@code RequestSerializer}.
+ * <p>
+ * Reads do not lock. Updates are serialized and visible to reads entry by entry (like the iteration of the concurrent
+ * collections), i.e. a page read concurrently to {@link #saveAll(Collection)} may contain only some of the entities. An
+ * entity whose sort key changes is removed from its old position before it is inserted at the new one, so a concurrent
+ * page may miss it, but never contains it twice.
+ * The sort keys are taken from an entity when it is saved: to change an entity, save it (or a new instance) again.
+ *
+ * @param <E> the type of the entities
+ */
+@Slf4j
+public class InMemoryCursorPageRepository<E> implements CursorPageRepository<E> {
+
+    private static final int ADDED_TO_PAGE_SIZE = 1;
+
+    private final Class<E> entityType;
+    private final Function<Object, Comparable<?>> id;
+    private final Map<Object, E> entities = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile Map<List<IndexKey>, Index> indexes = Map.of();
+
+    /**
+     * Creates a new {@link InMemoryCursorPageRepository}.
+     *
+     * @param entityType the entity class
+     * @param id         the attribute identifying an entity, must be unique and not {@code null}
+     */
+    public InMemoryCursorPageRepository( final Class<E> entityType, final Attribute id ) {
+        this.entityType = entityType;
+        this.id = InMemoryCompiler.value( id );
+    }
+
+    /**
+     * Register an index for the order defined by the positions of the builder, e.g.
+     * {@code b -> b.asc( DataRecord_.name ).asc( DataRecord_.id )}. The index is used for this order and its reverse.
+     *
+     * @param order customizer defining the positions
+     * @return this repository
+     */
+    public InMemoryCursorPageRepository<E> addIndex( final Consumer<PageRequest.PageRequestBuilder<E>> order ) {
+        final List<IndexKey> keys = keys( PageRequest.create( order ).positions() );
+        synchronized ( lock ) {
+            if ( !indexes.containsKey( keys ) && !indexes.containsKey( reverse( keys ) ) ) {
+                final Index index = new Index( new Ordering( keys ) );
+                entities.values().forEach( index::add );
+                final Map<List<IndexKey>, Index> copy = new HashMap<>( indexes );
+                copy.put( keys, index );
+                indexes = Map.copyOf( copy );
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Add or replace (entity with the same id) an entity
+     *
+     * @param entity the entity
+     */
+    public void save( final E entity ) {
+        saveAll( List.of( entity ) );
+    }
+
+    /**
+     * Add or replace (entities with the same id) the entities
+     *
+     * @param entities the entities
+     */
+    public void saveAll( final Collection<? extends E> entities ) {
+        synchronized ( lock ) {
+            for ( final E entity : entities ) {
+                final Object key = Objects.requireNonNull( id.apply( entity ), "Id must not be null" );
+                this.entities.put( key, entity );
+                indexes.values().forEach( index -> index.add( entity ) );
+            }
+        }
+    }
+
+    /**
+     * Remove the entity with the id of the given entity
+     *
+     * @param entity the entity
+     */
+    public void delete( final E entity ) {
+        deleteById( id.apply( entity ) );
+    }
+
+    /**
+     * Remove the entity with the given id
+     *
+     * @param id the id
+     */
+    public void deleteById( final Object id ) {
+        synchronized ( lock ) {
+            if ( entities.remove( id ) != null ) {
+                indexes.values().forEach( index -> index.remove( id ) );
+            }
+        }
+    }
+
+    /**
+     * Get the entity with the given id
+     *
+     * @param id the id
+     * @return the entity if present
+     */
+    public Optional<E> findById( final Object id ) {
+        return Optional.ofNullable( entities.get( id ) );
+    }
+
+    @Override
+    public Page<E> loadPage( final PageRequest<E> request ) {
+        if ( request == null || request.pageSize() < 0 ) {
+            throw new IllegalArgumentException( "Invalid page request: " + request );
+        }
+        final Predicate<E> filter = InMemoryCompiler.predicate( request.filters() );
+        final List<E> results = load( request, filter, request.pageSize() + ADDED_TO_PAGE_SIZE );
+
+        final PageRequest<E> self = request.enableTotalCount() && request.totalCount().isEmpty() ? request.copy(
+                b -> b.totalCount( count( filter ) ) ) : request;
+
+        final boolean hasNext = results.size() > self.pageSize();
+        final List<E> content = new ArrayList<>( hasNext ? results.subList( 0, self.pageSize() ) : results );
+        if ( self.isReversed() ) {
+            Collections.reverse( content );
+        }
+        return Page.create( b -> b.content( content )
+                .self( self )
+                .next( hasNext ? self.positionOf( results.get( self.pageSize() - 1 ), results.getLast() ) : null )
+                .entityType( entityType ) );
+    }
+
+    @Override
+    public long count( final PageRequest<E> request ) {
+        return count( InMemoryCompiler.predicate( request.filters() ) );
+    }
+
+    private long count( final Predicate<E> filter ) {
+        return entities.values().stream().filter( filter ).count();
+    }
+
+    private List<E> load( final PageRequest<E> request, final Predicate<E> filter, final int maxResults ) {
+        final List<IndexKey> keys = keys( request.positions() );
+        final Map<List<IndexKey>, Index> current = indexes;
+        final Index index = current.get( keys );
+        final Index reversed = index == null ? current.get( reverse( keys ) ) : null;
+        if ( index == null && reversed == null ) {
+            log.debug( "No index for the order of {}, sorting all entities", request );
+            return scan( request, filter, maxResults );
+        }
+        NavigableMap<Key, E> map = index != null ? index.map() : reversed.map().descendingMap();
+        if ( !request.isFirstPage() ) {
+            // equal keys are ordered by id, the bound places the probe after (or before for the reverse) all of them
+            map = map.tailMap( Key.probe( values( request ), index != null ? 1 : -1 ), false );
+        }
+        final List<E> results = new ArrayList<>( Math.min( maxResults, 64 ) );
+        for ( final E entity : map.values() ) {
+            if ( filter.test( entity ) ) {
+                results.add( entity );
+                if ( results.size() == maxResults ) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<E> scan( final PageRequest<E> request, final Predicate<E> filter, final int maxResults ) {
+        final Ordering ordering = new Ordering( keys( request.positions() ) );
+        final Key probe = request.isFirstPage() ? null : Key.probe( values( request ), 1 );
+        return entities.values()
+                .stream()
+                .filter( filter )
+                .map( e -> Map.entry( ordering.key( e, id ), e ) )
+                .filter( e -> probe == null || ordering.compare( e.getKey(), probe ) > 0 )
+                .sorted( Map.Entry.comparingByKey( ordering ) )
+                .limit( maxResults )
+                .map( Map.Entry::getValue )
+                .toList();
+    }
+
+    private static Comparable<?>[] values( final PageRequest<?> request ) {
+        return request.positions().stream().map( Position::value ).toArray( Comparable<?>[]::new );
+    }
+
+    private static List<IndexKey> keys( final List<Position> positions ) {
+        return positions.stream().map( p -> new IndexKey( p.attribute(), p.order() ) ).toList();
+    }
+
+    private static List<IndexKey> reverse( final List<IndexKey> keys ) {
+        return keys.stream()
+                .map( k -> new IndexKey( k.attribute(), k.order() == Order.ASC ? Order.DESC : Order.ASC ) )
+                .toList();
+    }
+
+    private record IndexKey(Attribute attribute, Order order) {
+    }
+
+    /**
+     * The values of the positions of an entity, and its id to distinguish entities with equal values
+     */
+    private record Key(Comparable<?>[] values, Comparable<?> id, int bound) {
+
+        static Key probe( final Comparable<?>[] values, final int bound ) {
+            return new Key( values, null, bound );
+        }
+    }
+
+    private static final class Ordering implements Comparator<Key> {
+        private static final Comparator<Comparable<?>> IDS = InMemoryCompiler.order( Order.ASC );
+
+        private final List<Function<Object, Comparable<?>>> values;
+        private final List<Comparator<Comparable<?>>> orders;
+
+        private Ordering( final List<IndexKey> keys ) {
+            this.values = keys.stream().map( k -> InMemoryCompiler.value( k.attribute() ) ).toList();
+            this.orders = keys.stream().map( k -> InMemoryCompiler.order( k.order() ) ).toList();
+        }
+
+        Key key( final Object entity, final Function<Object, Comparable<?>> id ) {
+            final Comparable<?>[] keyValues = new Comparable<?>[values.size()];
+            for ( int i = 0; i < keyValues.length; i++ ) {
+                keyValues[i] = values.get( i ).apply( entity );
+            }
+            return new Key( keyValues, id.apply( entity ), 0 );
+        }
+
+        @Override
+        public int compare( final Key a, final Key b ) {
+            for ( int i = 0; i < orders.size(); i++ ) {
+                final int c = orders.get( i ).compare( a.values()[i], b.values()[i] );
+                if ( c != 0 ) {
+                    return c;
+                }
+            }
+            if ( a.bound() != 0 || b.bound() != 0 ) {
+                return Integer.compare( a.bound(), b.bound() );
+            }
+            return IDS.compare( a.id(), b.id() );
+        }
+    }
+
+    /**
+     * Sorted entities, with the keys by id to remove an entity (only accessed within the update lock)
+     */
+    private final class Index {
+        private final Ordering ordering;
+        private final ConcurrentSkipListMap<Key, E> map;
+        private final Map<Object, Key> keys = new HashMap<>();
+
+        private Index( final Ordering ordering ) {
+            this.ordering = ordering;
+            this.map = new ConcurrentSkipListMap<>( ordering );
+        }
+
+        NavigableMap<Key, E> map() {
+            return map;
+        }
+
+        void add( final E entity ) {
+            final Key key = ordering.key( entity, id );
+            final Key previous = keys.put( key.id(), key );
+            // removed first, so a concurrent read never sees the entity at both positions
+            if ( previous != null && ordering.compare( previous, key ) != 0 ) {
+                map.remove( previous );
+            }
+            map.put( key, entity );
+        }
+
+        void remove( final Object id ) {
+            final Key previous = keys.remove( id );
+            if ( previous != null ) {
+                map.remove( previous );
+            }
+        }
+    }
+}
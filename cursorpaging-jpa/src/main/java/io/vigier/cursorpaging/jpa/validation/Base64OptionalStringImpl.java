@@ -6,19 +6,41 @@ import java.util.Optional;
 
 public class Base64OptionalStringImpl implements ConstraintValidator<Base64, Optional<String>> {
 
+    private static final int PADDING_MAX = 2;
+
     @Override
     public boolean isValid( final Optional<String> cursor,
             final ConstraintValidatorContext constraintValidatorContext ) {
-        return cursor.map( this::isValidBase64 ).orElse( true );
+        return cursor.map( c -> decodedLength( c ) >= 0 ).orElse( true );
     }
 
-    private boolean isValidBase64( final String cursor ) {
-        try {
-            java.util.Base64.getUrlDecoder().decode( cursor );
-            return true;
-        } catch ( final IllegalArgumentException e ) {
-            return false;
+    /**
+     * Check a URL-safe base64 string (with or without padding) the way {@link java.util.Base64#getUrlDecoder()} does,
+     * but without decoding it.
+     * <p>
+     * A {@code Base64String} keeps the decoded length of its check: binding a cursor parameter as
+     * {@code Base64String} (with the {@code StringToBase64StringConverter}) checks it only once, while a validated
+     * {@code String} parameter is checked again when it is decoded.
+     *
+     * @param base64 the base64 string
+     * @return the number of bytes of the decoded string, {@code -1} if it is not a valid base64 string
+     */
+    public static int decodedLength( final CharSequence base64 ) {
+        final int length = base64.length();
+        int padding = 0;
+        while ( padding < PADDING_MAX && padding < length && base64.charAt( length - 1 - padding ) == '=' ) {
+            padding++;
+        }
+        final int data = length - padding;
+        if ( data % 4 == 1 || (padding > 0 && (length % 4 != 0 || data % 4 != 4 - padding)) ) {
+            return -1;
         }
+        for ( int i = 0; i < data; i++ ) {
+            final char c = base64.charAt( i );
+            if ( !((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_') ) {
+                return -1;
+            }
+        }
+        return data * 3 / 4;
     }
-
 }
@@ -0,0 +1,103 @@
+package io.vigier.cursorpaging.jpa;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.NotReadablePropertyException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttributeAccessorsTest {
+
+    static class Base {
+        private final Long id = 4711L;
+    }
+
+    static class Entity extends Base {
+        private final String name = "field";
+        private final boolean active = true;
+        private final Embedded embedded = new Embedded();
+
+        public String getName() {
+            return "getter";
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+    }
+
+    static class Embedded {
+        private final Integer number = 42;
+    }
+
+    public static class PublicEntity {
+        public int getCount() {
+            return 7;
+        }
+    }
+
+    @Test
+    void shouldPreferGetterOverField() {
+        assertThat( AttributeAccessors.valueOf( new Entity(), "name" ) ).isEqualTo( "getter" );
+        assertThat( AttributeAccessors.valueOf( new Entity(), "active" ) ).isEqualTo( true );
+    }
+
+    @Test
+    void shouldFallbackToFieldOfClassHierarchy() {
+        assertThat( AttributeAccessors.valueOf( new Entity(), "id" ) ).isEqualTo( 4711L );
+    }
+
+    @Test
+    void shouldCacheAccessorPerClassAndName() {
+        assertThat( AttributeAccessors.accessor( Entity.class, "name" ) ).isSameAs(
+                AttributeAccessors.accessor( Entity.class, "name" ) );
+        assertThat( AttributeAccessors.accessor( Base.class, "id" ) ).isNotSameAs(
+                AttributeAccessors.accessor( Entity.class, "id" ) );
+    }
+
+    @Test
+    void shouldReadAttributePaths() {
+        final var attribute = Attribute.of( "embedded", Embedded.class, "number", Integer.class );
+        assertThat( attribute.valueOf( new Entity() ) ).isEqualTo( 42 );
+        assertThat( attribute.valueOf( null ) ).isNull();
+    }
+
+    @Test
+    void shouldReadWithFunctions() {
+        assertThat( AttributeAccessors.function( PublicEntity.class, "count" ).apply( new PublicEntity() ) ).isEqualTo(
+                7 );
+        assertThat( AttributeAccessors.function( Entity.class, "name" ).apply( new Entity() ) ).isEqualTo( "getter" );
+        assertThat( AttributeAccessors.function( Entity.class, "id" ).apply( new Entity() ) ).isEqualTo( 4711L );
+        assertThat( AttributeAccessors.function( PublicEntity.class, "count" ) ).isSameAs(
+                AttributeAccessors.function( PublicEntity.class, "count" ) );
+    }
+
+    @Test
+    void shouldReadWithFunctionsOfChildClassLoader( @TempDir final Path dir ) throws Exception {
+        // like a devtools restart class loader: the entity class is not visible from the library
+        final Path source = Files.writeString( dir.resolve( "Counter.java" ),
+                "package child; public class Counter { public int getCount() { return 7; } }" );
+        assertThat( ToolProvider.getSystemJavaCompiler()
+                .run( null, null, null, "-d", dir.toString(), source.toString() ) ).isZero();
+
+        try ( final URLClassLoader loader = new URLClassLoader( new URL[] { dir.toUri().toURL() },
+                AttributeAccessorsTest.class.getClassLoader() ) ) {
+            final Class<?> type = loader.loadClass( "child.Counter" );
+            final Object entity = type.getConstructor().newInstance();
+
+            assertThat( AttributeAccessors.function( type, "count" ).apply( entity ) ).isEqualTo( 7 );
+        }
+    }
+
+    @Test
+    void shouldFailForUnknownProperty() {
+        assertThatThrownBy( () -> AttributeAccessors.valueOf( new Entity(), "unknown" ) ).isInstanceOf(
+                NotReadablePropertyException.class );
+    }
+}
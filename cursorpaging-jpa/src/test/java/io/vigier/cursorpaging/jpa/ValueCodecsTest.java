@@ -0,0 +1,116 @@
+package io.vigier.cursorpaging.jpa;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ValueCodecsTest {
+
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    enum Color {
+        RED, GREEN
+    }
+
+    record Code(String value) implements Comparable<Code> {
+        @Override
+        public int compareTo( final Code o ) {
+            return value.compareTo( o.value );
+        }
+
+        public static Code valueOf( final String value ) {
+            return new Code( value );
+        }
+    }
+
+    static Stream<Arguments> conversionServiceCases() {
+        return Stream.of( //
+                Arguments.of( Long.class, "42" ), Arguments.of( Long.class, " -7 " ), Arguments.of( Long.class, "" ),
+                Arguments.of( Integer.class, "0x1F" ), Arguments.of( Short.class, "12" ),
+                Arguments.of( Byte.class, "-3" ), Arguments.of( Double.class, "0.5" ),
+                Arguments.of( Float.class, "1.5" ), Arguments.of( BigDecimal.class, "1.25" ),
+                Arguments.of( Boolean.class, "yes" ), Arguments.of( Boolean.class, " OFF" ),
+                Arguments.of( Boolean.class, "" ), Arguments.of( UUID.class, UUID.randomUUID().toString() ),
+                Arguments.of( UUID.class, " " ), Arguments.of( Color.class, "GREEN" ), Arguments.of( Color.class, "" ),
+                Arguments.of( String.class, "" ) );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "conversionServiceCases" )
+    void shouldParseLikeTheConversionService( final Class<?> type, final String text ) {
+        assertThat( ValueCodecs.of( type ).parse( text, CONVERSION_SERVICE ) ).isEqualTo(
+                CONVERSION_SERVICE.convert( text, type ) );
+    }
+
+    static Stream<Object> formattedValues() {
+        return Stream.of( 42L, new BigDecimal( "1.250" ), Color.GREEN, UUID.randomUUID(), Instant.ofEpochSecond( 1, 6 ),
+                LocalDate.of( 2024, 1, 2 ), OffsetDateTime.parse( "2024-01-02T03:04:00+02:00" ) );
+    }
+
+    @ParameterizedTest
+    @MethodSource( "formattedValues" )
+    @SuppressWarnings( "unchecked" )
+    void shouldFormatTheInverseOfTheParser( final Object value ) {
+        final ValueCodec<Object> codec = (ValueCodec<Object>) ValueCodecs.of( value.getClass() );
+
+        assertThat( codec.parse( codec.format( value ), CONVERSION_SERVICE ) ).isEqualTo( value );
+    }
+
+    @Test
+    void shouldParseTemporalTypes() {
+        assertThat( ValueCodecs.of( Instant.class ).parse( "2024-01-02T03:04:05.000000006Z", CONVERSION_SERVICE ) )
+                .isEqualTo( Instant.ofEpochSecond( 1_704_164_645L, 6 ) );
+        assertThat( ValueCodecs.of( OffsetDateTime.class ).parse( "2024-01-02T03:04:05+02:00", CONVERSION_SERVICE ) )
+                .isEqualTo( OffsetDateTime.parse( "2024-01-02T03:04:05+02:00" ) );
+        assertThat( ValueCodecs.of( LocalDate.class ).parse( "2024-01-02", CONVERSION_SERVICE ) )
+                .isEqualTo( LocalDate.of( 2024, 1, 2 ) );
+    }
+
+    @Test
+    void shouldConvertNumbersAndReportFailuresLikeTheConversionService() {
+        assertThat( ValueCodecs.of( Long.class ).convert( 42, CONVERSION_SERVICE ) ).isEqualTo( 42L );
+        assertThat( ValueCodecs.of( long.class ).convert( "42", CONVERSION_SERVICE ) ).isEqualTo( 42L );
+        assertThat( ValueCodecs.of( Float.class ).convert( 0.5d, CONVERSION_SERVICE ) ).isEqualTo( 0.5f );
+
+        assertThatThrownBy( () -> ValueCodecs.of( Integer.class ).convert( Long.MAX_VALUE, CONVERSION_SERVICE ) )
+                .isInstanceOf( ConversionFailedException.class );
+        assertThatThrownBy( () -> ValueCodecs.of( Long.class ).parse( "abc", CONVERSION_SERVICE ) )
+                .isInstanceOf( ConversionFailedException.class );
+        assertThatThrownBy( () -> ValueCodecs.of( Boolean.class ).parse( "maybe", CONVERSION_SERVICE ) )
+                .isInstanceOf( ConversionFailedException.class );
+    }
+
+    @Test
+    void shouldConvertCustomTypesWithTheConversionService() {
+        final ValueCodec<?> codec = ValueCodecs.of( Code.class );
+
+        assertThat( codec.hasParser() ).isFalse();
+        assertThat( codec.parse( "A-1", CONVERSION_SERVICE ) ).isEqualTo( new Code( "A-1" ) );
+        assertThat( Attribute.of( "color", Color.class ).<Color>codec().format( Color.RED ) ).isEqualTo( "RED" );
+    }
+
+    @Test
+    void shouldCacheTheCodecOnTheAttribute() {
+        final Attribute attribute = Attribute.of( "count", Long.class );
+
+        assertThat( attribute.codec() ).isSameAs( attribute.codec() ).isSameAs( ValueCodecs.of( Long.class ) );
+        assertThat( attribute ).isEqualTo( Attribute.of( "count", Long.class ) )
+                .hasSameHashCodeAs( Attribute.of( "count", Long.class ) );
+        assertThat( attribute.verify( "17" ) ).isEqualTo( 17L );
+        assertThat( attribute.verify( 17 ) ).isEqualTo( 17L );
+        assertThatThrownBy( () -> attribute.verify( new Code( "x" ) ) ).isInstanceOf( IllegalArgumentException.class );
+    }
+}
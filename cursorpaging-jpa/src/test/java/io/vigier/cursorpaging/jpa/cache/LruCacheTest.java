@@ -0,0 +1,45 @@
+package io.vigier.cursorpaging.jpa.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LruCacheTest {
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        final LruCache<String, Integer> cache = new LruCache<>( 2 );
+        cache.put( "one", 1 );
+        cache.put( "two", 2 );
+        assertThat( cache.get( "one" ) ).isEqualTo( 1 );
+
+        cache.put( "three", 3 );
+
+        assertThat( cache.get( "two" ) ).isNull();
+        assertThat( cache.get( "one" ) ).isEqualTo( 1 );
+        assertThat( cache.get( "three" ) ).isEqualTo( 3 );
+        assertThat( cache.stats() ).isEqualTo( new CacheStats( 3, 1, 1, 2 ) );
+        assertThat( cache.stats().hitRatio() ).isEqualTo( 0.75 );
+    }
+
+    @Test
+    void shouldInvalidateEntries() {
+        final LruCache<String, Integer> cache = new LruCache<>( 10 );
+        cache.put( "one", 1 );
+        cache.put( "two", 2 );
+
+        cache.invalidate( "one" );
+        assertThat( cache.get( "one" ) ).isNull();
+        assertThat( cache.size() ).isOne();
+
+        cache.invalidateAll();
+        assertThat( cache.get( "two" ) ).isNull();
+        assertThat( cache.stats().evictions() ).isZero();
+    }
+
+    @Test
+    void shouldRejectInvalidSize() {
+        assertThatThrownBy( () -> new LruCache<>( 0 ) ).isInstanceOf( IllegalArgumentException.class );
+    }
+}
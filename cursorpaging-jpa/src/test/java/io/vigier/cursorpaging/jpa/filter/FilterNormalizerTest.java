@@ -0,0 +1,183 @@
+package io.vigier.cursorpaging.jpa.filter;
+
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Filter;
+import io.vigier.cursorpaging.jpa.FilterRule;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.QueryBuilder;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+import static io.vigier.cursorpaging.jpa.Filters.and;
+import static io.vigier.cursorpaging.jpa.Filters.attribute;
+import static io.vigier.cursorpaging.jpa.Filters.or;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilterNormalizerTest {
+
+    enum Status {
+        OPEN, DONE
+    }
+
+    private static final Attribute PRIORITY = Attribute.of( "priority", Integer.class );
+    private static final Attribute NAME = Attribute.of( "name", String.class );
+    private static final Attribute AMOUNT = Attribute.of( "amount", BigDecimal.class );
+    private static final Attribute STATUS = Attribute.of( "status", Status.class );
+    private static final Attribute ID = Attribute.of( "id", UUID.class );
+    private static final Attribute TAG = Attribute.of( "tags", String.class, "name", String.class );
+
+    private static QueryElement normalize( final QueryElement element ) {
+        return FilterNormalizer.normalize( element, a -> !a.equals( TAG ) );
+    }
+
+    private static Filter always( final boolean value ) {
+        return Filter.create( b -> b.always().values( value ) );
+    }
+
+    @Test
+    void shouldFlattenNestedListsAndRemoveDuplicates() {
+        final var alpha = attribute( NAME ).equalTo( "Alpha" );
+        final var red = attribute( TAG ).equalTo( "red" );
+
+        assertThat( normalize( and( and( alpha ), and( and( red, alpha ) ) ) ) ).isEqualTo( and( alpha, red ) );
+        assertThat( normalize( or( or( alpha ), or( alpha ) ) ) ).isEqualTo( alpha );
+        assertThat( normalize( attribute( NAME ).in( "Alpha", "Bravo", "Alpha" ) ) ).isEqualTo(
+                attribute( NAME ).in( "Alpha", "Bravo" ) );
+    }
+
+    @Test
+    void shouldFoldAlways() {
+        final var alpha = attribute( NAME ).equalTo( "Alpha" );
+
+        assertThat( normalize( and( alpha, always( true ) ) ) ).isEqualTo( alpha );
+        assertThat( FilterNormalizer.matchesNothing( normalize( and( alpha, always( false ) ) ) ) ).isTrue();
+        assertThat( normalize( or( alpha, always( false ) ) ) ).isEqualTo( alpha );
+        assertThat( normalize( or( alpha, always( true ) ) ) ).isEqualTo( and() );
+        assertThat( normalize( or( alpha, attribute( NAME ).in() ) ) ).isEqualTo( and() );
+        assertThat( FilterNormalizer.matchesNothing( normalize( or( Filters.filterAll() ) ) ) ).isTrue();
+        assertThat( normalize( or() ) ).isEqualTo( and() );
+    }
+
+    @Test
+    void shouldMergeRanges() {
+        assertThat( normalize( and( attribute( PRIORITY ).greaterThan( 1 ), attribute( PRIORITY ).greaterThan( 5 ),
+                attribute( PRIORITY ).greaterThanOrEqualTo( 5 ), attribute( PRIORITY ).lessThanOrEqualTo( 8 ),
+                attribute( PRIORITY ).lessThan( 9 ) ) ) ) //
+                .isEqualTo( and( attribute( PRIORITY ).greaterThan( 5 ),
+                        attribute( PRIORITY ).lessThanOrEqualTo( 8 ) ) );
+    }
+
+    @Test
+    void shouldDetectContradictingRanges() {
+        assertThat( FilterNormalizer.matchesNothing( normalize(
+                and( attribute( PRIORITY ).greaterThan( 10 ), attribute( PRIORITY ).lessThan( 5 ) ) ) ) ).isTrue();
+        assertThat( FilterNormalizer.matchesNothing( normalize(
+                and( attribute( PRIORITY ).greaterThan( 5 ), attribute( PRIORITY ).lessThanOrEqualTo( 5 ) ) ) ) ).isTrue();
+        assertThat( normalize( and( attribute( PRIORITY ).greaterThanOrEqualTo( 5 ),
+                attribute( PRIORITY ).lessThanOrEqualTo( 5 ) ) ) ).isNotEqualTo( Filters.filterAll() );
+    }
+
+    @Test
+    void shouldIntersectInSetsWithRanges() {
+        assertThat( normalize( and( attribute( PRIORITY ).in( 1, 2, 3, 4 ), attribute( PRIORITY ).in( 2, 3, 4, 5 ),
+                attribute( PRIORITY ).greaterThan( 2 ) ) ) ).isEqualTo( attribute( PRIORITY ).in( 3, 4 ) );
+        assertThat( FilterNormalizer.matchesNothing( normalize(
+                and( attribute( PRIORITY ).equalTo( 1 ), attribute( PRIORITY ).equalTo( 2 ) ) ) ) ).isTrue();
+    }
+
+    @Test
+    void shouldIntersectDecimalsByValue() {
+        assertThat( normalize( and( attribute( AMOUNT ).in( new BigDecimal( "1.0" ), new BigDecimal( "2.0" ) ),
+                attribute( AMOUNT ).equalTo( new BigDecimal( "1.00" ) ) ) ) ) //
+                .isEqualTo( attribute( AMOUNT ).equalTo( new BigDecimal( "1.0" ) ) );
+    }
+
+    @Test
+    void shouldNotMergeStringConditions() {
+        // 'Alpha' = 'ALPHA' with a case-insensitive collation, and 'b' < 'C' with a locale collation
+        final var equalTo = and( attribute( NAME ).equalTo( "Alpha" ), attribute( NAME ).equalTo( "ALPHA" ) );
+        assertThat( normalize( equalTo ) ).isEqualTo( equalTo );
+
+        final var range = and( attribute( NAME ).greaterThan( "b" ), attribute( NAME ).lessThan( "C" ) );
+        assertThat( normalize( range ) ).isEqualTo( range );
+    }
+
+    @Test
+    void shouldNotMergeEnumConditions() {
+        // Java compares the ordinal, the database the name of an @Enumerated( STRING ) column: 'DONE' < 'OPEN'
+        final var range = and( attribute( STATUS ).greaterThan( Status.DONE ),
+                attribute( STATUS ).lessThan( Status.OPEN ) );
+        assertThat( normalize( range ) ).isEqualTo( range );
+    }
+
+    @Test
+    void shouldNotMergeUuidConditions() {
+        // Java compares signed longs (negative first), the database unsigned bytes (0x00… first)
+        final UUID high = UUID.fromString( "ffffffff-0000-0000-0000-000000000000" );
+        final UUID low = UUID.fromString( "00000000-0000-0000-0000-000000000001" );
+        final var range = and( attribute( ID ).greaterThan( low ), attribute( ID ).lessThan( high ) );
+
+        assertThat( high.compareTo( low ) ).isNegative();
+        assertThat( normalize( range ) ).isEqualTo( range );
+    }
+
+    @Test
+    void shouldNotIntersectConditionsOnCollections() {
+        final var redAndGreen = and( attribute( TAG ).equalTo( "red" ), attribute( TAG ).equalTo( "green" ) );
+        assertThat( normalize( redAndGreen ) ).isEqualTo( redAndGreen );
+
+        final var range = and( attribute( TAG ).greaterThan( "m" ), attribute( TAG ).lessThan( "c" ) );
+        assertThat( normalize( range ) ).isEqualTo( range );
+    }
+
+    @Test
+    void shouldNotIntersectIgnoreCaseInSets() {
+        final var filters = and( Filters.ignoreCase( NAME ).equalTo( "ALPHA" ),
+                Filters.ignoreCase( NAME ).equalTo( "alpha" ) );
+        assertThat( normalize( filters ) ).isEqualTo( filters );
+    }
+
+    @Test
+    void shouldUniteInSetsOfOrFilter() {
+        assertThat( normalize( or( attribute( TAG ).equalTo( "red" ), attribute( NAME ).like( "A%" ),
+                attribute( TAG ).in( "green", "red" ), attribute( NAME ).like( "B%" ) ) ) ) //
+                .isEqualTo( or( attribute( TAG ).in( "red", "green" ), attribute( NAME ).like( "A%", "B%" ) ) );
+    }
+
+    @Test
+    void shouldUniteOrFiltersWithNullAndBlankValues() {
+        final var alpha = attribute( NAME ).equalTo( "Alpha" );
+        final var blank = attribute( NAME ).equalTo( "" );
+        final var none = attribute( NAME ).equalTo( (Comparable<?>) null );
+        final var withNull = new Filter( NAME, FilterType.EQUAL_TO, List.of( "Bravo" ) ) {
+            @Override
+            public List<? extends Comparable<?>> values() {
+                return Arrays.asList( "Bravo", null );
+            }
+        };
+
+        assertThat( normalize( or( blank, alpha ) ) ).isEqualTo( and() );
+        assertThat( normalize( or( none, alpha ) ) ).isEqualTo( and() );
+        assertThat( normalize( or( attribute( NAME ).in( "Alpha", "", "Bravo" ), attribute( NAME ).in( "Charlie" ) ) ) )
+                .isEqualTo( attribute( NAME ).in( "Alpha", "Bravo", "Charlie" ) );
+        assertThat( normalize( or( alpha, withNull ) ) ).isEqualTo( attribute( NAME ).in( "Alpha", "Bravo" ) );
+    }
+
+    @Test
+    void shouldKeepCustomRules() {
+        final FilterRule rule = new FilterRule() {
+            @Override
+            public Predicate toPredicate( final QueryBuilder cqb ) {
+                return cqb.cb().and();
+            }
+        };
+        final var alpha = attribute( NAME ).equalTo( "Alpha" );
+
+        assertThat( normalize( and( rule, and( alpha ) ) ) ).isEqualTo( and( rule, alpha ) );
+    }
+}
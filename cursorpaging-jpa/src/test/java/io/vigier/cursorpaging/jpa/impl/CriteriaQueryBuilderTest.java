@@ -0,0 +1,75 @@
+package io.vigier.cursorpaging.jpa.impl;
+
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.QueryOptions;
+import io.vigier.cursorpaging.jpa.QueryOptions.LeadingWildcard;
+import io.vigier.cursorpaging.jpa.impl.CriteriaQueryBuilder.LikeRange;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CriteriaQueryBuilderTest {
+
+    @Test
+    void shouldCreateRangeForPrefixPattern() {
+        assertThat( CriteriaQueryBuilder.likeRange( "Alpha%" ) ).isEqualTo( new LikeRange( "Alpha", "Alphb" ) );
+        assertThat( CriteriaQueryBuilder.likeRange( "a%" ) ).isEqualTo( new LikeRange( "a", "b" ) );
+        assertThat( CriteriaQueryBuilder.likeRange( "a z%" ) ).isEqualTo( new LikeRange( "a z", "a {" ) );
+    }
+
+    @Test
+    void shouldCreateRangeForPrefixWithEscapedWildcards() {
+        assertThat( CriteriaQueryBuilder.likeRange( "abc\\_%" ) ).isEqualTo( new LikeRange( "abc_", "abc`" ) );
+        assertThat( CriteriaQueryBuilder.likeRange( "a\\%b%" ) ).isEqualTo( new LikeRange( "a%b", "a%c" ) );
+        assertThat( CriteriaQueryBuilder.likeRange( "a\\\\%" ) ).isEqualTo( new LikeRange( "a\\", "a]" ) );
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings = { "abc\\%", "\\%", "a\\\\_%" } )
+    void shouldNotCreateRangeForEscapedTrailingWildcard( final String pattern ) {
+        assertThat( CriteriaQueryBuilder.likeRange( pattern ) ).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings = { "%", "Alpha", "Al%pha%", "Al_ha%", "%Alpha%", "Alpha%%", "Alph\uFFFF%", "\uD83D\uDE00%",
+            "\uD7FF%" } )
+    void shouldNotCreateRangeForOtherPatterns( final String pattern ) {
+        assertThat( CriteriaQueryBuilder.likeRange( pattern ) ).isNull();
+    }
+
+    @Test
+    void shouldRejectLeadingWildcardIfConfigured() {
+        final var cqb = CriteriaQueryBuilder.builder()
+                .options( QueryOptions.create( o -> o.leadingWildcard( LeadingWildcard.REJECT ) ) )
+                .build();
+
+        assertThatThrownBy( () -> cqb.isLike( Attribute.of( "name", String.class ), "%pha" ) ).isInstanceOf(
+                IllegalArgumentException.class ).hasMessageContaining( "leading wildcard" );
+        assertThatThrownBy( () -> cqb.isLike( Attribute.of( "name", String.class ), "_lpha" ) ).isInstanceOf(
+                IllegalArgumentException.class );
+    }
+
+    @Test
+    void shouldSplitValuesIntoChunks() {
+        final List<Integer> values = IntStream.range( 0, 10 ).boxed().toList();
+
+        assertThat( CriteriaQueryBuilder.chunks( values, 4 ) ).containsExactly( List.of( 0, 1, 2, 3 ),
+                List.of( 4, 5, 6, 7 ), List.of( 8, 9 ) );
+        assertThat( CriteriaQueryBuilder.chunks( values, 10 ) ).singleElement().isEqualTo( values );
+    }
+
+    @Test
+    void shouldPadLastChunkToPowerOfTwo() {
+        assertThat( CriteriaQueryBuilder.chunks( List.of( 1, 2, 3 ), 8 ) ).containsExactly( List.of( 1, 2, 3, 3 ) );
+        assertThat( CriteriaQueryBuilder.chunks( List.of( 1, 2, 3, 4, 5 ), 6 ) ).containsExactly(
+                List.of( 1, 2, 3, 4, 5, 5 ) );
+        assertThat( CriteriaQueryBuilder.chunks( List.of( 1 ), 8 ) ).containsExactly( List.of( 1 ) );
+        assertThat( CriteriaQueryBuilder.chunks( IntStream.range( 0, 300 ).boxed().toList(), 256 ) ).extracting(
+                List::size ).containsExactly( 256, 64 );
+    }
+}
@@ -4,12 +4,18 @@ import io.vigier.cursorpaging.jpa.Attribute;
 import io.vigier.cursorpaging.jpa.Filter;
 import io.vigier.cursorpaging.jpa.FilterRule;
 import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.Order;
 import io.vigier.cursorpaging.jpa.Page;
 import io.vigier.cursorpaging.jpa.PageRequest;
 import io.vigier.cursorpaging.jpa.QueryBuilder;
+import io.vigier.cursorpaging.jpa.QueryOptions;
 import io.vigier.cursorpaging.jpa.Rules;
 import io.vigier.cursorpaging.jpa.bootstrap.CursorPageRepositoryFactoryBean;
+import io.vigier.cursorpaging.jpa.cache.CachingCursorPageRepository;
+import io.vigier.cursorpaging.jpa.cache.HibernateCacheInvalidator;
 import io.vigier.cursorpaging.jpa.filter.FilterBuilder;
+import io.vigier.cursorpaging.jpa.impl.CriteriaQueryBuilder;
+import io.vigier.cursorpaging.jpa.impl.CursorPageRepositoryImpl;
 import io.vigier.cursorpaging.jpa.itest.config.JpaConfig;
 import io.vigier.cursorpaging.jpa.itest.model.AccessEntry;
 import io.vigier.cursorpaging.jpa.itest.model.AccessEntry_;
@@ -36,16 +42,20 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static io.vigier.cursorpaging.jpa.Filters.attribute;
 import static io.vigier.cursorpaging.jpa.itest.TestData.NAMES;
@@ -73,6 +83,8 @@ class PostgreSqlCursorPageTest {
     private TestDataPersister testDataPersister;
     @Autowired
     private TagRepository tagRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -469,6 +481,214 @@ class PostgreSqlCursorPageTest {
         assertThat( firstPage.getContent() ).allMatch( e -> e.getName().indexOf( 'r' ) > 0 );
     }
 
+    @Test
+    void shouldReturnEmptyPageForContradictingFilters() {
+        defaultData( 10 );
+        final var repository = new CursorPageRepositoryImpl<>( DataRecord.class, entityManager,
+                QueryOptions.create( o -> o.normalizeFilters( true ) ) );
+        final Attribute createdAt = Attribute.of( DataRecord_.auditInfo, AuditInfo_.createdAt );
+        final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 5 )
+                .enableTotalCount( true )
+                .asc( DataRecord_.id )
+                .filter( Filters.attribute( DataRecord_.name ).in( NAME_ALPHA, NAME_BRAVO ) )
+                .filter( Filters.attribute( createdAt ).greaterThan( Instant.now() ) )
+                .filter( Filters.attribute( createdAt ).lessThan( Instant.EPOCH ) ) );
+
+        final var page = repository.loadPage( request );
+
+        assertThat( page.getContent() ).isEmpty();
+        assertThat( page.next() ).isEmpty();
+        assertThat( page.self().totalCount() ).contains( 0L );
+        assertThat( repository.count( request ) ).isZero();
+    }
+
+    @Test
+    void shouldMatchNormalizedAndUnnormalizedFilters() {
+        defaultData( 50 );
+        final var normalized = new CursorPageRepositoryImpl<>( DataRecord.class, entityManager,
+                QueryOptions.create( o -> o.normalizeFilters( true ) ) );
+        final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 100 )
+                .asc( DataRecord_.id )
+                .filters( Filters.or( Filters.and( Filters.attribute( DataRecord_.name ).in( NAMES ),
+                                Filters.attribute( DataRecord_.name ).in( NAME_ALPHA, NAME_BRAVO ) ),
+                        Filters.attribute( DataRecord_.tags, Tag_.name ).equalTo( TAG_RED ),
+                        Filters.attribute( DataRecord_.tags, Tag_.name ).equalTo( "green" ) ) ) );
+
+        final var page = normalized.loadPage( request );
+
+        assertThat( page.getContent() ).isNotEmpty()
+                .containsExactlyElementsOf( dataRecordRepository.loadPage( request ).getContent() );
+        assertThat( normalized.count( request ) ).isEqualTo( dataRecordRepository.count( request ) );
+    }
+
+    @Test
+    void shouldServeCachedPagesUntilEntitiesChange() {
+        defaultData( 20 );
+        final var repository = new CachingCursorPageRepository<>(
+                new CursorPageRepositoryImpl<>( DataRecord.class, entityManager ), DataRecord.class, entityManager, 10 );
+        final var invalidator = HibernateCacheInvalidator.register( entityManager.getEntityManagerFactory() )
+                .add( repository );
+        try {
+            final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 5 )
+                    .enableTotalCount( true )
+                    .desc( DataRecord_.id ) );
+            final var page = repository.loadPage( request );
+            final var cached = repository.loadPage( request );
+
+            assertThat( cached.content( DataRecord::getId ) ).isEqualTo( page.content( DataRecord::getId ) );
+            assertThat( cached.getTotalCount() ).contains( 20L );
+            assertThat( cached.next().map( PageRequest::positions ) ).isEqualTo(
+                    page.next().map( PageRequest::positions ) );
+            assertThat( repository.stats().hits() ).isOne();
+
+            dataRecordRepository.save( DataRecord.builder()
+                    .name( "Added" )
+                    .securityClass( page.getContent().getFirst().getSecurityClass() )
+                    .status( Status.ACTIVE )
+                    .build() );
+
+            assertThat( repository.stats().size() ).isZero();
+            assertThat( repository.loadPage( request ).getTotalCount() ).contains( 21L );
+            assertThat( repository.stats().misses() ).isEqualTo( 2 );
+        } finally {
+            invalidator.remove( repository );
+        }
+    }
+
+    @Test
+    void shouldNotCachePagesOfTransactionsWithFlushedChanges() {
+        defaultData( 20 );
+        final var repository = new CachingCursorPageRepository<>(
+                new CursorPageRepositoryImpl<>( DataRecord.class, entityManager ), DataRecord.class, entityManager, 10 );
+        final var invalidator = HibernateCacheInvalidator.register( entityManager.getEntityManagerFactory() )
+                .add( repository );
+        try {
+            assertThat( HibernateCacheInvalidator.register( entityManager.getEntityManagerFactory() ) ).isSameAs(
+                    invalidator );
+            final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 5 )
+                    .enableTotalCount( true )
+                    .desc( DataRecord_.id ) );
+            transactionTemplate.executeWithoutResult( status -> {
+                final var page = repository.loadPage( request );
+                dataRecordRepository.saveAndFlush( DataRecord.builder()
+                        .name( "Uncommitted" )
+                        .securityClass( page.getContent().getFirst().getSecurityClass() )
+                        .status( Status.ACTIVE )
+                        .build() );
+
+                assertThat( repository.loadPage( request ).getTotalCount() ).contains( 21L );
+                assertThat( repository.stats().size() ).isZero();
+                status.setRollbackOnly();
+            } );
+
+            assertThat( repository.loadPage( request ).getTotalCount() ).contains( 20L );
+            assertThat( repository.stats().size() ).isOne();
+        } finally {
+            invalidator.remove( repository );
+        }
+    }
+
+    @Test
+    void shouldInvalidateCachedPagesAfterCommitOfCollectionChanges() {
+        defaultData( 20 );
+        final var repository = new CachingCursorPageRepository<>(
+                new CursorPageRepositoryImpl<>( DataRecord.class, entityManager ), DataRecord.class, entityManager, 10 );
+        final var invalidator = HibernateCacheInvalidator.register( entityManager.getEntityManagerFactory() )
+                .add( repository );
+        try {
+            final Tag red = tagRepository.findByName( TAG_RED );
+            final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 100 )
+                    .desc( DataRecord_.id )
+                    .filter( attribute( DataRecord_.tags, Tag_.name ).equalTo( TAG_RED ) ) );
+            final int before = repository.loadPage( request ).getContent().size();
+
+            transactionTemplate.executeWithoutResult( _ -> {
+                final DataRecord record = dataRecordRepository.findAll()
+                        .stream()
+                        .filter( r -> !r.getTags().contains( red ) )
+                        .findFirst()
+                        .orElseThrow();
+                record.getTags().add( red );
+                entityManager.flush();
+                assertThat( repository.stats().size() ).isZero();
+
+                // another transaction caches the committed state meanwhile
+                final var concurrent = CompletableFuture.supplyAsync( () -> repository.loadPage( request ) ).join();
+                assertThat( concurrent.getContent() ).hasSize( before );
+                assertThat( repository.stats().size() ).isOne();
+            } );
+
+            assertThat( repository.stats().size() ).isZero();
+            assertThat( repository.loadPage( request ).getContent() ).hasSize( before + 1 );
+        } finally {
+            invalidator.remove( repository );
+        }
+    }
+
+    @Test
+    void shouldKeepInvalidatorRegisteredWithoutRepositories() {
+        defaultData( 5 );
+        final var repository = new CachingCursorPageRepository<>(
+                new CursorPageRepositoryImpl<>( DataRecord.class, entityManager ), DataRecord.class, entityManager, 10 );
+        final var invalidator = HibernateCacheInvalidator.register( entityManager.getEntityManagerFactory() )
+                .add( repository );
+        final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 5 ).desc( DataRecord_.id ) );
+        repository.loadPage( request );
+        invalidator.remove( repository );
+
+        dataRecordRepository.save( DataRecord.builder()
+                .name( "Added" )
+                .securityClass( repository.loadPage( request ).getContent().getFirst().getSecurityClass() )
+                .status( Status.ACTIVE )
+                .build() );
+
+        assertThat( repository.stats().size() ).isOne();
+        assertThat( HibernateCacheInvalidator.register( entityManager.getEntityManagerFactory() ) ).isSameAs(
+                invalidator );
+    }
+
+    @ParameterizedTest
+    @EnumSource( QueryOptions.InList.class )
+    void shouldFilterResultsWithLargeInList( final QueryOptions.InList strategy ) {
+        defaultData( 100 );
+        final var repository = new CursorPageRepositoryImpl<>( DataRecord.class, entityManager,
+                QueryOptions.create( o -> o.inList( strategy ).inListThreshold( 2 ).inListChunkSize( 16 ) ) );
+        final List<UUID> ids = dataRecordRepository.findAll()
+                .stream()
+                .map( DataRecord::getId )
+                .sorted( Comparator.comparing( UUID::toString ) )
+                .limit( 50 )
+                .toList();
+        final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 100 )
+                .asc( DataRecord_.id )
+                .filter( Filters.attribute( DataRecord_.id ).in( ids ) )
+                .filter( Filters.ignoreCase( DataRecord_.tags, Tag_.name ).in( "RED", "GREEN", "BLUE" ) ) );
+
+        final var page = repository.loadPage( request );
+
+        assertThat( page.getContent() ).isNotEmpty()
+                .allMatch( e -> ids.contains( e.getId() ) )
+                .containsExactlyElementsOf( dataRecordRepository.loadPage( request ).getContent() );
+        assertThat( repository.count( request ) ).isEqualTo( page.getContent().size() );
+    }
+
+    @Test
+    void shouldFilterResultsWithLikePrefixAsRange() {
+        defaultData( TestData.NAMES.length * 2 );
+        final var repository = new CursorPageRepositoryImpl<>( DataRecord.class, entityManager,
+                QueryOptions.create( o -> o.likePrefixAsRange( true ) ) );
+        final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 100 )
+                .asc( DataRecord_.id )
+                .filter( Filters.attribute( DataRecord_.name ).like( "Alp%", "Bra%" ) ) );
+
+        final var rangePage = repository.loadPage( request );
+
+        assertThat( rangePage.getContent() ).isNotEmpty()
+                .allMatch( e -> e.getName().startsWith( "Alp" ) || e.getName().startsWith( "Bra" ) )
+                .containsExactlyElementsOf( dataRecordRepository.loadPage( request ).getContent() );
+        assertThat( repository.count( request ) ).isEqualTo( rangePage.getContent().size() );
+    }
+
     @Test
     void shouldFilterResultsWithMultipleLikeExpressions() {
         defaultData( TestData.NAMES.length * 2 );
@@ -798,6 +1018,86 @@ class PostgreSqlCursorPageTest {
         assertThat( page ).hasSize( redOrGreenCount );
     }
 
+    @Test
+    void shouldJoinToOneAssociationOnlyOnce() {
+        final var cqb = CriteriaQueryBuilder.forEntity( DataRecord.class, entityManager );
+        final var securityClassName = Attribute.of( DataRecord_.securityClass, SecurityClass_.name );
+
+        cqb.andWhere( cqb.equalTo( securityClassName, "public" ) );
+        cqb.andWhere( cqb.isLike( securityClassName, "pub%" ) );
+        cqb.orderBy( securityClassName, Order.ASC );
+
+        assertThat( cqb.root().getJoins() ).hasSize( 1 );
+    }
+
+    @Test
+    void shouldJoinCollectionWithoutQuery() {
+        final var query = entityManager.getCriteriaBuilder().createQuery( DataRecord.class );
+        final var cqb = CriteriaQueryBuilder.<DataRecord, DataRecord>builder()
+                .cb( entityManager.getCriteriaBuilder() )
+                .root( query.from( DataRecord.class ) )
+                .entityType( DataRecord.class )
+                .entityManager( entityManager )
+                .build();
+
+        assertThat( cqb.equalTo( Attribute.of( DataRecord_.tags, Tag_.name ), "red" ) ).isNotNull();
+        assertThat( cqb.root().getJoins() ).hasSize( 1 );
+    }
+
+    @Test
+    void shouldMatchDifferentElementsOfCollectionInAndFilter() {
+        final List<DataRecord> all = defaultData( 99 ).records();
+        final var redTag = tagRepository.findByName( "red" );
+        final var greenTag = tagRepository.findByName( "green" );
+        final int redAndGreenCount = (int) all.stream()
+                .filter( r -> r.getTags().contains( greenTag ) && r.getTags().contains( redTag ) )
+                .count();
+
+        final var page = dataRecordRepository.loadPage( PageRequest.create( b -> b.pageSize( 99 )
+                .asc( DataRecord_.id )
+                .filter( attribute( DataRecord_.tags, Tag_.name ).equalTo( "red" ) )
+                .filter( attribute( DataRecord_.tags, Tag_.name ).equalTo( "green" ) ) ) );
+
+        assertThat( page ).hasSize( redAndGreenCount );
+    }
+
+    @Test
+    void shouldCountRecordsFilteredByManyToManyRelationshipOnce() {
+        final List<DataRecord> all = defaultData( 99 ).records();
+        final var redTag = tagRepository.findByName( "red" );
+        final var greenTag = tagRepository.findByName( "green" );
+        final long redOrGreenCount = all.stream()
+                .filter( r -> r.getTags().contains( greenTag ) || r.getTags().contains( redTag ) )
+                .count();
+
+        final var count = dataRecordRepository.count( PageRequest.create( b -> b.asc( DataRecord_.id )
+                .filter( attribute( DataRecord_.tags, Tag_.name ).in( "green", "red" ) ) ) );
+
+        assertThat( count ).isEqualTo( redOrGreenCount );
+    }
+
+    @Test
+    void shouldFetchPagesOrderedByAttributeOfManyToOneRelationship() {
+        defaultData( 30 );
+        final var securityClassName = Attribute.of( DataRecord_.securityClass, SecurityClass_.name );
+        final PageRequest<DataRecord> request = PageRequest.create( b -> b.pageSize( 10 )
+                .asc( securityClassName )
+                .asc( DataRecord_.id )
+                .filter( attribute( DataRecord_.tags, Tag_.name ).in( TestData.TAGS ) ) );
+
+        final var firstPage = dataRecordRepository.loadPage( request );
+        final var secondPage = dataRecordRepository.loadPage( firstPage.next().orElseThrow().withPageSize( 30 ) );
+
+        final var expected = dataRecordRepository.findAll()
+                .stream()
+                .filter( r -> !r.getTags().isEmpty() )
+                .sorted( Comparator.comparing( ( final DataRecord r ) -> r.getSecurityClass().getName() )
+                        .thenComparing( r -> r.getId().toString() ) )
+                .toList();
+        assertThat( firstPage.getContent() ).containsExactlyElementsOf( expected.subList( 0, 10 ) );
+        assertThat( secondPage.getContent() ).containsExactlyElementsOf( expected.subList( 10, expected.size() ) );
+    }
+
     @RequiredArgsConstructor
     @Builder
     private static class AclCheckFilterRule implements FilterRule {
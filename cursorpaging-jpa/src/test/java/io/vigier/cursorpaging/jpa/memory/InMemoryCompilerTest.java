@@ -0,0 +1,151 @@
+package io.vigier.cursorpaging.jpa.memory;
+
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Filter;
+import io.vigier.cursorpaging.jpa.FilterRule;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import io.vigier.cursorpaging.jpa.QueryElement;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.Test;
+
+import static io.vigier.cursorpaging.jpa.Filters.and;
+import static io.vigier.cursorpaging.jpa.Filters.attribute;
+import static io.vigier.cursorpaging.jpa.Filters.or;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryCompilerTest {
+
+    enum Status {ACTIVE, DELETED}
+
+    @Getter
+    @AllArgsConstructor
+    static class Tag {
+        private String name;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Audit {
+        private String createdBy;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Item {
+        private String name;
+        private Integer priority;
+        private Status status;
+        private Audit audit;
+        private Set<Tag> tags;
+    }
+
+    private static final Attribute NAME = Attribute.of( "name", String.class );
+    private static final Attribute PRIORITY = Attribute.of( "priority", Integer.class );
+    private static final Attribute STATUS = Attribute.of( "status", Status.class );
+    private static final Attribute CREATED_BY = Attribute.of( "audit", Audit.class, "createdBy", String.class );
+    private static final Attribute TAG = Attribute.of( "tags", Tag.class, "name", String.class );
+
+    private static final Item ALPHA = new Item( "Alpha", 1, Status.ACTIVE, new Audit( "alice" ),
+            Set.of( new Tag( "red" ), new Tag( "green" ) ) );
+    private static final Item BRAVO = new Item( "Bravo", 5, Status.DELETED, new Audit( "bob" ),
+            Set.of( new Tag( "blue" ) ) );
+    private static final Item CHARLIE = new Item( "charlie", null, Status.ACTIVE, null, Set.of() );
+    private static final List<Item> ITEMS = List.of( ALPHA, BRAVO, CHARLIE );
+
+    private static List<Item> filter( final QueryElement filters ) {
+        final Predicate<Item> predicate = InMemoryCompiler.predicate( filters );
+        return ITEMS.stream().filter( predicate ).toList();
+    }
+
+    @Test
+    void shouldEvaluateEqualToAndIn() {
+        assertThat( filter( attribute( NAME ).equalTo( "Alpha" ) ) ).containsExactly( ALPHA );
+        assertThat( filter( attribute( STATUS ).in( Status.ACTIVE ) ) ).containsExactly( ALPHA, CHARLIE );
+        assertThat( filter( attribute( NAME ).in( "Bravo", "Charlie", "Delta" ) ) ).containsExactly( BRAVO );
+        assertThat( filter( Filters.ignoreCase( NAME ).in( "ALPHA", "CHARLIE" ) ) ).containsExactly( ALPHA, CHARLIE );
+    }
+
+    @Test
+    void shouldEvaluateComparisonsWithoutNulls() {
+        assertThat( filter( attribute( PRIORITY ).greaterThan( 1 ) ) ).containsExactly( BRAVO );
+        assertThat( filter( attribute( PRIORITY ).greaterThanOrEqualTo( 1 ) ) ).containsExactly( ALPHA, BRAVO );
+        assertThat( filter( attribute( PRIORITY ).lessThan( 5 ) ) ).containsExactly( ALPHA );
+        assertThat( filter( attribute( PRIORITY ).lessThanOrEqualTo( 5 ) ) ).containsExactly( ALPHA, BRAVO );
+        assertThat( filter( attribute( NAME ).greaterThan( "B" ) ) ).containsExactly( BRAVO, CHARLIE );
+    }
+
+    @Test
+    void shouldEvaluateLike() {
+        assertThat( filter( attribute( NAME ).like( "%ha%" ) ) ).containsExactly( ALPHA, CHARLIE );
+        assertThat( filter( attribute( NAME ).like( "_ravo", "A%" ) ) ).containsExactly( ALPHA, BRAVO );
+        assertThat( filter( Filters.ignoreCase( NAME ).like( "C%" ) ) ).containsExactly( CHARLIE );
+        assertThat( filter( attribute( NAME ).like( "C%" ) ) ).isEmpty();
+        assertThat( filter( attribute( NAME ).like( "Al.ha" ) ) ).isEmpty();
+        assertThat( filter( attribute( NAME ).like( "%avo", "Alpha", "c%l%" ) ) ).containsExactly( ALPHA, BRAVO,
+                CHARLIE );
+        assertThat( filter( attribute( NAME ).like( "%" ) ) ).isEqualTo( ITEMS );
+    }
+
+    @Test
+    void shouldTranslateLikePattern() {
+        assertThat( InMemoryCompiler.regex( "a%b_c" ) ).isEqualTo( "\\Qa\\E.*\\Qb\\E.\\Qc\\E" );
+        assertThat( InMemoryCompiler.regex( "%" ) ).isEqualTo( ".*" );
+    }
+
+    @Test
+    void shouldEvaluateNestedAndCollectionAttributes() {
+        assertThat( filter( attribute( CREATED_BY ).equalTo( "bob" ) ) ).containsExactly( BRAVO );
+        assertThat( filter( attribute( TAG ).in( "green", "blue" ) ) ).containsExactly( ALPHA, BRAVO );
+        // like exists-subqueries: both conditions can be fulfilled by different elements
+        assertThat( filter( and( attribute( TAG ).equalTo( "red" ), attribute( TAG ).equalTo( "green" ) ) ) ) //
+                .containsExactly( ALPHA );
+    }
+
+    @Test
+    void shouldCombineFilters() {
+        assertThat( filter( or( attribute( NAME ).equalTo( "Bravo" ),
+                and( attribute( STATUS ).equalTo( Status.ACTIVE ), attribute( TAG ).equalTo( "red" ) ) ) ) ) //
+                .containsExactly( ALPHA, BRAVO );
+        assertThat( filter( and() ) ).isEqualTo( ITEMS );
+        assertThat( filter( attribute( NAME ).in() ) ).isEqualTo( ITEMS );
+        assertThat( filter( Filters.filterAll() ) ).isEmpty();
+        assertThat( filter( Filter.create( b -> b.always().values( true ) ) ) ).isEqualTo( ITEMS );
+    }
+
+    @Test
+    void shouldRejectCustomRules() {
+        final FilterRule rule = cqb -> cqb.cb().and();
+
+        assertThatThrownBy( () -> InMemoryCompiler.predicate( and( rule ) ) ).isInstanceOf(
+                IllegalArgumentException.class );
+    }
+
+    @Test
+    void shouldOrderByPositionsWithNulls() {
+        final PageRequest<Item> byPriority = PageRequest.create( b -> b.asc( PRIORITY ).asc( NAME ) );
+        assertThat( ITEMS.stream().sorted( InMemoryCompiler.comparator( byPriority ) ) ).containsExactly( ALPHA,
+                BRAVO, CHARLIE );
+
+        final PageRequest<Item> byPriorityDesc = PageRequest.create( b -> b.desc( PRIORITY ).asc( NAME ) );
+        assertThat( ITEMS.stream().sorted( InMemoryCompiler.comparator( byPriorityDesc ) ) ).containsExactly( CHARLIE,
+                BRAVO, ALPHA );
+
+        final PageRequest<Item> byStatus = PageRequest.create( b -> b.desc( STATUS ).desc( NAME ) );
+        assertThat( ITEMS.stream().sorted( InMemoryCompiler.comparator( byStatus ) ) ).containsExactly( BRAVO,
+                CHARLIE, ALPHA );
+    }
+
+    @Test
+    void shouldRejectOrderByCollectionAttribute() {
+        final PageRequest<Item> byTag = PageRequest.create( b -> b.asc( TAG ) );
+
+        assertThatThrownBy( () -> ITEMS.stream().sorted( InMemoryCompiler.comparator( byTag ) ).toList() ) //
+                .isInstanceOf( IllegalArgumentException.class );
+    }
+}
@@ -0,0 +1,124 @@
+package io.vigier.cursorpaging.jpa.memory;
+
+import io.vigier.cursorpaging.jpa.Attribute;
+import io.vigier.cursorpaging.jpa.Filters;
+import io.vigier.cursorpaging.jpa.Page;
+import io.vigier.cursorpaging.jpa.PageRequest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryCursorPageRepositoryTest {
+
+    @Getter
+    @AllArgsConstructor
+    static class Item {
+        private Long id;
+        private String name;
+        private Integer priority;
+    }
+
+    private static final Attribute ID = Attribute.of( "id", Long.class );
+    private static final Attribute NAME = Attribute.of( "name", String.class );
+    private static final Attribute PRIORITY = Attribute.of( "priority", Integer.class );
+
+    private static final List<Item> ITEMS = IntStream.range( 0, 50 )
+            .mapToObj( i -> new Item( (long) i, "item-" + i % 7, i % 5 == 0 ? null : i % 4 ) )
+            .toList();
+
+    private static InMemoryCursorPageRepository<Item> repository( final boolean indexed ) {
+        final var repository = new InMemoryCursorPageRepository<Item>( Item.class, ID );
+        repository.saveAll( ITEMS );
+        if ( indexed ) {
+            repository.addIndex( b -> b.asc( PRIORITY ).asc( ID ) );
+        }
+        return repository;
+    }
+
+    private static List<Item> loadAll( final InMemoryCursorPageRepository<Item> repository,
+            final PageRequest<Item> request ) {
+        final List<Item> all = new ArrayList<>();
+        PageRequest<Item> next = request;
+        while ( next != null ) {
+            final Page<Item> page = repository.loadPage( next );
+            all.addAll( page.getContent() );
+            next = page.next().orElse( null );
+        }
+        return all;
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = { true, false } )
+    void shouldLoadAllPagesInOrderWithNullsLast( final boolean indexed ) {
+        final PageRequest<Item> request = PageRequest.create( b -> b.asc( PRIORITY ).asc( ID )
+                .pageSize( 4 )
+                .filter( Filters.attribute( NAME ).in( "item-1", "item-2", "item-5" ) ) );
+
+        final List<Item> expected = ITEMS.stream()
+                .filter( i -> List.of( "item-1", "item-2", "item-5" ).contains( i.getName() ) )
+                .sorted( Comparator.comparing( Item::getPriority, Comparator.nullsLast( Comparator.naturalOrder() ) )
+                        .thenComparing( Item::getId ) )
+                .toList();
+        assertThat( loadAll( repository( indexed ), request ) ).isEqualTo( expected );
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = { true, false } )
+    void shouldLoadAllPagesInReverseOrderWithNullsFirst( final boolean indexed ) {
+        final PageRequest<Item> request = PageRequest.create( b -> b.desc( PRIORITY ).desc( ID ).pageSize( 7 ) );
+
+        final List<Item> expected = ITEMS.stream()
+                .sorted( Comparator.comparing( Item::getPriority, Comparator.nullsLast( Comparator.naturalOrder() ) )
+                        .thenComparing( Item::getId )
+                        .reversed() )
+                .toList();
+        assertThat( loadAll( repository( indexed ), request ) ).isEqualTo( expected );
+    }
+
+    @ParameterizedTest
+    @ValueSource( booleans = { true, false } )
+    void shouldLoadPreviousPageWithReversedRequest( final boolean indexed ) {
+        final var repository = repository( indexed );
+        final Page<Item> first = repository.loadPage(
+                PageRequest.create( b -> b.asc( PRIORITY ).asc( ID ).pageSize( 5 ) ) );
+        final Page<Item> second = repository.loadPage( first.next().orElseThrow() );
+
+        final Page<Item> previous = repository.loadPage( second.self().toReversed() );
+
+        assertThat( previous.getContent() ).isEqualTo( first.getContent() );
+    }
+
+    @Test
+    void shouldUpdateIndexesOnSaveAndDelete() {
+        final var repository = repository( true );
+        final PageRequest<Item> request = PageRequest.create( b -> b.asc( PRIORITY ).asc( ID )
+                .pageSize( 2 )
+                .enableTotalCount( true ) );
+
+        repository.save( new Item( 3L, "moved", -1 ) );
+        repository.deleteById( 1L );
+
+        final Page<Item> page = repository.loadPage( request );
+        assertThat( page.content( Item::getId ) ).containsExactly( 3L, 4L );
+        assertThat( page.getTotalCount() ).contains( 49L );
+        assertThat( repository.findById( 3L ).map( Item::getName ) ).contains( "moved" );
+        assertThat( loadAll( repository, request ) ).hasSize( 49 ).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldCountFilteredEntities() {
+        final PageRequest<Item> request = PageRequest.create(
+                b -> b.asc( ID ).filter( Filters.attribute( PRIORITY ).greaterThan( 2 ) ) );
+
+        assertThat( repository( false ).count( request ) ).isEqualTo(
+                ITEMS.stream().filter( i -> i.getPriority() != null && i.getPriority() > 2 ).count() );
+    }
+}